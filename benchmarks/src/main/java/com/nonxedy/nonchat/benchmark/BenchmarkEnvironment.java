@@ -0,0 +1,195 @@
+package com.nonxedy.nonchat.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.InvalidDescriptionException;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import com.nonxedy.nonchat.Nonchat;
+import com.nonxedy.nonchat.benchmark.stub.StubServer;
+import com.nonxedy.nonchat.config.DeathConfig;
+import com.nonxedy.nonchat.config.PluginConfig;
+import com.nonxedy.nonchat.config.PluginMessages;
+import com.nonxedy.nonchat.core.ChatManager;
+import com.nonxedy.nonchat.core.DeathMessageManager;
+import com.nonxedy.nonchat.util.core.debugging.Debugger;
+import com.nonxedy.nonchat.util.core.permissions.PermissionCache;
+
+/**
+ * Boots the parts of the plugin the benchmarks exercise on top of {@link StubServer}.
+ * The plugin is built through JavaPlugin's initialization constructor, the one meant for
+ * running plugins outside a server, with the plugin.yml shipped in the plugin jar.
+ * PluginConfig always reads plugins/nonchat/config.yml relative to the working directory,
+ * so the data folder lives there as well.
+ */
+public final class BenchmarkEnvironment {
+    /** Permissions of regular senders: no bubbles, no spam tracking so repeated corpus lines are not blocked */
+    public static final Set<String> SENDER_PERMISSIONS = Set.of(
+            PermissionCache.SPAM_BYPASS,
+            PermissionCache.COOLDOWN_BYPASS);
+
+    private final StubServer server;
+    private final File dataFolder;
+    private final Nonchat plugin;
+    private final PluginConfig config;
+    private final PluginMessages messages;
+    private ChatManager chatManager;
+    private DeathMessageManager deathMessageManager;
+
+    private BenchmarkEnvironment() {
+        this.server = StubServer.install();
+        this.dataFolder = new File("plugins/nonchat");
+        this.dataFolder.mkdirs();
+        this.plugin = createPlugin(dataFolder);
+        this.config = new PluginConfig(plugin);
+        this.messages = new PluginMessages(plugin, config);
+        this.messages.loadLanguage();
+    }
+
+    /**
+     * Creates a fresh environment with no online players
+     * @return The environment
+     */
+    public static BenchmarkEnvironment create() {
+        BenchmarkEnvironment environment = new BenchmarkEnvironment();
+        environment.server.clearPlayers();
+        return environment;
+    }
+
+    /**
+     * Gets the chat manager, creating it on first use
+     * @return Chat manager with the default channels
+     */
+    public ChatManager chatManager() {
+        if (chatManager == null) {
+            chatManager = new ChatManager(plugin, config, messages);
+        }
+        return chatManager;
+    }
+
+    /**
+     * Gets the death message manager, loading deaths.yml on first use
+     * @return Death message manager
+     */
+    public DeathMessageManager deathMessageManager() {
+        if (deathMessageManager == null) {
+            DeathConfig deathConfig = new DeathConfig(dataFolder, plugin.getLogger(), plugin);
+            deathConfig.load();
+            deathMessageManager = new DeathMessageManager(dataFolder, new Debugger(plugin, 7), deathConfig);
+            deathMessageManager.loadMessages();
+        }
+        return deathMessageManager;
+    }
+
+    /**
+     * Adds players on a grid centred on the origin, all within the given radius
+     * @param count Number of players
+     * @param radius Radius they must stay within
+     * @param permissions Permissions of every player
+     * @return The added players
+     */
+    public List<Player> addPlayers(int count, double radius, Set<String> permissions) {
+        List<Player> players = new ArrayList<>(count);
+        int side = (int) Math.ceil(Math.sqrt(count));
+        // Keep the grid inside the inscribed square so every player is within the radius
+        double spacing = side > 1 ? (radius / Math.sqrt(2)) * 2 / (side - 1) : 0;
+        double offset = side > 1 ? radius / Math.sqrt(2) : 0;
+        for (int i = 0; i < count; i++) {
+            double x = (i % side) * spacing - offset;
+            double z = (i / side) * spacing - offset;
+            players.add(server.addPlayer("Player" + i, x, z, permissions));
+        }
+        return players;
+    }
+
+    /**
+     * Stops the chat pipeline and removes all players
+     */
+    public void close() {
+        if (chatManager != null) {
+            chatManager.cleanup();
+            chatManager = null;
+        }
+        server.clearPlayers();
+    }
+
+    public StubServer getServer() {
+        return server;
+    }
+
+    public Nonchat getPlugin() {
+        return plugin;
+    }
+
+    public PluginConfig getConfig() {
+        return config;
+    }
+
+    public PluginMessages getMessages() {
+        return messages;
+    }
+
+    /**
+     * Loads a corpus file from the classpath, skipping blank lines and # comments
+     * @param resource Resource path
+     * @return Corpus lines
+     */
+    public static String[] loadCorpus(String resource) {
+        List<String> lines = new ArrayList<>();
+        try (InputStream in = BenchmarkEnvironment.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing corpus " + resource);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    lines.add(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read corpus " + resource, e);
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    @SuppressWarnings("removal")
+    private static Nonchat createPlugin(File dataFolder) {
+        PluginDescriptionFile description;
+        try (InputStream in = Nonchat.class.getClassLoader().getResourceAsStream("plugin.yml")) {
+            if (in == null) {
+                throw new IllegalStateException("plugin.yml not found on the classpath");
+            }
+            description = new PluginDescriptionFile(in);
+        } catch (IOException | InvalidDescriptionException e) {
+            throw new IllegalStateException("Unable to read plugin.yml", e);
+        }
+
+        Nonchat plugin = new BenchmarkPlugin(new JavaPluginLoader(Bukkit.getServer()), description,
+                dataFolder, new File(dataFolder.getParentFile(), "nonchat.jar"));
+        plugin.getLogger().setLevel(Level.WARNING);
+        return plugin;
+    }
+
+    /**
+     * Exposes the initialization constructor of the plugin
+     */
+    private static final class BenchmarkPlugin extends Nonchat {
+        @SuppressWarnings("removal")
+        private BenchmarkPlugin(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder, File file) {
+            super(loader, description, dataFolder, file);
+        }
+    }
+}
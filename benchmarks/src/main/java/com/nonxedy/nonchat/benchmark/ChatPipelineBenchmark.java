@@ -0,0 +1,82 @@
+package com.nonxedy.nonchat.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nonxedy.nonchat.api.Channel;
+import com.nonxedy.nonchat.core.ChatManager;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * End to end cost of a chat message through {@link ChatManager#processChat(Player, String)},
+ * and of the channel format step on its own, replaying the chat corpus.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChatPipelineBenchmark {
+
+    @Param({"local", "global"})
+    public String channel;
+
+    private BenchmarkEnvironment environment;
+    private ChatManager chatManager;
+    private Channel target;
+    private Player sender;
+    private String prefix;
+    private String[] corpus;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        environment = BenchmarkEnvironment.create();
+        List<Player> players = environment.addPlayers(20, 50, BenchmarkEnvironment.SENDER_PERMISSIONS);
+        sender = players.get(0);
+        chatManager = environment.chatManager();
+        environment.getServer().tick();
+
+        target = chatManager.getChannel(channel);
+        prefix = target.hasPrefix() ? target.getPrefix() : "";
+        corpus = BenchmarkEnvironment.loadCorpus("corpus/chat-messages.txt");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public Component processChat() {
+        return chatManager.processChat(sender, prefix + nextMessage());
+    }
+
+    @Benchmark
+    public Component formatMessage() {
+        return target.formatMessage(sender, nextMessage());
+    }
+
+    private String nextMessage() {
+        String message = corpus[next];
+        next = (next + 1) % corpus.length;
+        return message;
+    }
+}
@@ -0,0 +1,76 @@
+package com.nonxedy.nonchat.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Colour parsing cost for each input style the plugin accepts.
+ * The uncached variant parses every call, the cached one hits the parse cache after warmup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ColorUtilBenchmark {
+
+    @Param({"legacy", "hex", "minimessage"})
+    public String style;
+
+    private String[] inputs;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        inputs = switch (style) {
+            case "legacy" -> new String[] {
+                "&7(&6L&7)&r &fSteve&r&7: &fhello everyone",
+                "&c&lWARNING &r&eThe server restarts in &c5 &eminutes",
+                "§6gold §eyellow §fwhite §7and §8grey"
+            };
+            case "hex" -> new String[] {
+                "&#FFAFFB[nonchat] &#FFFFFFPlayer joined",
+                "&#FF5555custom &#55FF55hex &#5555FFcolours",
+                "#FFAA00compact #00AAFFhex #AAAAAAtext"
+            };
+            default -> new String[] {
+                "<gradient:#ff0000:#0000ff>rainbow gradient text</gradient>",
+                "<bold>mini</bold> message <italic>tags</italic> <#55ff55>hex</#55ff55>",
+                "<hover:show_text:'<gray>Click me'><click:run_command:'/spawn'><aqua>[Spawn]</aqua></click></hover>"
+            };
+        };
+    }
+
+    @Benchmark
+    public Component parseComponent() {
+        return ColorUtil.parseComponent(nextInput());
+    }
+
+    @Benchmark
+    public Component parseComponentCached() {
+        return ColorUtil.parseComponentCached(nextInput());
+    }
+
+    private String nextInput() {
+        String input = inputs[next];
+        next = (next + 1) % inputs.length;
+        return input;
+    }
+}
@@ -0,0 +1,60 @@
+package com.nonxedy.nonchat.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nonxedy.nonchat.core.DeathMessageManager;
+import com.nonxedy.nonchat.util.death.DamageType;
+import com.nonxedy.nonchat.util.death.DeathMessage;
+
+/**
+ * Death message selection for direct and indirect deaths, using the default deaths.yml.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeathMessageBenchmark {
+
+    @Param({"FALL", "LAVA", "ENTITY_ATTACK", "PROJECTILE", "VOID"})
+    public String cause;
+
+    private BenchmarkEnvironment environment;
+    private DeathMessageManager manager;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        environment = BenchmarkEnvironment.create();
+        manager = environment.deathMessageManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public DeathMessage selectDirect() {
+        return manager.selectMessage(cause, false, null);
+    }
+
+    @Benchmark
+    public DeathMessage selectIndirect() {
+        return manager.selectMessage(cause, true, DamageType.MELEE);
+    }
+}
@@ -0,0 +1,63 @@
+package com.nonxedy.nonchat.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.nonxedy.nonchat.core.ChatManager;
+
+/**
+ * Local channel delivery to every player within range, for growing crowd sizes.
+ * All players stand inside the channel radius, so each message reaches the whole crowd.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FanOutBenchmark {
+
+    @Param({"50", "300", "1000"})
+    public int players;
+
+    private BenchmarkEnvironment environment;
+    private ChatManager chatManager;
+    private Player sender;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        environment = BenchmarkEnvironment.create();
+        List<Player> crowd = environment.addPlayers(players, 90, BenchmarkEnvironment.SENDER_PERMISSIONS);
+        sender = crowd.get(0);
+        chatManager = environment.chatManager();
+        // Publish the crowd to the spatial index
+        environment.getServer().tick();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public void localFanOut(Blackhole blackhole) {
+        blackhole.consume(chatManager.processChat(sender, "anyone want to trade diamonds for emeralds?"));
+        blackhole.consume(environment.getServer().drainDelivered());
+    }
+}
@@ -0,0 +1,137 @@
+package com.nonxedy.nonchat.benchmark;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nonxedy.nonchat.config.PluginConfig;
+import com.nonxedy.nonchat.util.chat.filters.AdDetector;
+import com.nonxedy.nonchat.util.chat.filters.CapsFilter;
+import com.nonxedy.nonchat.util.chat.filters.ModerationScanner;
+import com.nonxedy.nonchat.util.chat.filters.ModerationVerdict;
+import com.nonxedy.nonchat.util.chat.filters.ScannedMessage;
+import com.nonxedy.nonchat.util.chat.filters.SpamDetector;
+import com.nonxedy.nonchat.util.chat.filters.TextSimilarityUtil;
+import com.nonxedy.nonchat.util.chat.filters.WordBlocker;
+
+/**
+ * Per-filter cost over the chat corpus.
+ * Spam detection rotates over a pool of senders without the bypass permission,
+ * so histories fill up the way they do on a live server.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterBenchmark {
+    private static final int SENDERS = 64;
+
+    private BenchmarkEnvironment environment;
+    private WordBlocker wordBlocker;
+    private CapsFilter capsFilter;
+    private AdDetector adDetector;
+    private SpamDetector spamDetector;
+    private ModerationScanner moderationScanner;
+    private double similarityThreshold;
+    private List<Player> senders;
+    private String[] corpus;
+    private ScannedMessage[] scanned;
+    private String[] normalized;
+    private int next;
+    private int nextSender;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        environment = BenchmarkEnvironment.create();
+        PluginConfig config = environment.getConfig();
+        senders = environment.addPlayers(SENDERS, 50, Set.of());
+
+        wordBlocker = config.getWordBlocker();
+        capsFilter = config.getCapsFilter();
+        adDetector = new AdDetector(config, config.getAntiAdSensitivity(), config.getAntiAdPunishCommand());
+        spamDetector = new SpamDetector(config, environment.getMessages());
+        moderationScanner = new ModerationScanner(config, environment.getMessages(), adDetector, spamDetector);
+        similarityThreshold = config.getAntiSpamSimilarThreshold();
+
+        corpus = BenchmarkEnvironment.loadCorpus("corpus/chat-messages.txt");
+        scanned = new ScannedMessage[corpus.length];
+        normalized = new String[corpus.length];
+        for (int i = 0; i < corpus.length; i++) {
+            scanned[i] = ScannedMessage.of(corpus[i]);
+            normalized[i] = corpus[i].toLowerCase().trim();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public ScannedMessage scanMessage() {
+        return ScannedMessage.of(corpus[advance()]);
+    }
+
+    @Benchmark
+    public String wordBlocker() {
+        return wordBlocker.findBlockedTerm(scanned[advance()]);
+    }
+
+    @Benchmark
+    public boolean capsFilter() {
+        return capsFilter.shouldFilter(scanned[advance()]);
+    }
+
+    @Benchmark
+    public String adDetector() {
+        int index = advance();
+        return adDetector.detect(nextSender(), scanned[index]);
+    }
+
+    @Benchmark
+    public String spamDetector() {
+        int index = advance();
+        return spamDetector.detect(nextSender(), scanned[index]);
+    }
+
+    @Benchmark
+    public boolean textSimilarity() {
+        int index = advance();
+        int other = (index + 1) % normalized.length;
+        return TextSimilarityUtil.isSimilar(normalized[index], normalized[other], similarityThreshold);
+    }
+
+    @Benchmark
+    public ModerationVerdict moderationScanner() {
+        int index = advance();
+        return moderationScanner.scan(nextSender(), corpus[index]);
+    }
+
+    private int advance() {
+        int index = next;
+        next = (next + 1) % corpus.length;
+        return index;
+    }
+
+    private Player nextSender() {
+        Player sender = senders.get(nextSender);
+        nextSender = (nextSender + 1) % SENDERS;
+        return sender;
+    }
+}
@@ -0,0 +1,210 @@
+package com.nonxedy.nonchat.benchmark.stub;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.Permission;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.ServicesManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Minimal in-memory Bukkit server for benchmarks.
+ * Holds one world and a list of online players, records scheduled timers so benchmarks can
+ * tick them on demand, drops one-shot tasks and counts every message sent to a player.
+ */
+public final class StubServer {
+    private static StubServer instance;
+
+    private final Logger logger = Logger.getLogger("nonchat-benchmark");
+    private final List<Player> players = new CopyOnWriteArrayList<>();
+    private final Map<UUID, Player> playersById = new ConcurrentHashMap<>();
+    private final Map<String, Player> playersByName = new ConcurrentHashMap<>();
+    private final List<Runnable> timers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger taskIds = new AtomicInteger();
+    private final AtomicLong delivered = new AtomicLong();
+    private final World world;
+    private final Server server;
+
+    private StubServer() {
+        logger.setLevel(Level.WARNING);
+        UUID worldId = UUID.randomUUID();
+        this.world = Stubs.stub(World.class, (method, args) -> switch (method.getName()) {
+            case "getUID" -> worldId;
+            case "getName" -> "world";
+            case "getPlayers" -> new ArrayList<>(players);
+            default -> Stubs.DEFAULT;
+        });
+
+        BukkitScheduler scheduler = Stubs.stub(BukkitScheduler.class, (method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("run") || name.startsWith("schedule")) {
+                Runnable task = args != null && args.length > 1 && args[1] instanceof Runnable runnable ? runnable : null;
+                if (task != null && name.contains("Timer")) {
+                    timers.add(task);
+                }
+                return method.getReturnType() == BukkitTask.class ? newTask(task) : taskIds.incrementAndGet();
+            }
+            return Stubs.DEFAULT;
+        });
+
+        PluginManager pluginManager = Stubs.stub(PluginManager.class, (method, args) -> Stubs.DEFAULT);
+        ServicesManager servicesManager = Stubs.stub(ServicesManager.class, (method, args) -> Stubs.DEFAULT);
+        ConsoleCommandSender console = Stubs.stub(ConsoleCommandSender.class, (method, args) -> switch (method.getName()) {
+            case "getName" -> "CONSOLE";
+            case "hasPermission", "isOp" -> true;
+            default -> Stubs.DEFAULT;
+        });
+
+        this.server = Stubs.stub(Server.class, (method, args) -> switch (method.getName()) {
+            case "getLogger" -> logger;
+            case "getName" -> "StubServer";
+            case "getVersion", "getBukkitVersion", "getMinecraftVersion" -> "1.21.10-R0.1-SNAPSHOT";
+            case "getOnlinePlayers" -> Collections.unmodifiableList(players);
+            case "getPlayer", "getPlayerExact" -> args[0] instanceof UUID id ? playersById.get(id)
+                    : playersByName.get(String.valueOf(args[0]).toLowerCase());
+            case "getWorlds" -> List.of(world);
+            case "getWorld" -> world;
+            case "getScheduler" -> scheduler;
+            case "getPluginManager" -> pluginManager;
+            case "getServicesManager" -> servicesManager;
+            case "getConsoleSender" -> console;
+            case "getMaxPlayers" -> 1000;
+            default -> Stubs.DEFAULT;
+        });
+    }
+
+    /**
+     * Installs the stub as the Bukkit server, once per JVM
+     * @return The installed server
+     */
+    public static synchronized StubServer install() {
+        if (instance != null) {
+            return instance;
+        }
+        StubServer stub = new StubServer();
+        try {
+            // Bypass Bukkit.setServer, which expects a real server build
+            Field field = Bukkit.class.getDeclaredField("server");
+            field.setAccessible(true);
+            field.set(null, stub.server);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to install stub server", e);
+        }
+        instance = stub;
+        return stub;
+    }
+
+    /**
+     * Adds an online player
+     * @param name Player name
+     * @param x X coordinate
+     * @param z Z coordinate
+     * @param permissions Permission nodes the player has
+     * @return The player stub
+     */
+    public Player addPlayer(String name, double x, double z, Set<String> permissions) {
+        UUID id = UUID.nameUUIDFromBytes(("nonchat-benchmark:" + name).getBytes());
+        double y = 64.0;
+        Component displayName = Component.text(name);
+        Player player = Stubs.stub(Player.class, (method, args) -> switch (method.getName()) {
+            case "getUniqueId" -> id;
+            case "getName", "getDisplayName", "getPlayerListName" -> name;
+            case "displayName", "name" -> displayName;
+            case "isOnline", "isValid" -> true;
+            case "getWorld" -> world;
+            case "getLocation" -> {
+                if (args != null && args.length == 1 && args[0] instanceof Location target) {
+                    target.setWorld(world);
+                    target.setX(x);
+                    target.setY(y);
+                    target.setZ(z);
+                    yield target;
+                }
+                yield new Location(world, x, y, z);
+            }
+            case "hasPermission" -> args[0] instanceof Permission permission
+                    ? permissions.contains(permission.getName())
+                    : permissions.contains(String.valueOf(args[0]));
+            case "isPermissionSet" -> true;
+            case "sendMessage", "sendRichMessage", "sendPlainMessage" -> {
+                delivered.incrementAndGet();
+                yield Stubs.DEFAULT;
+            }
+            case "getServer" -> server;
+            default -> Stubs.DEFAULT;
+        });
+        players.add(player);
+        playersById.put(id, player);
+        playersByName.put(name.toLowerCase(), player);
+        return player;
+    }
+
+    /**
+     * Removes all online players
+     */
+    public void clearPlayers() {
+        players.clear();
+        playersById.clear();
+        playersByName.clear();
+    }
+
+    /**
+     * Runs every recorded repeating task once, like a server tick
+     */
+    public void tick() {
+        for (Runnable timer : timers) {
+            timer.run();
+        }
+    }
+
+    /**
+     * Gets and resets the number of messages sent to players
+     * @return Messages delivered since the last call
+     */
+    public long drainDelivered() {
+        return delivered.getAndSet(0);
+    }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    private BukkitTask newTask(Runnable task) {
+        int id = taskIds.incrementAndGet();
+        return Stubs.stub(BukkitTask.class, (method, args) -> switch (method.getName()) {
+            case "getTaskId" -> id;
+            case "cancel" -> {
+                if (task != null) {
+                    timers.remove(task);
+                }
+                yield Stubs.DEFAULT;
+            }
+            default -> Stubs.DEFAULT;
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package com.nonxedy.nonchat.benchmark.stub;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Builds interface stubs with dynamic proxies.
+ * Methods without an explicit answer return a neutral default (false, 0, empty collections, null).
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * Answers a stubbed call
+     */
+    @FunctionalInterface
+    public interface Answer {
+        /**
+         * @return the value to return, or {@link Stubs#DEFAULT} to fall back to the neutral default
+         */
+        Object answer(Method method, Object[] args) throws Throwable;
+    }
+
+    /** Marker telling the proxy to use the neutral default for the method's return type */
+    public static final Object DEFAULT = new Object();
+
+    /**
+     * Creates a stub of an interface
+     * @param type Interface to implement
+     * @param answer Answers for the methods the benchmark relies on
+     * @return Proxy instance
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Answer answer) {
+        InvocationHandler handler = new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "equals":
+                        if (method.getParameterCount() == 1) {
+                            return proxy == args[0];
+                        }
+                        break;
+                    case "hashCode":
+                        if (method.getParameterCount() == 0) {
+                            return System.identityHashCode(proxy);
+                        }
+                        break;
+                    case "toString":
+                        if (method.getParameterCount() == 0) {
+                            return type.getSimpleName() + "Stub@" + Integer.toHexString(System.identityHashCode(proxy));
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                Object result = answer.answer(method, args);
+                return result == DEFAULT ? defaultValue(method.getReturnType()) : result;
+            }
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    /**
+     * Gets the neutral value for a return type
+     * @param type Return type
+     * @return Default value
+     */
+    public static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0D;
+        }
+        if (type == float.class) {
+            return 0.0F;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == List.class || type == Collection.class) {
+            return Collections.emptyList();
+        }
+        if (type == Set.class) {
+            return Collections.emptySet();
+        }
+        if (type == Map.class) {
+            return Collections.emptyMap();
+        }
+        if (type == Optional.class) {
+            return Optional.empty();
+        }
+        return null;
+    }
+}
@@ -12,7 +12,9 @@ import org.bukkit.entity.Player;
 import org.bukkit.entity.TextDisplay;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
 
 import com.nonxedy.nonchat.api.ChannelAPI;
 import com.nonxedy.nonchat.command.impl.IgnoreCommand;
@@ -23,14 +25,19 @@ import com.nonxedy.nonchat.core.ChatManager;
 import com.nonxedy.nonchat.core.MessageManager;
 import com.nonxedy.nonchat.hook.DiscordSRVHook;
 import com.nonxedy.nonchat.integration.DiscordSRVIntegration;
+import com.nonxedy.nonchat.listener.ChatBubbleListener;
 import com.nonxedy.nonchat.listener.ChatListener;
 import com.nonxedy.nonchat.listener.ChatListenerFactory;
 import com.nonxedy.nonchat.listener.DeathCoordinates;
 import com.nonxedy.nonchat.listener.DamageTrackingListener;
 import com.nonxedy.nonchat.listener.DeathListener;
 import com.nonxedy.nonchat.listener.DiscordSRVListener;
+import com.nonxedy.nonchat.listener.IgnoreListener;
 import com.nonxedy.nonchat.listener.JoinQuitListener;
+import com.nonxedy.nonchat.listener.PermissionCacheListener;
 import com.nonxedy.nonchat.listener.PlayerCleanupListener;
+import com.nonxedy.nonchat.listener.PlayerDataListener;
+import com.nonxedy.nonchat.listener.PlayerNameIndexListener;
 import com.nonxedy.nonchat.placeholders.NonchatExpansion;
 import com.nonxedy.nonchat.service.ChatService;
 import com.nonxedy.nonchat.service.CommandService;
@@ -39,10 +46,17 @@ import com.nonxedy.nonchat.service.DeathMessageService;
 import com.nonxedy.nonchat.core.IndirectDeathTracker;
 import com.nonxedy.nonchat.util.InteractivePlaceholderManager;
 import com.nonxedy.nonchat.util.chat.filters.LinkDetector;
+import com.nonxedy.nonchat.util.chat.formatting.RenderCache;
 import com.nonxedy.nonchat.util.chat.packets.DisplayEntityUtil;
+import com.nonxedy.nonchat.util.core.cache.PlayerCaches;
+import com.nonxedy.nonchat.util.core.colors.ColorCache;
 import com.nonxedy.nonchat.util.core.debugging.Debugger;
+import com.nonxedy.nonchat.util.core.permissions.PermissionCache;
+import com.nonxedy.nonchat.util.core.stats.ChatStats;
 import com.nonxedy.nonchat.util.core.updates.UpdateChecker;
 import com.nonxedy.nonchat.util.integration.external.IntegrationUtil;
+import com.nonxedy.nonchat.util.integration.external.PlaceholderResolver;
+import com.nonxedy.nonchat.util.special.ignore.IgnoreManager;
 import com.nonxedy.nonchat.database.DatabaseManager;
 import com.nonxedy.nonchat.tags.TagManager;
 import com.nonxedy.nonchat.config.DatabaseConfig;
@@ -86,6 +100,7 @@ public class Nonchat extends JavaPlugin {
     private Debugger debugger;
     private ChatListener chatListener;
     private IgnoreCommand ignoreCommand;
+    private IgnoreManager ignoreManager;
     private DiscordSRVHook discordSRVHook;
     private DiscordSRVListener discordSRVListener;
     private DiscordSRVIntegration discordSRVIntegration;
@@ -96,6 +111,22 @@ public class Nonchat extends JavaPlugin {
     private PlayerCleanupListener playerCleanupListener;
     private final Map<Player, List<TextDisplay>> bubbles = new HashMap<>();
 
+    public Nonchat() {
+        super();
+    }
+
+    /**
+     * Creates the plugin outside a running server, used by the benchmarks
+     * @param loader Plugin loader of the stub server
+     * @param description Contents of plugin.yml
+     * @param dataFolder Plugin data folder
+     * @param file Plugin jar
+     */
+    @SuppressWarnings("removal")
+    protected Nonchat(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder, File file) {
+        super(loader, description, dataFolder, file);
+    }
+
     @Override
     public void onEnable() {
         try {
@@ -119,6 +150,7 @@ public class Nonchat extends JavaPlugin {
             }
 
             initializeServices();
+            initializeCaches();
             registerPlaceholders();
             registerListeners();
             setupIntegrations();
@@ -148,8 +180,8 @@ public class Nonchat extends JavaPlugin {
             } catch (Exception e) {
                 getLogger().severe("========================================");
                 getLogger().severe("CRITICAL ERROR: Database Connection Failed!");
-                getLogger().severe("Nonchat requires a valid MySQL/MariaDB database to function.");
-                getLogger().severe("Please configure database.yml with correct credentials.");
+                getLogger().severe("Nonchat requires a working storage backend (MariaDB or SQLite) to function.");
+                getLogger().severe("Please configure database.yml with a valid type and correct credentials.");
                 getLogger().severe("Disabling plugin to prevent data loss...");
                 getLogger().severe("========================================");
                 getServer().getPluginManager().disablePlugin(this);
@@ -171,7 +203,9 @@ public class Nonchat extends JavaPlugin {
 
             // Now that config is loaded, initialize the rest of the services
             this.spyCommand = new SpyCommand(this, configService.getMessages(), configService.getConfig());
-            this.ignoreCommand = new IgnoreCommand(this, configService.getMessages());
+            this.ignoreManager = new IgnoreManager(databaseManager);
+            this.ignoreManager.start();
+            this.ignoreCommand = new IgnoreCommand(this, configService.getMessages(), ignoreManager);
 
             // Initialize core managers
             this.chatManager = new ChatManager(this, configService.getConfig(), configService.getMessages());
@@ -310,6 +344,21 @@ public class Nonchat extends JavaPlugin {
                 Bukkit.getPluginManager().registerEvents(new DeathListener(configService.getConfig()), this);
             }
 
+            // Register permission snapshot listener
+            Bukkit.getPluginManager().registerEvents(new PermissionCacheListener(), this);
+
+            // Register chat bubble movement listener
+            Bukkit.getPluginManager().registerEvents(new ChatBubbleListener(chatManager), this);
+
+            // Register mention name index listener
+            Bukkit.getPluginManager().registerEvents(new PlayerNameIndexListener(chatManager.getNameIndex()), this);
+
+            // Register listener writing queued player data on quit
+            Bukkit.getPluginManager().registerEvents(new PlayerDataListener(this, databaseManager), this);
+
+            // Register ignore list loading listener
+            Bukkit.getPluginManager().registerEvents(new IgnoreListener(ignoreManager), this);
+
             // Register join/quit listener
             Bukkit.getPluginManager().registerEvents(new JoinQuitListener(configService.getConfig(), chatManager.getChannelManager()), this);
             
@@ -350,10 +399,20 @@ public class Nonchat extends JavaPlugin {
         }
     }
 
+    private void initializeCaches() {
+        // Core caches only read config, so a failing integration hook cannot leave them unset
+        PermissionCache.initialize(configService.getConfig());
+        RenderCache.initialize(configService.getConfig());
+        PlaceholderResolver.initialize(configService.getConfig());
+        ChatStats.initialize(configService.getConfig());
+        ColorCache.initialize(configService.getConfig());
+    }
+
     private void setupIntegrations() {
         try {
             // Initialize external integrations (PlaceholderAPI, LuckPerms, Vault)
             IntegrationUtil.setupIntegrations();
+            PlayerCaches.initialize(this);
         } catch (NoClassDefFoundError e) {
             getLogger().info("Some external integrations not available - features will be disabled");
         } catch (Exception e) {
@@ -412,8 +471,14 @@ public class Nonchat extends JavaPlugin {
                 chatManager.cleanup();
             }
             
-            // Clear display entity pool
-            DisplayEntityUtil.clearPool();
+            // Remove any bubble entities that outlived their owner's bubble
+            DisplayEntityUtil.removeAll();
+
+            PermissionCache.shutdown();
+            RenderCache.shutdown();
+            PlayerCaches.shutdown();
+            PlaceholderResolver.shutdown();
+            ChatStats.shutdown();
             
             // Cancel all scheduled tasks
             if (broadcastManager != null) {
@@ -432,6 +497,11 @@ public class Nonchat extends JavaPlugin {
                 discordSRVIntegration.unregister();
             }
             
+            // Write queued player settings, tags and ignore list changes, then close the connection pool
+            if (databaseManager != null) {
+                databaseManager.close();
+            }
+            
             // Clean up indirect death tracker cache
             if (indirectDeathTracker != null) {
                 indirectDeathTracker.clearAll();
@@ -490,6 +560,7 @@ public class Nonchat extends JavaPlugin {
             }
 
             if (databaseManager != null) {
+                // Closing writes every queued change before the pool is replaced
                 databaseManager.close();
                 databaseManager.initialize();
             }
@@ -515,6 +586,12 @@ public class Nonchat extends JavaPlugin {
                 chatManager.reloadChannels();
             }
 
+            PermissionCache.reload(configService.getConfig());
+            RenderCache.reload(configService.getConfig());
+            PlaceholderResolver.reload(configService.getConfig());
+            ChatStats.reload(configService.getConfig());
+            ColorCache.reload(configService.getConfig());
+
             // Reload interactive placeholders
             reloadInteractivePlaceholders();
             
@@ -680,6 +757,10 @@ public class Nonchat extends JavaPlugin {
         }
     }
     
+    public IgnoreManager getIgnoreManager() {
+        return ignoreManager;
+    }
+
     public DatabaseManager getDatabaseManager() {
         return databaseManager;
     }
@@ -1,6 +1,5 @@
 package com.nonxedy.nonchat.chat.channel;
 
-import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -15,12 +14,13 @@ import com.nonxedy.nonchat.command.impl.IgnoreCommand;
 import com.nonxedy.nonchat.service.ConfigService;
 import com.nonxedy.nonchat.util.chat.filters.LinkDetector;
 import com.nonxedy.nonchat.util.chat.formatting.HoverTextUtil;
+import com.nonxedy.nonchat.util.chat.formatting.RenderCache;
 import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+import com.nonxedy.nonchat.util.core.permissions.PermissionCache;
 import com.nonxedy.nonchat.util.items.detection.ItemDetector;
 import com.nonxedy.nonchat.util.items.display.ItemDisplayUtil;
 import com.nonxedy.nonchat.util.special.ping.PingDetector;
 
-import me.clip.placeholderapi.PlaceholderAPI;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.TextReplacementConfig;
@@ -33,6 +33,7 @@ public class BaseChannel implements Channel {
     private final String id;
     private final String displayName;
     private final String format;
+    private final FormatTemplate template;
     private final String prefix;
     private final String sendPermission;
     private final String receivePermission;
@@ -44,6 +45,7 @@ public class BaseChannel implements Channel {
     private final HoverTextUtil hoverTextUtil;
     private boolean enabled;
     private static final Pattern mentionPattern = Pattern.compile("@(\\w+)");
+    private static final Pattern interactivePlaceholderPattern = Pattern.compile("(?i)\\[(item|ping)\\]");
     private IgnoreCommand ignoreCommand;
     private ConfigService configService;
 
@@ -68,6 +70,7 @@ public class BaseChannel implements Channel {
         this.id = id;
         this.displayName = displayName;
         this.format = format;
+        this.template = new FormatTemplate(format);
         
         // Initialize prefix with empty string if null
         String validatedPrefix = prefix != null ? prefix : "";
@@ -94,6 +97,10 @@ public class BaseChannel implements Channel {
         this.cooldown = cooldown;
         this.minLength = minLength;
         this.maxLength = maxLength;
+
+        // Track channel permissions in player permission snapshots
+        PermissionCache.registerNode(sendPermission);
+        PermissionCache.registerNode(receivePermission);
     }
 
     @Override
@@ -179,13 +186,13 @@ public class BaseChannel implements Channel {
     @Override
     public boolean canSend(Player player) {
         return sendPermission == null || sendPermission.isEmpty() || 
-               player.hasPermission(sendPermission);
+               PermissionCache.has(player, sendPermission);
     }
 
     @Override
     public boolean canReceive(Player player) {
         return receivePermission == null || receivePermission.isEmpty() || 
-               player.hasPermission(receivePermission);
+               PermissionCache.has(player, receivePermission);
     }
 
     @Override
@@ -206,143 +213,78 @@ public class BaseChannel implements Channel {
             return false;
         }
         
-        // Check distance
-        return sender.getLocation().distance(recipient.getLocation()) <= radius;
+        // Check distance (squared, avoids the square root)
+        return sender.getLocation().distanceSquared(recipient.getLocation()) <= (double) radius * radius;
     }
 
     @Override
     public Component formatMessage(Player player, String message) {
-        String baseFormat = getFormat();
-
-        // Apply PlaceholderAPI to the entire format first
-        if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
-            try {
-                baseFormat = PlaceholderAPI.setPlaceholders(player, baseFormat);
-            } catch (Exception e) {
-                Bukkit.getLogger().log(Level.WARNING, "Error processing format placeholders: {0}", e.getMessage());
-            }
+        // Header, footer and hover do not depend on the message, reuse them while cached
+        RenderCache.Header header = RenderCache.get(player, id);
+        if (header == null) {
+            header = renderHeader(player);
         }
 
-        // Check if the format contains MiniMessage gradients that might span across {message}
-        if (containsSpanningGradient(baseFormat)) {
-            return formatMessageWithSpanningGradient(player, message, baseFormat);
+        // Formats with a MiniMessage gradient spanning {message} must be parsed as a whole
+        if (template.hasSpanningGradient()) {
+            return formatMessageWithSpanningGradient(player, message, header.getHover());
         }
 
-        // Split format into parts around {message} for traditional processing
-        String[] formatParts = baseFormat.split("\\{message\\}");
-        String beforeMessage = formatParts[0];
-        String afterMessage = formatParts.length > 1 ? formatParts[1] : "";
-
-        // Extract color from the end of beforeMessage to apply to the message
-        String inheritedColor = extractTrailingColor(beforeMessage);
-
-        // Parse format parts with colors and add hover functionality only to the player name
-        Component beforeMessageComponent = parseBeforeMessageWithHover(beforeMessage, player);
-        Component afterMessageComponent = ColorUtil.parseConfigComponent(afterMessage);
-
-        // Add hover functionality to the format parts (only to player name in beforeMessage)
-        afterMessageComponent = hoverTextUtil.addHoverToComponent(afterMessageComponent, player);
-
-        Component finalMessage = beforeMessageComponent
-            .append(processMessageContent(player, message, inheritedColor))
-            .append(afterMessageComponent);
+        Component finalMessage = header.getBefore()
+            .append(processMessageContent(player, message, header.getInheritedColor()))
+            .append(header.getAfter());
 
         return finalMessage;
     }
 
     /**
-     * Checks if the format contains a MiniMessage gradient that spans across {message}
-     * @param format The format string to check
-     * @return true if contains spanning gradient, false otherwise
+     * Renders the message-independent parts of the format and caches them
+     * @param player The player sending the message
+     * @return Rendered header
      */
-    private boolean containsSpanningGradient(String format) {
-        if (format == null || format.isEmpty()) {
-            return false;
+    private RenderCache.Header renderHeader(Player player) {
+        Component hoverComponent = hoverTextUtil.buildHoverComponent(player);
+        if (template.hasSpanningGradient()) {
+            return RenderCache.put(player, id, null, null, "", hoverComponent);
         }
-        
-        // Look for gradient tags that might span across {message}
-        Pattern gradientPattern = Pattern.compile("<gradient:[^>]+>");
-        Matcher matcher = gradientPattern.matcher(format);
-        
-        while (matcher.find()) {
-            int gradientStart = matcher.start();
-            int messageIndex = format.indexOf("{message}");
-            
-            if (messageIndex > gradientStart) {
-                // Check if there's a closing gradient tag after {message}
-                String afterMessage = format.substring(messageIndex + 9); // 9 = length of "{message}"
-                if (afterMessage.contains("</gradient>")) {
-                    return true;
-                }
-            }
-        }
-        
-        return false;
+
+        // Fill placeholder slots of the part before {message}, the part after it is parsed once if static
+        String beforeMessage = template.getBefore().render(player);
+
+        // Color the message inherits from the end of beforeMessage
+        String inheritedColor = template.getInheritedColor(beforeMessage);
+
+        // Parse format parts with colors and add hover functionality only to the player name
+        Component beforeMessageComponent = parseBeforeMessageWithHover(beforeMessage, player, hoverComponent);
+        Component afterMessageComponent = template.getAfter().toComponent(player);
+
+        // Add hover functionality to the format parts (only to player name in beforeMessage)
+        afterMessageComponent = hoverTextUtil.applyHover(afterMessageComponent, player, hoverComponent);
+
+        return RenderCache.put(player, id, beforeMessageComponent, afterMessageComponent, inheritedColor, hoverComponent);
     }
-    
+
     /**
      * Formats a message when the format contains a spanning gradient
      * @param player The player sending the message
      * @param message The message content
-     * @param format The format string with spanning gradient
+     * @param hoverComponent The player's hover text, may be null
      * @return Formatted component
      */
-    private Component formatMessageWithSpanningGradient(Player player, String message, String format) {
+    private Component formatMessageWithSpanningGradient(Player player, String message, Component hoverComponent) {
         // Process the message content first to handle color permissions
         String processedMessage = message;
 
         // Check color permission for the message content
-        if (!player.hasPermission("nonchat.color")) {
+        if (!PermissionCache.has(player, PermissionCache.COLOR)) {
             processedMessage = ColorUtil.stripAllColors(message);
         }
 
         // Replace {message} with the processed message content
-        String fullFormat = format.replace("{message}", processedMessage);
+        String fullFormat = template.renderFull(player, processedMessage);
 
         // Parse the full format with hover only on player name
-        return parseFullFormatWithHover(fullFormat, player);
-    }
-
-    /**
-     * Extracts the trailing color code from a format string
-     * @param formatPart The format string to extract color from
-     * @return The color code to inherit, or empty string if none found
-     */
-    private String extractTrailingColor(String formatPart) {
-        if (formatPart == null || formatPart.isEmpty()) {
-            return "";
-        }
-        
-        // Look for color codes at the end of the format
-        // Check for hex colors first (§#RRGGBB or &#RRGGBB)
-        Pattern hexPattern = Pattern.compile(".*(§#[A-Fa-f0-9]{6}|&#[A-Fa-f0-9]{6})(?:[^§&]*?)$");
-        Matcher hexMatcher = hexPattern.matcher(formatPart);
-        if (hexMatcher.find()) {
-            return hexMatcher.group(1);
-        }
-        
-        // Check for legacy colors (§[0-9a-fklmnor] or &[0-9a-fklmnor])
-        Pattern legacyPattern = Pattern.compile(".*(§[0-9a-fklmnor]|&[0-9a-fklmnor])(?:[^§&]*?)$");
-        Matcher legacyMatcher = legacyPattern.matcher(formatPart);
-        if (legacyMatcher.find()) {
-            return legacyMatcher.group(1);
-        }
-        
-        // Check for MiniMessage color tags at the end
-        Pattern miniPattern = Pattern.compile(".*(<#[A-Fa-f0-9]{6}>|<(?:black|dark_blue|dark_green|dark_aqua|dark_red|dark_purple|gold|gray|dark_gray|blue|green|aqua|red|light_purple|yellow|white)>)(?:[^<]*?)$");
-        Matcher miniMatcher = miniPattern.matcher(formatPart);
-        if (miniMatcher.find()) {
-            return miniMatcher.group(1);
-        }
-        
-        // Check for MiniMessage gradient tags that might affect the message
-        Pattern gradientPattern = Pattern.compile(".*(<gradient:[^>]+>)(?:[^<]*?)$");
-        Matcher gradientMatcher = gradientPattern.matcher(formatPart);
-        if (gradientMatcher.find()) {
-            return gradientMatcher.group(1);
-        }
-        
-        return "";
+        return parseFullFormatWithHover(fullFormat, player, hoverComponent);
     }
 
     private Component processMessageContent(Player player, String message, String inheritedColor) {
@@ -369,7 +311,7 @@ public class BaseChannel implements Channel {
                 }
 
                 // Handle color permissions - only strip player's own colors, keep format colors
-                if (!player.hasPermission("nonchat.color")) {
+                if (!PermissionCache.has(player, PermissionCache.COLOR)) {
                     // Strip colors from the player's message content, but preserve the inherited color
                     if (!inheritedColor.isEmpty() && processedMessage.startsWith(inheritedColor)) {
                         String playerMessagePart = processedMessage.substring(inheritedColor.length());
@@ -418,7 +360,7 @@ public class BaseChannel implements Channel {
         }
 
         // Handle color permissions - only strip player's own colors, keep format colors
-        if (!player.hasPermission("nonchat.color")) {
+        if (!PermissionCache.has(player, PermissionCache.COLOR)) {
             // Strip colors from the player's message content, but preserve the inherited color
             if (!inheritedColor.isEmpty() && processedMessage.startsWith(inheritedColor)) {
                 String playerMessagePart = processedMessage.substring(inheritedColor.length());
@@ -450,7 +392,7 @@ public class BaseChannel implements Channel {
         }
 
         // Handle color permissions - only strip player's own colors, keep format colors
-        if (!player.hasPermission("nonchat.color")) {
+        if (!PermissionCache.has(player, PermissionCache.COLOR)) {
             // Strip colors from the player's message content, but preserve the inherited color
             if (!inheritedColor.isEmpty() && processedMessage.startsWith(inheritedColor)) {
                 String playerMessagePart = processedMessage.substring(inheritedColor.length());
@@ -487,7 +429,7 @@ public class BaseChannel implements Channel {
         }
 
         // Handle color permissions - only strip player's own colors, keep format colors
-        if (!player.hasPermission("nonchat.color")) {
+        if (!PermissionCache.has(player, PermissionCache.COLOR)) {
             // Strip colors from the player's message content, but preserve the inherited color
             if (!inheritedColor.isEmpty() && processedMessage.startsWith(inheritedColor)) {
                 String playerMessagePart = processedMessage.substring(inheritedColor.length());
@@ -524,7 +466,7 @@ public class BaseChannel implements Channel {
         }
 
         // Handle color permissions - only strip player's own colors, keep format colors
-        if (!player.hasPermission("nonchat.color")) {
+        if (!PermissionCache.has(player, PermissionCache.COLOR)) {
             // Strip colors from the player's message content, but preserve the inherited color
             if (!inheritedColor.isEmpty() && processedMessage.startsWith(inheritedColor)) {
                 String playerMessagePart = processedMessage.substring(inheritedColor.length());
@@ -559,7 +501,7 @@ public class BaseChannel implements Channel {
         }
 
         // Handle color permissions - only strip player's own colors, keep format colors
-        boolean hasColorPermission = player.hasPermission("nonchat.color");
+        boolean hasColorPermission = PermissionCache.has(player, PermissionCache.COLOR);
         if (!hasColorPermission) {
             // Strip colors from the player's message content, but preserve the inherited color
             if (!inheritedColor.isEmpty() && processedMessage.startsWith(inheritedColor)) {
@@ -575,9 +517,8 @@ public class BaseChannel implements Channel {
         TextComponent.Builder builder = Component.text();
 
         // Split by [item] and [ping] and process each part
-        String[] parts = processedMessage.split("(?i)\\[(item|ping)\\]");
-        Pattern pattern = Pattern.compile("(?i)\\[(item|ping)\\]");
-        Matcher matcher = pattern.matcher(processedMessage);
+        String[] parts = interactivePlaceholderPattern.split(processedMessage);
+        Matcher matcher = interactivePlaceholderPattern.matcher(processedMessage);
 
         int partIndex = 0;
 
@@ -643,9 +584,10 @@ public class BaseChannel implements Channel {
      * Parses the beforeMessage part and adds hover only to the player name
      * @param beforeMessage The part of the format before {message}
      * @param player The player to get hover information for
+     * @param hoverComponent The player's hover text, may be null
      * @return Component with hover only on the player name
      */
-    private Component parseBeforeMessageWithHover(String beforeMessage, Player player) {
+    private Component parseBeforeMessageWithHover(String beforeMessage, Player player, Component hoverComponent) {
         Component component = ColorUtil.parseConfigComponent(beforeMessage);
         
         // Use Adventure's replaceText to find and modify the player name
@@ -653,7 +595,7 @@ public class BaseChannel implements Channel {
         return component.replaceText(TextReplacementConfig.builder()
             .matchLiteral(player.getName())
             .replacement((result, builder) -> {
-                return hoverTextUtil.addHoverToComponent(builder.build(), player);
+                return hoverTextUtil.applyHover(builder.build(), player, hoverComponent);
             })
             .build());
     }
@@ -662,16 +604,17 @@ public class BaseChannel implements Channel {
      * Parses the full format and adds hover only to the player name
      * @param fullFormat The full format string
      * @param player The player to get hover information for
+     * @param hoverComponent The player's hover text, may be null
      * @return Component with hover only on the player name
      */
-    private Component parseFullFormatWithHover(String fullFormat, Player player) {
+    private Component parseFullFormatWithHover(String fullFormat, Player player, Component hoverComponent) {
         Component component = ColorUtil.parseConfigComponent(fullFormat);
         
         // Use Adventure's replaceText to find and modify the player name
         return component.replaceText(TextReplacementConfig.builder()
             .matchLiteral(player.getName())
             .replacement((result, builder) -> {
-                return hoverTextUtil.addHoverToComponent(builder.build(), player);
+                return hoverTextUtil.applyHover(builder.build(), player, hoverComponent);
             })
             .build());
     }
@@ -18,6 +18,8 @@ import com.nonxedy.nonchat.api.Channel;
 import com.nonxedy.nonchat.config.PluginConfig;
 import com.nonxedy.nonchat.util.AsyncConfigSaver;
 import com.nonxedy.nonchat.util.chat.formatting.HoverTextUtil;
+import com.nonxedy.nonchat.util.chat.formatting.RenderCache;
+import com.nonxedy.nonchat.util.core.permissions.PermissionCache;
 
 /**
  * Manages all chat channels in the nonchat plugin.
@@ -26,6 +28,7 @@ public class ChannelManager {
     private final Map<String, Channel> channels = new ConcurrentHashMap<>();
     private final Map<Player, Channel> playerChannels = new ConcurrentHashMap<>();
     private final Map<Player, Long> lastMessageTimes = new ConcurrentHashMap<>();
+    private volatile ChannelPrefixTrie prefixTrie = ChannelPrefixTrie.EMPTY;
     private String defaultChannelId;
     private final PluginConfig config;
     private final AsyncConfigSaver asyncConfigSaver;
@@ -40,8 +43,9 @@ public class ChannelManager {
      * Loads all channels from configuration.
      */
     public void loadChannels() {
-        // Clear existing channels
+        // Clear existing channels and the headers rendered with them
         channels.clear();
+        RenderCache.invalidateAll();
         
         // Get the channels section from config
         ConfigurationSection channelsSection = config.getConfigurationSection("channels");
@@ -128,6 +132,7 @@ public class ChannelManager {
         if (channels.isEmpty()) {
             createDefaultChannels();
         }
+        rebuildPrefixTrie();
     }
     
     /**
@@ -157,6 +162,14 @@ public class ChannelManager {
         saveChannelToConfig("global", globalChannel);
         saveChannelToConfig("local", localChannel);
         asyncConfigSaver.saveAsync("default-channel", defaultChannelId);
+        rebuildPrefixTrie();
+    }
+
+    /**
+     * Rebuilds the prefix lookup trie from the current channels and swaps it in.
+     */
+    private void rebuildPrefixTrie() {
+        prefixTrie = ChannelPrefixTrie.build(channels.values());
     }
     
     /**
@@ -244,6 +257,8 @@ public class ChannelManager {
         
         // Add to channels map
         channels.put(channelId, channel);
+        RenderCache.invalidateAll();
+        rebuildPrefixTrie();
         
         // Save to config asynchronously
         saveChannelToConfig(channelId, channel);
@@ -317,6 +332,8 @@ public class ChannelManager {
         
         // Replace in channels map
         channels.put(channelId, updatedChannel);
+        RenderCache.invalidateAll();
+        rebuildPrefixTrie();
         
         // Save to config asynchronously
         saveChannelToConfig(channelId, updatedChannel);
@@ -343,6 +360,8 @@ public class ChannelManager {
         
         // Remove from channels map
         channels.remove(channelId);
+        RenderCache.invalidateAll();
+        rebuildPrefixTrie();
         
         // Remove from config asynchronously
         config.set("channels." + channelId, null);
@@ -496,15 +515,9 @@ public class ChannelManager {
             return getDefaultChannel();
         }
         
-        // Find all channels whose prefix matches the start of the message
-        // Sort by prefix length (longest first) to prioritize longer prefixes
-        return channels.values().stream()
-            .filter(Channel::isEnabled)
-            .filter(Channel::hasPrefix)
-            .filter(channel -> message.startsWith(channel.getPrefix()))
-            .sorted((c1, c2) -> Integer.compare(c2.getPrefix().length(), c1.getPrefix().length()))
-            .findFirst()
-            .orElse(getDefaultChannel());
+        // Walk the prefix trie, the deepest enabled match is the longest prefix
+        Channel channel = prefixTrie.findLongestPrefix(message);
+        return channel != null ? channel : getDefaultChannel();
     }
     
     /**
@@ -517,11 +530,17 @@ public class ChannelManager {
             return Optional.empty();
         }
         
-        return channels.values().stream()
-            .filter(Channel::isEnabled)
-            .filter(Channel::hasPrefix)
-            .filter(channel -> channel.getPrefix().equals(prefix))
-            .findFirst();
+        return Optional.ofNullable(prefixTrie.findExact(prefix));
+    }
+
+    /**
+     * Finds a channel by a single-character trigger prefix.
+     * @param prefix The prefix character
+     * @return The channel, or null if not found
+     */
+    @Nullable
+    public Channel getChannelByPrefixChar(char prefix) {
+        return prefixTrie.findExact(prefix);
     }
     
     /**
@@ -586,7 +605,7 @@ public class ChannelManager {
      * @return true if player can send a message, false if on cooldown
      */
     public boolean canSendMessage(Player player, Channel channel) {
-        if (channel.getCooldown() <= 0 || player.hasPermission("nonchat.bypass.cooldown")) {
+        if (channel.getCooldown() <= 0 || PermissionCache.has(player, PermissionCache.COOLDOWN_BYPASS)) {
             return true;
         }
         
@@ -608,7 +627,7 @@ public class ChannelManager {
      * @return Remaining cooldown in seconds, 0 if no cooldown
      */
     public int getRemainingCooldown(Player player, Channel channel) {
-        if (channel.getCooldown() <= 0 || player.hasPermission("nonchat.bypass.cooldown")) {
+        if (channel.getCooldown() <= 0 || PermissionCache.has(player, PermissionCache.COOLDOWN_BYPASS)) {
             return 0;
         }
         
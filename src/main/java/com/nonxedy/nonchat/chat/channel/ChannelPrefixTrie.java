@@ -0,0 +1,135 @@
+package com.nonxedy.nonchat.chat.channel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.nonxedy.nonchat.api.Channel;
+
+/**
+ * Immutable character trie of channel trigger prefixes.
+ * Built whenever the channel set changes and swapped in as a whole, so lookups
+ * never see a partially built trie. Lookups walk at most prefix-length nodes and
+ * do not allocate. Channels are stored regardless of their enabled state, which
+ * is checked at lookup time because it can be toggled without a rebuild.
+ */
+public class ChannelPrefixTrie {
+    public static final ChannelPrefixTrie EMPTY = new ChannelPrefixTrie(new Node(new char[0], new Node[0], new Channel[0]));
+
+    private final Node root;
+
+    private ChannelPrefixTrie(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Builds a trie from all channels that have a prefix
+     * @param channels Channels to index
+     * @return New trie
+     */
+    public static ChannelPrefixTrie build(Collection<Channel> channels) {
+        Builder rootBuilder = new Builder();
+        for (Channel channel : channels) {
+            if (!channel.hasPrefix()) {
+                continue;
+            }
+            Builder node = rootBuilder;
+            String prefix = channel.getPrefix();
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Builder());
+            }
+            node.channels.add(channel);
+        }
+        return new ChannelPrefixTrie(rootBuilder.freeze());
+    }
+
+    /**
+     * Finds the enabled channel with the longest prefix the message starts with
+     * @param message Message to match
+     * @return Matching channel, or null if no prefix matches
+     */
+    public Channel findLongestPrefix(String message) {
+        Channel match = null;
+        Node node = root;
+        for (int i = 0; i < message.length(); i++) {
+            node = node.child(message.charAt(i));
+            if (node == null) {
+                break;
+            }
+            Channel enabled = node.firstEnabled();
+            if (enabled != null) {
+                match = enabled;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Finds the enabled channel whose prefix equals the given string
+     * @param prefix Prefix to look up
+     * @return Matching channel, or null if none
+     */
+    public Channel findExact(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node != null ? node.firstEnabled() : null;
+    }
+
+    /**
+     * Finds the enabled channel whose prefix is exactly one character
+     * @param c Prefix character
+     * @return Matching channel, or null if none
+     */
+    public Channel findExact(char c) {
+        Node node = root.child(c);
+        return node != null ? node.firstEnabled() : null;
+    }
+
+    private static final class Node {
+        private final char[] keys;
+        private final Node[] children;
+        private final Channel[] channels;
+
+        private Node(char[] keys, Node[] children, Channel[] channels) {
+            this.keys = keys;
+            this.children = children;
+            this.channels = channels;
+        }
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Channel firstEnabled() {
+            for (Channel channel : channels) {
+                if (channel.isEnabled()) {
+                    return channel;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Builder {
+        private final Map<Character, Builder> children = new TreeMap<>();
+        private final List<Channel> channels = new ArrayList<>(1);
+
+        private Node freeze() {
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Builder> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().freeze();
+                i++;
+            }
+            return new Node(keys, nodes, channels.toArray(new Channel[0]));
+        }
+    }
+}
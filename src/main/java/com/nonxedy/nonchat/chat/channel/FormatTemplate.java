@@ -0,0 +1,301 @@
+package com.nonxedy.nonchat.chat.channel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+import com.nonxedy.nonchat.util.integration.external.PlaceholderResolver;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * A channel format compiled once when the channel is created.
+ * The format is split around {message} into parts made of literal segments and
+ * PlaceholderAPI slots. Everything that only depends on the format text (the colour
+ * inherited by the message, whether a gradient spans {message}, parsed components of
+ * placeholder-free parts) is computed here, so rendering a message only fills slots.
+ */
+public class FormatTemplate {
+    private static final String MESSAGE_TOKEN = "{message}";
+    private static final String GRADIENT_OPEN = "<gradient:";
+    private static final String GRADIENT_CLOSE = "</gradient>";
+    private static final String[] NAMED_COLORS = {
+        "black", "dark_blue", "dark_green", "dark_aqua", "dark_red", "dark_purple", "gold", "gray",
+        "dark_gray", "blue", "green", "aqua", "red", "light_purple", "yellow", "white"
+    };
+
+    private final String format;
+    private final Part before;
+    private final Part after;
+    private final boolean spanningGradient;
+    /** Colour inherited by the message, null if it depends on placeholder output */
+    private final String inheritedColor;
+
+    public FormatTemplate(String format) {
+        this.format = format != null ? format : "";
+
+        // Same split as String.split("\\{message\\}"): text before the first token and between the first and second
+        int first = this.format.indexOf(MESSAGE_TOKEN);
+        String beforeText;
+        String afterText;
+        if (first < 0) {
+            beforeText = this.format;
+            afterText = "";
+        } else {
+            beforeText = this.format.substring(0, first);
+            int second = this.format.indexOf(MESSAGE_TOKEN, first + MESSAGE_TOKEN.length());
+            afterText = second < 0
+                ? this.format.substring(first + MESSAGE_TOKEN.length())
+                : this.format.substring(first + MESSAGE_TOKEN.length(), second);
+        }
+
+        this.before = new Part(beforeText);
+        this.after = new Part(afterText);
+        this.spanningGradient = detectSpanningGradient(this.format);
+        this.inheritedColor = before.colorIsStatic() ? extractTrailingColor(beforeText) : null;
+    }
+
+    /**
+     * Gets the raw format string
+     * @return Format string
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * Checks if a gradient opened before {message} is closed after it
+     * @return true if the message must be parsed together with the format
+     */
+    public boolean hasSpanningGradient() {
+        return spanningGradient;
+    }
+
+    /**
+     * Gets the part of the format before {message}
+     * @return Compiled part
+     */
+    public Part getBefore() {
+        return before;
+    }
+
+    /**
+     * Gets the part of the format after {message}
+     * @return Compiled part
+     */
+    public Part getAfter() {
+        return after;
+    }
+
+    /**
+     * Gets the colour the message inherits from the end of the part before it
+     * @param renderedBefore The rendered part before {message}, used when the colour depends on placeholders
+     * @return Colour code or empty string
+     */
+    public String getInheritedColor(String renderedBefore) {
+        return inheritedColor != null ? inheritedColor : extractTrailingColor(renderedBefore);
+    }
+
+    /**
+     * Renders the whole format with the message substituted, for spanning gradients
+     * @param player Player used for placeholders
+     * @param message Message text
+     * @return Rendered format string
+     */
+    public String renderFull(Player player, String message) {
+        return applyPlaceholders(player, format).replace(MESSAGE_TOKEN, message);
+    }
+
+    /**
+     * Extracts the colour code in effect at the end of a format part.
+     * Equivalent to matching the last colour code that is not followed by another
+     * '&amp;'/'§' (or '&lt;' for MiniMessage tags), without regular expressions.
+     * @param text Format part
+     * @return Colour code or empty string
+     */
+    static String extractTrailingColor(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        int code = Math.max(text.lastIndexOf('§'), text.lastIndexOf('&'));
+        if (code >= 0) {
+            // Hex colours (§#RRGGBB or &#RRGGBB)
+            if (code + 8 <= text.length() && text.charAt(code + 1) == '#' && isHex(text, code + 2, 6)) {
+                return text.substring(code, code + 8);
+            }
+            // Legacy colours (§[0-9a-fklmnor] or &[0-9a-fklmnor])
+            if (code + 2 <= text.length() && isLegacyCode(text.charAt(code + 1))) {
+                return text.substring(code, code + 2);
+            }
+        }
+
+        int tag = text.lastIndexOf('<');
+        if (tag >= 0) {
+            // MiniMessage hex colour tag
+            if (tag + 9 <= text.length() && text.charAt(tag + 1) == '#' && isHex(text, tag + 2, 6) && text.charAt(tag + 8) == '>') {
+                return text.substring(tag, tag + 9);
+            }
+            // MiniMessage named colour tag
+            for (String name : NAMED_COLORS) {
+                if (text.startsWith(name, tag + 1) && text.startsWith(">", tag + 1 + name.length())) {
+                    return text.substring(tag, tag + name.length() + 2);
+                }
+            }
+            // MiniMessage gradient tag
+            if (text.startsWith(GRADIENT_OPEN, tag)) {
+                int close = text.indexOf('>', tag + GRADIENT_OPEN.length());
+                if (close > tag + GRADIENT_OPEN.length()) {
+                    return text.substring(tag, close + 1);
+                }
+            }
+        }
+
+        return "";
+    }
+
+    private static boolean detectSpanningGradient(String format) {
+        int messageIndex = format.indexOf(MESSAGE_TOKEN);
+        if (messageIndex < 0 || format.indexOf(GRADIENT_CLOSE, messageIndex + MESSAGE_TOKEN.length()) < 0) {
+            return false;
+        }
+        // A complete gradient open tag must start before {message}
+        int open = format.indexOf(GRADIENT_OPEN);
+        while (open >= 0 && open < messageIndex) {
+            int close = format.indexOf('>', open + GRADIENT_OPEN.length());
+            if (close > open + GRADIENT_OPEN.length()) {
+                return true;
+            }
+            open = format.indexOf(GRADIENT_OPEN, open + 1);
+        }
+        return false;
+    }
+
+    private static boolean isLegacyCode(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f')
+                || c == 'k' || c == 'l' || c == 'm' || c == 'n' || c == 'o' || c == 'r';
+    }
+
+    private static boolean isHex(String text, int start, int count) {
+        if (start + count > text.length()) {
+            return false;
+        }
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String applyPlaceholders(Player player, String text) {
+        if (text.indexOf('%') < 0 || Bukkit.getPluginManager().getPlugin("PlaceholderAPI") == null) {
+            return text;
+        }
+        try {
+            return PlaceholderResolver.setPlaceholders(player, text);
+        } catch (Exception e) {
+            Bukkit.getLogger().log(Level.WARNING, "Error processing format placeholders: {0}", e.getMessage());
+            return text;
+        }
+    }
+
+    /**
+     * One side of the format: literal segments interleaved with placeholder slots
+     */
+    public static final class Part {
+        private final String text;
+        /** literals.length == slots.length + 1 */
+        private final String[] literals;
+        private final String[] slots;
+        /** Parsed component when the part has no slots */
+        private final Component staticComponent;
+
+        private Part(String text) {
+            this.text = text;
+            List<String> literalList = new ArrayList<>();
+            List<String> slotList = new ArrayList<>();
+
+            // PlaceholderAPI placeholders look like %identifier%
+            int start = 0;
+            int open = text.indexOf('%');
+            while (open >= 0) {
+                int close = text.indexOf('%', open + 1);
+                if (close < 0) {
+                    break;
+                }
+                if (close == open + 1) {
+                    // "%%" is not a placeholder, keep scanning after it
+                    open = text.indexOf('%', close);
+                    continue;
+                }
+                literalList.add(text.substring(start, open));
+                slotList.add(text.substring(open, close + 1));
+                start = close + 1;
+                open = text.indexOf('%', start);
+            }
+            literalList.add(text.substring(start));
+
+            this.literals = literalList.toArray(new String[0]);
+            this.slots = slotList.toArray(new String[0]);
+            this.staticComponent = slots.length == 0 ? ColorUtil.parseConfigComponent(text) : null;
+        }
+
+        /**
+         * Checks if the part contains placeholder slots
+         * @return true if rendering depends on the player
+         */
+        public boolean hasSlots() {
+            return slots.length > 0;
+        }
+
+        /**
+         * Renders the part by filling its slots
+         * @param player Player used for placeholders
+         * @return Rendered text
+         */
+        public String render(Player player) {
+            if (slots.length == 0) {
+                return text;
+            }
+            if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") == null) {
+                return text;
+            }
+            StringBuilder builder = new StringBuilder(text.length() + 32);
+            for (int i = 0; i < slots.length; i++) {
+                builder.append(literals[i]).append(applyPlaceholders(player, slots[i]));
+            }
+            return builder.append(literals[slots.length]).toString();
+        }
+
+        /**
+         * Renders and parses the part into a component
+         * @param player Player used for placeholders
+         * @return Parsed component
+         */
+        public Component toComponent(Player player) {
+            return staticComponent != null ? staticComponent : ColorUtil.parseConfigComponent(render(player));
+        }
+
+        /**
+         * Checks if no slot follows the last colour code, so the trailing colour is known up front
+         */
+        private boolean colorIsStatic() {
+            if (slots.length == 0) {
+                return true;
+            }
+            // The scan only looks at the last '&'/'§' and the last '<', both must sit in the literal tail
+            String tail = literals[slots.length];
+            boolean hasCode = tail.indexOf('&') >= 0 || tail.indexOf('§') >= 0;
+            if (!hasCode) {
+                return false;
+            }
+            return tail.indexOf('<') >= 0 || !extractTrailingColor(tail).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.nonxedy.nonchat.chat.channel;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+/**
+ * Case-insensitive index of online player names used to resolve mentions.
+ * Lookups are exact matches, unlike {@link Bukkit#getPlayer(String)} which also matches
+ * name prefixes, and are safe from chat threads. Kept up to date on join and quit.
+ */
+public class PlayerNameIndex {
+    private final Map<String, Player> players = new ConcurrentHashMap<>();
+
+    /**
+     * Indexes every player already online, e.g. after a reload
+     */
+    public void start() {
+        Bukkit.getOnlinePlayers().forEach(this::add);
+    }
+
+    /**
+     * Drops every indexed player
+     */
+    public void stop() {
+        players.clear();
+    }
+
+    /**
+     * Adds a player who joined
+     * @param player The player
+     */
+    public void add(Player player) {
+        players.put(key(player.getName()), player);
+    }
+
+    /**
+     * Removes a player who left
+     * @param player The player
+     */
+    public void remove(Player player) {
+        players.remove(key(player.getName()), player);
+    }
+
+    /**
+     * Finds an online player by exact name, ignoring case
+     * @param name Player name
+     * @return The player, or null if nobody online has that name
+     */
+    public Player get(String name) {
+        return players.get(key(name));
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,260 @@
+package com.nonxedy.nonchat.chat.channel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.nonxedy.nonchat.Nonchat;
+
+/**
+ * Per-world grid of online player positions used to resolve local channel recipients.
+ * Players are bucketed into 16x16x16 cells (chunk sections). The grid is refreshed once per tick
+ * on the main thread: positions are updated in place, and only players who changed cell, joined
+ * or left touch the grid, whose cells are replaced copy-on-write. Chat threads query it without
+ * locks and without touching live entity state; a player crossing a cell boundary during a query
+ * may be missed for that one query.
+ */
+public class PlayerSpatialIndex {
+    private static final int CELL_SHIFT = 4;
+
+    private final Nonchat plugin;
+    private final Map<UUID, Entry> byPlayer = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<Long, Entry[]>> worlds = new ConcurrentHashMap<>();
+    // Only touched by the refresh task on the main thread
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private long tick;
+    private BukkitTask task;
+
+    public PlayerSpatialIndex(Nonchat plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Starts refreshing the index every tick
+     */
+    public void start() {
+        if (task != null) {
+            return;
+        }
+        try {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::refresh, 0L, 1L);
+        } catch (IllegalArgumentException e) {
+            plugin.logError("Failed to start player spatial index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops refreshing the index and drops every indexed player
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        byPlayer.clear();
+        worlds.clear();
+    }
+
+    /**
+     * Checks if the index is being refreshed
+     * @return true if positions are kept up to date
+     */
+    public boolean isActive() {
+        return task != null;
+    }
+
+    private void refresh() {
+        long current = ++tick;
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            player.getLocation(scratch);
+            World world = scratch.getWorld();
+            if (world == null) {
+                continue;
+            }
+            UUID worldId = world.getUID();
+            long cellKey = cellKey(cell(scratch.getX()), cell(scratch.getY()), cell(scratch.getZ()));
+
+            Entry entry = byPlayer.get(player.getUniqueId());
+            if (entry == null || entry.player != player) {
+                if (entry != null) {
+                    unlink(entry);
+                }
+                entry = new Entry(player);
+                entry.setPosition(scratch);
+                link(entry, worldId, cellKey);
+                byPlayer.put(player.getUniqueId(), entry);
+            } else if (entry.cellKey != cellKey || !entry.worldId.equals(worldId)) {
+                unlink(entry);
+                entry.setPosition(scratch);
+                link(entry, worldId, cellKey);
+            } else {
+                entry.setPosition(scratch);
+            }
+            entry.seenTick = current;
+        }
+
+        // Players not seen this tick have left
+        Iterator<Entry> iterator = byPlayer.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.seenTick != current) {
+                iterator.remove();
+                unlink(entry);
+            }
+        }
+    }
+
+    private void link(Entry entry, UUID worldId, long cellKey) {
+        entry.worldId = worldId;
+        entry.cellKey = cellKey;
+        worlds.computeIfAbsent(worldId, id -> new ConcurrentHashMap<>())
+                .merge(cellKey, new Entry[]{entry}, PlayerSpatialIndex::append);
+    }
+
+    private void unlink(Entry entry) {
+        Map<Long, Entry[]> cells = worlds.get(entry.worldId);
+        if (cells != null) {
+            cells.computeIfPresent(entry.cellKey, (key, entries) -> without(entries, entry));
+        }
+    }
+
+    private static Entry[] append(Entry[] entries, Entry[] added) {
+        Entry[] result = Arrays.copyOf(entries, entries.length + added.length);
+        System.arraycopy(added, 0, result, entries.length, added.length);
+        return result;
+    }
+
+    private static Entry[] without(Entry[] entries, Entry removed) {
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i] == removed) {
+                if (entries.length == 1) {
+                    return null;
+                }
+                Entry[] result = new Entry[entries.length - 1];
+                System.arraycopy(entries, 0, result, 0, i);
+                System.arraycopy(entries, i + 1, result, i, entries.length - i - 1);
+                return result;
+            }
+        }
+        return entries.length == 0 ? null : entries;
+    }
+
+    /**
+     * Finds players in the same world within the given radius of the sender, sender included
+     * @param sender Player at the centre of the query
+     * @param radius Radius in blocks
+     * @return Players in range, or null if the sender is not indexed yet
+     */
+    public List<Player> findNearby(Player sender, double radius) {
+        Entry origin = byPlayer.get(sender.getUniqueId());
+        if (origin == null) {
+            return null;
+        }
+        if (radius < 0) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Entry[]> cells = worlds.get(origin.worldId);
+        if (cells == null) {
+            return Collections.emptyList();
+        }
+
+        double originX = origin.x, originY = origin.y, originZ = origin.z;
+        double radiusSquared = radius * radius;
+        int minX = cell(originX - radius), maxX = cell(originX + radius);
+        int minY = cell(originY - radius), maxY = cell(originY + radius);
+        int minZ = cell(originZ - radius), maxZ = cell(originZ + radius);
+        List<Player> result = new ArrayList<>();
+
+        // Huge radii cover more cells than the world holds players, scan entries instead
+        if (coversMoreCells((long) maxX - minX + 1, (long) maxY - minY + 1, (long) maxZ - minZ + 1, cells.size())) {
+            for (Entry[] entries : cells.values()) {
+                collect(entries, originX, originY, originZ, radiusSquared, result);
+            }
+            return result;
+        }
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    Entry[] entries = cells.get(cellKey(x, y, z));
+                    if (entries != null) {
+                        collect(entries, originX, originY, originZ, radiusSquared, result);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if a box of cells is larger than the number of occupied cells
+     * @param spanX Cells along x
+     * @param spanY Cells along y
+     * @param spanZ Cells along z
+     * @param occupied Number of occupied cells
+     * @return true if scanning the occupied cells is cheaper than walking the box
+     */
+    private static boolean coversMoreCells(long spanX, long spanY, long spanZ, int occupied) {
+        if (spanX > occupied || spanY > occupied || spanZ > occupied) {
+            return true;
+        }
+        // Every span is at most an int here, so neither product can overflow a long
+        long area = spanX * spanY;
+        return area > occupied || area * spanZ > occupied;
+    }
+
+    private static void collect(Entry[] entries, double originX, double originY, double originZ,
+                                double radiusSquared, List<Player> result) {
+        for (Entry entry : entries) {
+            double dx = entry.x - originX;
+            double dy = entry.y - originY;
+            double dz = entry.z - originZ;
+            if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                result.add(entry.player);
+            }
+        }
+    }
+
+    private static int cell(double coordinate) {
+        return (int) Math.floor(coordinate) >> CELL_SHIFT;
+    }
+
+    private static long cellKey(int x, int y, int z) {
+        // 26 bits for x/z cells (covers the 30M block world border), 12 bits for y
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    private static final class Entry {
+        private final Player player;
+        // Written on the main thread, read by chat threads
+        private volatile UUID worldId;
+        private volatile double x;
+        private volatile double y;
+        private volatile double z;
+        // Main thread only
+        private long cellKey;
+        private long seenTick;
+
+        private Entry(Player player) {
+            this.player = player;
+        }
+
+        private void setPosition(Location location) {
+            x = location.getX();
+            y = location.getY();
+            z = location.getZ();
+        }
+    }
+}
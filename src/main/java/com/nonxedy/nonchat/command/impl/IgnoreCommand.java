@@ -1,10 +1,7 @@
 package com.nonxedy.nonchat.command.impl;
 
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -20,6 +17,7 @@ import org.jetbrains.annotations.NotNull;
 import com.nonxedy.nonchat.Nonchat;
 import com.nonxedy.nonchat.config.PluginMessages;
 import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+import com.nonxedy.nonchat.util.special.ignore.IgnoreManager;
 
 public class IgnoreCommand implements CommandExecutor, TabCompleter {
 
@@ -27,13 +25,14 @@ public class IgnoreCommand implements CommandExecutor, TabCompleter {
     private final Nonchat plugin;
     // Plugin messages configuration
     private final PluginMessages messages;
-    // Map to store ignored players (key: player UUID, value: set of ignored player UUIDs)
-    private final Map<UUID, Set<UUID>> ignoredPlayers = new HashMap<>();
+    // Thread-safe ignore lists shared with the chat and message paths
+    private final IgnoreManager ignoreManager;
 
     // Constructor to initialize the command
-    public IgnoreCommand(Nonchat plugin, PluginMessages messages) {
+    public IgnoreCommand(Nonchat plugin, PluginMessages messages, IgnoreManager ignoreManager) {
         this.plugin = plugin;
         this.messages = messages;
+        this.ignoreManager = ignoreManager;
     }
 
     /**
@@ -88,20 +87,14 @@ public class IgnoreCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        // Get the set of ignored players for this player
-        Set<UUID> ignored = ignoredPlayers.computeIfAbsent(player.getUniqueId(), k -> new HashSet<>());
-
         // Toggle ignore status
-        UUID targetUUID = target.getUniqueId();
-        if (ignored.contains(targetUUID)) {
-            // Remove from ignore list
-            ignored.remove(targetUUID);
+        if (!ignoreManager.toggle(player.getUniqueId(), target.getUniqueId())) {
+            // Removed from ignore list
             sender.sendMessage(ColorUtil.parseComponent(messages.getString("unignored-player")
                     .replace("{player}", target.getName())));
             plugin.logResponse("Player unignored: " + target.getName());
         } else {
-            // Add to ignore list
-            ignored.add(targetUUID);
+            // Added to ignore list
             sender.sendMessage(ColorUtil.parseComponent(messages.getString("ignored-player")
                     .replace("{player}", target.getName())));
             plugin.logResponse("Player ignored: " + target.getName());
@@ -133,8 +126,7 @@ public class IgnoreCommand implements CommandExecutor, TabCompleter {
      * @return true if sender is ignoring target
      */
     public boolean isIgnoring(Player sender, Player target) {
-        Set<UUID> ignored = ignoredPlayers.get(sender.getUniqueId());
-        return ignored != null && ignored.contains(target.getUniqueId());
+        return ignoreManager.isIgnoring(sender, target);
     }
 
     /**
@@ -143,7 +135,16 @@ public class IgnoreCommand implements CommandExecutor, TabCompleter {
      * @return Set of UUIDs representing ignored players
      */
     public Set<UUID> getIgnoredPlayers(Player player) {
-        return ignoredPlayers.getOrDefault(player.getUniqueId(), new HashSet<>());
+        return ignoreManager.getIgnoredPlayers(player);
+    }
+
+    /**
+     * Gets all online players that are ignoring a player
+     * @param player The player who might be ignored
+     * @return Set of UUIDs of players ignoring the given player
+     */
+    public Set<UUID> getIgnoredBy(Player player) {
+        return ignoreManager.getIgnoredBy(player.getUniqueId());
     }
     
     /**
@@ -152,8 +153,7 @@ public class IgnoreCommand implements CommandExecutor, TabCompleter {
      * @return true if the player is ignoring at least one other player
      */
     public boolean isIgnoringAnyone(Player player) {
-        Set<UUID> ignored = ignoredPlayers.get(player.getUniqueId());
-        return ignored != null && !ignored.isEmpty();
+        return ignoreManager.isIgnoringAnyone(player);
     }
     
     /**
@@ -161,6 +161,6 @@ public class IgnoreCommand implements CommandExecutor, TabCompleter {
      * @param player The player whose ignore list to clear
      */
     public void clearIgnoreList(Player player) {
-        ignoredPlayers.remove(player.getUniqueId());
+        ignoreManager.clear(player.getUniqueId());
     }
 }
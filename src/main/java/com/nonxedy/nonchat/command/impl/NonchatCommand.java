@@ -3,7 +3,11 @@ package com.nonxedy.nonchat.command.impl;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
 
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -12,15 +16,17 @@ import org.jetbrains.annotations.NotNull;
 
 import com.nonxedy.nonchat.Nonchat;
 import com.nonxedy.nonchat.config.PluginMessages;
+import com.nonxedy.nonchat.database.DatabaseManager;
 import com.nonxedy.nonchat.service.ConfigService;
 import com.nonxedy.nonchat.util.chat.filters.LinkDetector;
 import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+import com.nonxedy.nonchat.util.core.stats.ChatStats;
 
 import net.kyori.adventure.text.Component;
 
 /**
  * Main nonchat command handler
- * Provides subcommands for reload, help, and version functionality
+ * Provides subcommands for reload, help, version, stats and migrate functionality
  */
 public class NonchatCommand implements CommandExecutor, TabCompleter {
 
@@ -67,6 +73,12 @@ public class NonchatCommand implements CommandExecutor, TabCompleter {
             case "version" -> {
                 return handleVersionCommand(sender);
             }
+            case "stats" -> {
+                return handleStatsCommand(sender, args);
+            }
+            case "migrate" -> {
+                return handleMigrateCommand(sender, args);
+            }
             default -> {
                 sendHelpMessage(sender);
                 return true;
@@ -151,6 +163,123 @@ public class NonchatCommand implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    /**
+     * Handles the stats subcommand
+     */
+    private boolean handleStatsCommand(CommandSender sender, String[] args) {
+        // Check if sender has permission
+        if (!sender.hasPermission("nonchat.stats")) {
+            sender.sendMessage(ColorUtil.parseComponentCached(messages.getString("no-permission")));
+            plugin.logError("No permission for /nonchat stats command: " + sender.getName());
+            return true;
+        }
+
+        if (args.length > 1 && args[1].equalsIgnoreCase("reset")) {
+            ChatStats.reset();
+            sender.sendMessage(ColorUtil.parseComponentCached(messages.getString("stats-reset")));
+            plugin.logResponse("Stats reset");
+            return true;
+        }
+
+        if (!ChatStats.isEnabled()) {
+            sender.sendMessage(ColorUtil.parseComponentCached(messages.getString("stats-disabled")));
+        }
+
+        // Send the stats message
+        sendStatsMessage(sender);
+        return true;
+    }
+
+    /**
+     * Handles the migrate subcommand, copying stored data to another storage backend
+     */
+    private boolean handleMigrateCommand(CommandSender sender, String[] args) {
+        // Check if sender has permission
+        if (!sender.hasPermission("nonchat.migrate")) {
+            sender.sendMessage(ColorUtil.parseComponentCached(messages.getString("no-permission")));
+            plugin.logError("No permission for /nonchat migrate command: " + sender.getName());
+            return true;
+        }
+
+        DatabaseManager databaseManager = plugin.getDatabaseManager();
+        String target = args.length > 1 ? args[1].toLowerCase(Locale.ROOT) : "";
+        if (databaseManager == null || !DatabaseManager.STORAGE_TYPES.contains(target)) {
+            sender.sendMessage(ColorUtil.parseComponent(messages.getString("migrate-usage")
+                .replace("{types}", String.join("|", DatabaseManager.STORAGE_TYPES))));
+            return true;
+        }
+
+        String source = databaseManager.getStorageType();
+        if (source.equals(target)) {
+            sender.sendMessage(ColorUtil.parseComponent(messages.getString("migrate-same")
+                .replace("{type}", target)));
+            return true;
+        }
+
+        sender.sendMessage(ColorUtil.parseComponent(messages.getString("migrate-started")
+            .replace("{from}", source)
+            .replace("{to}", target)));
+        plugin.logResponse("Migrating stored data from " + source + " to " + target);
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            String result;
+            try {
+                int rows = databaseManager.migrateTo(target);
+                result = messages.getString("migrate-success")
+                    .replace("{rows}", String.valueOf(rows))
+                    .replace("{to}", target);
+                plugin.logResponse("Migrated " + rows + " rows to " + target);
+            } catch (Exception e) {
+                result = messages.getString("migrate-failed").replace("{error}", String.valueOf(e.getMessage()));
+                plugin.logError("Migration to " + target + " failed: " + e.getMessage());
+            }
+
+            String message = result;
+            Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(ColorUtil.parseComponent(message)));
+        });
+        return true;
+    }
+
+    /**
+     * Sends every timer and counter to the sender
+     */
+    private void sendStatsMessage(CommandSender sender) {
+        try {
+            Component statsMessage = ColorUtil.parseComponentCached(messages.getString("stats-header"));
+
+            for (Map.Entry<String, ChatStats.Timer> entry : ChatStats.getTimers().entrySet()) {
+                ChatStats.Timer timer = entry.getValue();
+                statsMessage = statsMessage.append(Component.newline())
+                    .append(ColorUtil.parseComponent(messages.getString("stats-timer")
+                        .replace("{name}", entry.getKey())
+                        .replace("{count}", String.valueOf(timer.getCount()))
+                        .replace("{mean}", ChatStats.formatMillis(timer.getMean()))
+                        .replace("{p50}", ChatStats.formatMillis(timer.getPercentile(0.50)))
+                        .replace("{p99}", ChatStats.formatMillis(timer.getPercentile(0.99)))
+                        .replace("{max}", ChatStats.formatMillis(timer.getMax()))));
+            }
+
+            for (Map.Entry<String, ChatStats.Counter> entry : ChatStats.getCounters().entrySet()) {
+                statsMessage = statsMessage.append(Component.newline())
+                    .append(ColorUtil.parseComponent(messages.getString("stats-counter")
+                        .replace("{name}", entry.getKey())
+                        .replace("{value}", String.valueOf(entry.getValue().get()))));
+            }
+
+            for (Map.Entry<String, LongSupplier> entry : ChatStats.getGauges().entrySet()) {
+                statsMessage = statsMessage.append(Component.newline())
+                    .append(ColorUtil.parseComponent(messages.getString("stats-counter")
+                        .replace("{name}", entry.getKey())
+                        .replace("{value}", String.valueOf(entry.getValue().getAsLong()))));
+            }
+
+            sender.sendMessage(statsMessage);
+            plugin.logResponse("Stats message sent successfully");
+        } catch (Exception e) {
+            plugin.logError("Failed to send stats message: " + e.getMessage());
+        }
+    }
+
     /**
      * Sends the formatted help message to the sender
      */
@@ -202,6 +331,12 @@ public class NonchatCommand implements CommandExecutor, TabCompleter {
             // Add version command description
             .append(ColorUtil.parseComponentCached(messages.getString("version-command")))
             .append(Component.newline())
+            // Add stats command description
+            .append(ColorUtil.parseComponentCached(messages.getString("stats-command")))
+            .append(Component.newline())
+            // Add migrate command description
+            .append(ColorUtil.parseComponentCached(messages.getString("migrate-command")))
+            .append(Component.newline())
             // Add server command description
             .append(ColorUtil.parseComponentCached(messages.getString("server-command")))
             .append(Component.newline())
@@ -254,10 +389,30 @@ public class NonchatCommand implements CommandExecutor, TabCompleter {
                 subCommands.add("version");
             }
 
+            // Add stats subcommand if they have permission
+            if (sender.hasPermission("nonchat.stats")) {
+                subCommands.add("stats");
+            }
+
+            // Add migrate subcommand if they have permission
+            if (sender.hasPermission("nonchat.migrate")) {
+                subCommands.add("migrate");
+            }
+
             return filterStartingWith(args[0], subCommands);
         }
 
-        // No completions for args beyond the first
+        // Stats can be reset
+        if (args.length == 2 && args[0].equalsIgnoreCase("stats") && sender.hasPermission("nonchat.stats")) {
+            return filterStartingWith(args[1], List.of("reset"));
+        }
+
+        // Migration targets
+        if (args.length == 2 && args[0].equalsIgnoreCase("migrate") && sender.hasPermission("nonchat.migrate")) {
+            return filterStartingWith(args[1], DatabaseManager.STORAGE_TYPES);
+        }
+
+        // No other completions
         return Collections.emptyList();
     }
 
@@ -2,6 +2,7 @@ package com.nonxedy.nonchat.config;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Locale;
 import java.util.logging.Level;
 
 import org.bukkit.configuration.file.FileConfiguration;
@@ -18,6 +19,8 @@ public class DatabaseConfig {
     private FileConfiguration config;
 
     private boolean enabled;
+    private String type;
+    private String file;
     private String host;
     private int port;
     private String database;
@@ -26,6 +29,8 @@ public class DatabaseConfig {
     private int poolSize;
     private long maxLifetime;
     private long connectionTimeout;
+    private int writeBatchSize;
+    private long writeFlushInterval;
 
     public DatabaseConfig(Nonchat plugin) {
         this.plugin = plugin;
@@ -41,6 +46,11 @@ public class DatabaseConfig {
         config = YamlConfiguration.loadConfiguration(configFile);
         
         this.enabled = config.getBoolean("enabled", false);
+        this.type = config.getString("type", "mariadb").toLowerCase(Locale.ROOT);
+        if (type.equals("mysql")) {
+            this.type = "mariadb";
+        }
+        this.file = config.getString("file", "nonchat.db");
         this.host = config.getString("host", "localhost");
         this.port = config.getInt("port", 3306);
         this.database = config.getString("database", "nonchat");
@@ -49,6 +59,8 @@ public class DatabaseConfig {
         this.poolSize = config.getInt("pool-size", 10);
         this.maxLifetime = config.getLong("max-lifetime", 1800000);
         this.connectionTimeout = config.getLong("connection-timeout", 5000);
+        this.writeBatchSize = Math.max(1, config.getInt("write-batch-size", 100));
+        this.writeFlushInterval = Math.max(50L, config.getLong("write-flush-interval", 1000));
     }
 
     public void reload() {
@@ -62,6 +74,8 @@ public class DatabaseConfig {
             
             config = YamlConfiguration.loadConfiguration(configFile);
             config.set("enabled", false);
+            config.set("type", "mariadb");
+            config.set("file", "nonchat.db");
             config.set("host", "localhost");
             config.set("port", 3306);
             config.set("database", "nonchat");
@@ -70,6 +84,8 @@ public class DatabaseConfig {
             config.set("pool-size", 10);
             config.set("max-lifetime", 1800000);
             config.set("connection-timeout", 5000);
+            config.set("write-batch-size", 100);
+            config.set("write-flush-interval", 1000);
             
             config.save(configFile);
         } catch (IOException e) {
@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -31,6 +32,7 @@ import com.nonxedy.nonchat.util.chat.filters.WordBlocker;
 import com.nonxedy.nonchat.util.chat.formatting.ChatTypeUtil;
 import com.nonxedy.nonchat.util.chat.formatting.HoverTextUtil;
 import com.nonxedy.nonchat.util.core.broadcast.BroadcastMessage;
+import com.nonxedy.nonchat.util.core.colors.ColorCache;
 
 import lombok.Getter;
 
@@ -55,6 +57,9 @@ public class PluginConfig {
     // Default channel
     private String defaultChannel;
 
+    // Compiled banned word matcher, replaced as a whole on reload
+    private volatile WordBlocker wordBlocker;
+
     // Constructor initializes config file path and loads configuration
     public PluginConfig(Nonchat plugin) {
         this.plugin = plugin;
@@ -83,6 +88,8 @@ public class PluginConfig {
         this.language = config.getString("language", "en");
         // Set default channel
         this.defaultChannel = config.getString("default-channel", "local");
+        // Compile banned words and patterns once per load
+        this.wordBlocker = new WordBlocker(getBannedWords(), getBannedPatterns());
     }
 
     /**
@@ -164,6 +171,7 @@ public class PluginConfig {
         config.set("chat-bubbles.scale-x", 1.0);
         config.set("chat-bubbles.scale-y", 1.0);
         config.set("chat-bubbles.scale-z", 1.0);
+        config.set("chat-bubbles.updates-per-tick", 100);
         
         // Create default channel configurations
         createDefaultChannels();
@@ -320,6 +328,185 @@ public class PluginConfig {
         saveConfig();
     }
 
+    /**
+     * Gets the number of chat pipeline worker threads
+     * @return Thread count (at least 1)
+     */
+    public int getChatPipelineThreads() {
+        return Math.max(1, config.getInt("chat-pipeline.threads", 4));
+    }
+
+    /**
+     * Gets the maximum number of queued messages per player
+     * @return Queue size (at least 1)
+     */
+    public int getChatPipelineQueueSize() {
+        return Math.max(1, config.getInt("chat-pipeline.queue-size", 8));
+    }
+
+    /**
+     * Gets how long the chat event waits for the pipeline
+     * @return Timeout in milliseconds
+     */
+    public long getChatPipelineTimeout() {
+        return Math.max(50L, config.getLong("chat-pipeline.timeout-ms", 2000L));
+    }
+
+    /**
+     * Gets how many recipients one delivery batch sends to
+     * @return Batch size (at least 16)
+     */
+    public int getDeliveryBatchSize() {
+        return Math.max(16, config.getInt("chat-pipeline.delivery-batch-size", 128));
+    }
+
+    /**
+     * Gets the number of threads sending large broadcasts in parallel
+     * @return Thread count (at least 1)
+     */
+    public int getDeliveryThreads() {
+        return Math.max(1, config.getInt("chat-pipeline.delivery-threads", 2));
+    }
+
+    /**
+     * Checks if chat messages sent to channels are printed to the console
+     * @return true if enabled
+     */
+    public boolean isChatLogConsoleEnabled() {
+        return config.getBoolean("chat-log.console", true);
+    }
+
+    /**
+     * Checks if chat messages are written to the daily chat log files
+     * @return true if enabled
+     */
+    public boolean isChatLogFileEnabled() {
+        return config.getBoolean("chat-log.file", false);
+    }
+
+    /**
+     * Gets the maximum number of chat lines waiting to be logged
+     * @return Queue size (at least 64)
+     */
+    public int getChatLogQueueSize() {
+        return Math.max(64, config.getInt("chat-log.queue-size", 4096));
+    }
+
+    /**
+     * Checks if the chat permission cache is enabled
+     * @return true if enabled
+     */
+    public boolean isPermissionCacheEnabled() {
+        return config.getBoolean("permission-cache.enabled", true);
+    }
+
+    /**
+     * Gets the maximum age of a cached permission set
+     * @return Time to live in seconds
+     */
+    public int getPermissionCacheTtl() {
+        return Math.max(1, config.getInt("permission-cache.ttl-seconds", 60));
+    }
+
+    /**
+     * Checks if the chat header render cache is enabled
+     * @return true if enabled
+     */
+    public boolean isRenderCacheEnabled() {
+        return config.getBoolean("render-cache.enabled", true);
+    }
+
+    /**
+     * Gets how long a rendered chat header is reused
+     * @return Time to live in milliseconds
+     */
+    public long getRenderCacheTtl() {
+        return Math.max(0L, config.getLong("render-cache.ttl-ms", 2000L));
+    }
+
+    /**
+     * Checks if PlaceholderAPI values are cached per player
+     * @return true if enabled
+     */
+    public boolean isPlaceholderCacheEnabled() {
+        return config.getBoolean("placeholder-cache.enabled", true);
+    }
+
+    /**
+     * Gets how long a placeholder value is reused unless it has its own TTL
+     * @return Time to live in milliseconds
+     */
+    public long getPlaceholderCacheTtl() {
+        return Math.max(0L, config.getLong("placeholder-cache.ttl-ms", 1000L));
+    }
+
+    /**
+     * Gets placeholders with their own TTL, keyed by identifier without percent signs
+     * @return Map of placeholder to time to live in milliseconds
+     */
+    public Map<String, Long> getPlaceholderCacheTtlOverrides() {
+        Map<String, Long> overrides = new HashMap<>();
+        ConfigurationSection section = config.getConfigurationSection("placeholder-cache.ttl-overrides");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                overrides.put(stripPercent(key), Math.max(0L, section.getLong(key)));
+            }
+        }
+        return overrides;
+    }
+
+    /**
+     * Gets placeholders that are never cached
+     * @return Placeholder identifiers without percent signs
+     */
+    public Set<String> getVolatilePlaceholders() {
+        Set<String> placeholders = new HashSet<>();
+        for (String placeholder : config.getStringList("placeholder-cache.volatile")) {
+            placeholders.add(stripPercent(placeholder));
+        }
+        return placeholders;
+    }
+
+    private static String stripPercent(String placeholder) {
+        String trimmed = placeholder.trim();
+        if (trimmed.length() > 1 && trimmed.startsWith("%") && trimmed.endsWith("%")) {
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
+    /**
+     * Gets the maximum number of cached legacy colour strings
+     * @return Cache size
+     */
+    public int getColorCacheLegacySize() {
+        return Math.max(0, config.getInt("color-cache.legacy-size", ColorCache.DEFAULT_LEGACY_SIZE));
+    }
+
+    /**
+     * Gets the maximum number of cached message components
+     * @return Cache size
+     */
+    public int getColorCacheComponentSize() {
+        return Math.max(0, config.getInt("color-cache.component-size", ColorCache.DEFAULT_COMPONENT_SIZE));
+    }
+
+    /**
+     * Gets the maximum number of cached MiniMessage parse results
+     * @return Cache size
+     */
+    public int getColorCacheMiniMessageSize() {
+        return Math.max(0, config.getInt("color-cache.minimessage-size", ColorCache.DEFAULT_MINIMESSAGE_SIZE));
+    }
+
+    /**
+     * Checks if performance stats are collected
+     * @return true if enabled
+     */
+    public boolean isStatsEnabled() {
+        return config.getBoolean("stats.enabled", true);
+    }
+
     /**
      * Checks if interactive placeholders are globally enabled
      * @return true if enabled
@@ -843,6 +1030,14 @@ public class PluginConfig {
         return config.getDouble("chat-bubbles.scale-z", 1.0);
     }
 
+    /**
+     * Gets the maximum number of chat bubbles moved to follow their owner in one tick
+     * @return Bubble moves per tick, at least 1
+     */
+    public int getChatBubblesUpdatesPerTick() {
+        return Math.max(1, config.getInt("chat-bubbles.updates-per-tick", 100));
+    }
+
     /**
      * Gets list of banned words
      * @return List of blocked words
@@ -862,12 +1057,12 @@ public class PluginConfig {
     }
 
     /**
-     * Gets word blocker instance
+     * Gets the word blocker compiled at the last config load
      * @return Configured WordBlocker
      */
     @NotNull
     public WordBlocker getWordBlocker() {
-        return new WordBlocker(getBannedWords(), getBannedPatterns());
+        return wordBlocker;
     }
 
     /**
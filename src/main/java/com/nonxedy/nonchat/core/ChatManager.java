@@ -1,35 +1,48 @@
 package com.nonxedy.nonchat.core;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.entity.TextDisplay;
 
 import com.nonxedy.nonchat.Nonchat;
 import com.nonxedy.nonchat.api.Channel;
 import com.nonxedy.nonchat.api.ChannelAPI;
 import com.nonxedy.nonchat.chat.channel.ChannelManager;
+import com.nonxedy.nonchat.chat.channel.PlayerNameIndex;
+import com.nonxedy.nonchat.chat.channel.PlayerSpatialIndex;
 import com.nonxedy.nonchat.command.impl.IgnoreCommand;
 import com.nonxedy.nonchat.config.PluginConfig;
 import com.nonxedy.nonchat.config.PluginMessages;
+import com.nonxedy.nonchat.core.pipeline.ChatContext;
+import com.nonxedy.nonchat.core.pipeline.ChatDelivery;
+import com.nonxedy.nonchat.core.pipeline.ChatLogSink;
+import com.nonxedy.nonchat.core.pipeline.ChatPipeline;
+import com.nonxedy.nonchat.core.pipeline.ChatStage;
 import com.nonxedy.nonchat.util.AsyncFilterService;
 import com.nonxedy.nonchat.util.chat.filters.AdDetector;
-import com.nonxedy.nonchat.util.chat.filters.CapsFilter;
+import com.nonxedy.nonchat.util.chat.filters.ModerationScanner;
+import com.nonxedy.nonchat.util.chat.filters.ModerationVerdict;
+import com.nonxedy.nonchat.util.chat.filters.ScannedMessage;
 import com.nonxedy.nonchat.util.chat.filters.SpamDetector;
-import com.nonxedy.nonchat.util.chat.filters.WordBlocker;
+import com.nonxedy.nonchat.util.chat.packets.ChatBubble;
 import com.nonxedy.nonchat.util.chat.packets.DisplayEntityUtil;
 import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+import com.nonxedy.nonchat.util.core.permissions.PermissionCache;
+import com.nonxedy.nonchat.util.core.stats.ChatStats;
+import com.nonxedy.nonchat.util.integration.external.PlaceholderResolver;
 
-import me.clip.placeholderapi.PlaceholderAPI;
 import net.kyori.adventure.chat.ChatType;
 import net.kyori.adventure.text.Component;
 
@@ -39,13 +52,24 @@ public class ChatManager {
     private final PluginConfig config;
     private final PluginMessages messages;
     private final ChannelManager channelManager;
-    private final Pattern mentionPattern = Pattern.compile("@(\\w+)");
-    private final Map<Player, List<TextDisplay>> bubbles = new ConcurrentHashMap<>();
-    private final Map<Player, ReentrantLock> playerLocks = new ConcurrentHashMap<>();
+    private static final long BUBBLE_VIEWER_REFRESH_TICKS = 10L;
+    private static final double BUBBLE_MOVE_EPSILON = 0.01;
+    private final Map<Player, ChatBubble> bubbles = new ConcurrentHashMap<>();
+    private final ArrayDeque<ChatBubble> movedBubbles = new ArrayDeque<>();
+    private final Location bubbleScratch = new Location(null, 0, 0, 0);
     private IgnoreCommand ignoreCommand;
+    private long bubbleTicks;
     private final AdDetector adDetector;
     private final SpamDetector spamDetector;
     private final AsyncFilterService asyncFilterService;
+    private final ModerationScanner moderationScanner;
+    private final ChatPipeline pipeline;
+    private final ChatDelivery delivery;
+    private final ChatLogSink chatLog;
+    private final PlayerSpatialIndex spatialIndex;
+    private final PlayerNameIndex nameIndex;
+    private final ChatStats.Timer broadcastTimer = ChatStats.timer("broadcast");
+    private final ChatStats.Counter deliveredCounter = ChatStats.counter("messages_delivered");
 
     public ChatManager(Nonchat plugin, PluginConfig config, PluginMessages messages) {
         this.plugin = plugin;
@@ -56,186 +80,263 @@ public class ChatManager {
                                       config.getAntiAdPunishCommand());
         this.spamDetector = new SpamDetector(config, messages);
         this.asyncFilterService = new AsyncFilterService(plugin, adDetector);
+        this.moderationScanner = new ModerationScanner(config, messages, adDetector, spamDetector);
         this.channelManager = new ChannelManager(plugin, config);
         this.ignoreCommand = plugin.getIgnoreCommand();
+        this.pipeline = new ChatPipeline(plugin, config, this::handleStage);
+        this.delivery = new ChatDelivery(plugin, config);
+        this.chatLog = new ChatLogSink(plugin, config);
+        this.spatialIndex = new PlayerSpatialIndex(plugin);
+        this.spatialIndex.start();
+        this.nameIndex = new PlayerNameIndex();
+        this.nameIndex.start();
         startBubbleUpdater();
     }
 
     public Component processChat(Player player, String messageContent) {
-        // Get or create player-specific lock
-        ReentrantLock lock = playerLocks.computeIfAbsent(player, p -> new ReentrantLock());
-        lock.lock();
-        try {
-            // Check if the message is empty or contains only whitespace
-            if (messageContent == null || messageContent.trim().isEmpty()) {
-                return null; // Silently cancel empty messages
-            }
-            
-            if (handleBlockedWords(player, messageContent)) {
-                return null;
-            }
+        return processChat(player, messageContent, null);
+    }
 
-            CapsFilter capsFilter = config.getCapsFilter();
-            if (!player.hasPermission("nonchat.caps.bypass") && capsFilter.shouldFilter(messageContent)) {
-                player.sendMessage(ColorUtil.parseComponentCached(messages.getString("caps-filter")
-                        .replace("{percentage}", String.valueOf(capsFilter.getMaxCapsPercentage()))));
-                return null;
-            }
+    /**
+     * Processes a chat message whose channel was already resolved from its prefix
+     * @param player The sender
+     * @param messageContent The raw message, prefix included
+     * @param routedChannel Channel matched by the message prefix, or null to resolve it here
+     * @return Component for native delivery, or null if handled manually or cancelled
+     */
+    public Component processChat(Player player, String messageContent, Channel routedChannel) {
+        ChatContext context = pipeline.submit(player, messageContent, routedChannel);
+        if (context == null) {
+            // Player's lane is full, they are sending faster than we can process
+            player.sendMessage(ColorUtil.parseComponentCached(messages.getString("chat-queue-full")));
+            return null;
+        }
+        // Only natively delivered messages hand a component back, everything else is sent by the deliver stage
+        if (routedChannel != null && !isNativelyDelivered(routedChannel) && context.detach()) {
+            return null;
+        }
+        return pipeline.await(context);
+    }
 
-            // Check for spam
-            if (config.isAntiSpamEnabled() && !player.hasPermission("nonchat.spam.bypass")) {
-                if (spamDetector.shouldFilter(player, messageContent)) {
-                    // Warning message is already sent by SpamDetector
-                    return null;
-                }
-            }
+    /**
+     * Checks if messages in a channel are handed back to the chat event instead of broadcast manually
+     * @param channel Channel to check
+     * @return true for the global channel
+     */
+    private boolean isNativelyDelivered(Channel channel) {
+        return channel.isGlobal() && channel.getId().equals("global");
+    }
 
-            // Check for advertisements
-            if (config.isAntiAdEnabled() && !player.hasPermission("nonchat.ad.bypass")) {
-                if (adDetector.shouldFilter(player, messageContent)) {
-                    player.sendMessage(ColorUtil.parseComponentCached(messages.getString("blocked-words")));
-                    return null;
-                }
-            }
+    /**
+     * Dispatches a pipeline stage to its handler
+     * @param stage Stage to run
+     * @param context Message context
+     * @return true to continue with the next stage
+     */
+    private boolean handleStage(ChatStage stage, ChatContext context) {
+        return switch (stage) {
+            case VALIDATE -> validateStage(context);
+            case FILTER -> filterStage(context);
+            case ROUTE -> routeStage(context);
+            case RENDER -> renderStage(context);
+            case DELIVER -> deliverStage(context);
+        };
+    }
 
-            // Check if player is trying to use colors without permission
-            if (!player.hasPermission("nonchat.color") && ColorUtil.hasColorCodes(messageContent)) {
-                // Strip colors but continue processing the message
-                messageContent = ColorUtil.stripAllColors(messageContent);
-                
-                // Check if the message is empty after stripping colors
-                if (messageContent.trim().isEmpty()) {
-                    return null; // Silently cancel empty messages
-                }
-            }
+    private boolean validateStage(ChatContext context) {
+        // Player may have left while the message was queued
+        if (!context.getPlayer().isOnline()) {
+            return false;
+        }
+        String message = context.getMessage();
+        return message != null && !message.isBlank();
+    }
 
-            // Determine which channel to use based on message prefix or player's active channel
-            Channel channel = channelManager.getChannelForMessage(messageContent);
-            String finalMessage;
-
-            // If a channel was found by prefix, update player's active channel and remove the prefix from the message
-            if (channel != null && channel.hasPrefix() && messageContent.startsWith(channel.getPrefix())) {
-                // Update player's active channel for DiscordSRV integration
-                channelManager.setPlayerChannel(player, channel.getId());
-                finalMessage = messageContent.substring(channel.getPrefix().length());
-                // Check if the message is empty after removing channel prefix
-                if (finalMessage.trim().isEmpty()) {
-                    return null; // Silently cancel empty messages
-                }
-            } else {
-                // No prefix match, use the message as-is
-                finalMessage = messageContent;
-            }
+    private boolean filterStage(ChatContext context) {
+        Player player = context.getPlayer();
+        String messageContent = context.getMessage();
 
-            // Ensure we have a valid channel (should not be null from getChannelForMessage)
-            if (channel == null) {
-                return null; // Silently cancel if no channel available
+        ModerationVerdict verdict = moderationScanner.scan(player, messageContent);
+        switch (verdict.getRule()) {
+            case BLOCKED_WORD, ADVERTISEMENT ->
+                player.sendMessage(ColorUtil.parseComponentCached(messages.getString("blocked-words")));
+            case CAPS ->
+                player.sendMessage(ColorUtil.parseComponentCached(messages.getString("caps-filter")
+                        .replace("{percentage}", String.valueOf(config.getCapsFilter().getMaxCapsPercentage()))));
+            case SPAM, NONE -> {
+                // Warning message is already sent by SpamDetector
             }
+        }
+        if (verdict.isBlocked()) {
+            return false;
+        }
+
+        // Check if player is trying to use colors without permission
+        if (!PermissionCache.has(player, PermissionCache.COLOR) && ColorUtil.hasColorCodes(messageContent)) {
+            // Strip colors but continue processing the message
+            messageContent = ColorUtil.stripAllColors(messageContent);
 
-            // Check if channel is enabled
-            if (!channel.isEnabled()) {
-                player.sendMessage(ColorUtil.parseComponentCached(messages.getString("chat-disabled")));
-                return null;
+            // Check if the message is empty after stripping colors
+            if (messageContent.trim().isEmpty()) {
+                return false; // Silently cancel empty messages
             }
+            context.setMessage(messageContent);
+        }
+        return true;
+    }
 
-            // Check if player has permission to use this channel
-            if (!channel.canSend(player)) {
-                player.sendMessage(ColorUtil.parseComponentCached(messages.getString("no-permission")));
-                return null;
+    private boolean routeStage(ChatContext context) {
+        Player player = context.getPlayer();
+        String messageContent = context.getMessage();
+
+        // Reuse the channel matched by the chat listener if it still applies,
+        // otherwise determine which channel to use based on message prefix or player's active channel
+        Channel channel = context.getChannel();
+        if (channel == null || !channel.isEnabled() || !channel.hasPrefix()
+                || !messageContent.startsWith(channel.getPrefix())
+                || channelManager.getChannel(channel.getId()) != channel) {
+            channel = channelManager.getChannelForMessage(messageContent);
+        }
+        String finalMessage;
+
+        // If a channel was found by prefix, update player's active channel and remove the prefix from the message
+        if (channel != null && channel.hasPrefix() && messageContent.startsWith(channel.getPrefix())) {
+            // Update player's active channel for DiscordSRV integration
+            channelManager.setPlayerChannel(player, channel.getId());
+            finalMessage = messageContent.substring(channel.getPrefix().length());
+            // Check if the message is empty after removing channel prefix
+            if (finalMessage.trim().isEmpty()) {
+                return false; // Silently cancel empty messages
             }
+        } else {
+            // No prefix match, use the message as-is
+            finalMessage = messageContent;
+        }
 
-            // Check message length restrictions (use stripped message for length check)
-            String messageForLengthCheck = player.hasPermission("nonchat.color") ? finalMessage : ColorUtil.stripAllColors(finalMessage);
+        // Ensure we have a valid channel (should not be null from getChannelForMessage)
+        if (channel == null) {
+            return false; // Silently cancel if no channel available
+        }
 
-            if (messageForLengthCheck.length() < channel.getMinLength()) {
-                player.sendMessage(ColorUtil.parseComponentCached(messages.getString("message-too-short")
-                        .replace("{min}", String.valueOf(channel.getMinLength()))));
-                return null;
-            }
+        // Check if channel is enabled
+        if (!channel.isEnabled()) {
+            player.sendMessage(ColorUtil.parseComponentCached(messages.getString("chat-disabled")));
+            return false;
+        }
 
-            if (channel.getMaxLength() > 0 && messageForLengthCheck.length() > channel.getMaxLength()) {
-                player.sendMessage(ColorUtil.parseComponentCached(messages.getString("message-too-long")
-                        .replace("{max}", String.valueOf(channel.getMaxLength()))));
-                return null;
-            }
+        // Check if player has permission to use this channel
+        if (!channel.canSend(player)) {
+            player.sendMessage(ColorUtil.parseComponentCached(messages.getString("no-permission")));
+            return false;
+        }
 
-            // Check cooldown
-            if (!channelManager.canSendMessage(player, channel)) {
-                int remainingSeconds = channelManager.getRemainingCooldown(player, channel);
-                player.sendMessage(ColorUtil.parseComponent(messages.getString("channel-cooldown")
-                        .replace("{seconds}", String.valueOf(remainingSeconds))
-                        .replace("{channel}", channel.getDisplayName())));
-                return null;
-            }
+        // Check message length restrictions (use stripped message for length check)
+        String messageForLengthCheck = PermissionCache.has(player, PermissionCache.COLOR) ? finalMessage : ColorUtil.stripAllColors(finalMessage);
 
-            // Record message sent immediately after passing cooldown check
-            channelManager.recordMessageSent(player);
+        if (messageForLengthCheck.length() < channel.getMinLength()) {
+            player.sendMessage(ColorUtil.parseComponentCached(messages.getString("message-too-short")
+                    .replace("{min}", String.valueOf(channel.getMinLength()))));
+            return false;
+        }
 
-            // Check if message should be filtered by registered filters
-            if (ChannelAPI.shouldFilterMessage(player, finalMessage, channel.getId())) {
-                player.sendMessage(ColorUtil.parseComponentCached(messages.getString("message-filtered")));
-                return null;
-            }
+        if (channel.getMaxLength() > 0 && messageForLengthCheck.length() > channel.getMaxLength()) {
+            player.sendMessage(ColorUtil.parseComponentCached(messages.getString("message-too-long")
+                    .replace("{max}", String.valueOf(channel.getMaxLength()))));
+            return false;
+        }
 
-            // Process message through registered processors
-            String processedMessage = ChannelAPI.processMessage(player, finalMessage, channel.getId());
-            if (processedMessage == null) {
-                // Message was cancelled by a processor
-                return null;
-            }
+        // Check cooldown
+        if (!channelManager.canSendMessage(player, channel)) {
+            int remainingSeconds = channelManager.getRemainingCooldown(player, channel);
+            player.sendMessage(ColorUtil.parseComponent(messages.getString("channel-cooldown")
+                    .replace("{seconds}", String.valueOf(remainingSeconds))
+                    .replace("{channel}", channel.getDisplayName())));
+            return false;
+        }
 
-            // Apply mention coloring for all recipients if enabled
-            final String messageToSend = config.isMentionColoringEnabled()
-                ? processMentionColoring(processedMessage)
-                : processedMessage;
+        // Record message sent immediately after passing cooldown check
+        channelManager.recordMessageSent(player);
 
-            // Chat bubbles logic (keep as is, runs on scheduler)
-            boolean shouldShowBubble = config.isChatBubblesEnabled()
-                    && player.hasPermission("nonchat.chatbubbles")
-                    && isPublicChannel(channel);
+        // Check if message should be filtered by registered filters
+        if (ChannelAPI.shouldFilterMessage(player, finalMessage, channel.getId())) {
+            player.sendMessage(ColorUtil.parseComponentCached(messages.getString("message-filtered")));
+            return false;
+        }
 
-            if (shouldShowBubble) {
-                try {
-                    Bukkit.getScheduler().runTask(plugin, () -> {
-                        try {
-                            removeBubble(player);
-                            String bubbleMessage = player.hasPermission("nonchat.color") ? messageToSend : ColorUtil.stripAllColors(messageToSend);
-                            createBubble(player, bubbleMessage);
-                        } catch (Exception e) {
-                            plugin.logError("Error in bubble creation task: " + e.getMessage());
-                        }
-                    });
-                } catch (Exception e) {
-                    // Fallback handled in original code, simplified here for brevity
-                }
-            }
+        // Process message through registered processors
+        String processedMessage = ChannelAPI.processMessage(player, finalMessage, channel.getId());
+        if (processedMessage == null) {
+            // Message was cancelled by a processor
+            return false;
+        }
 
-            handleMentions(player, processedMessage); 
-            Component formattedMessage = channel.formatMessage(player, messageToSend);
+        context.setChannel(channel);
+        context.setProcessedMessage(processedMessage);
+        return true;
+    }
 
-            // IMPORTANT: If it's the GLOBAL channel, we return the component so the event can handle it natively.
-            // This fixes double messages and Bedrock hiding issues.
-            if (channel.isGlobal() && channel.getId().equals("global")) { // Assuming 'global' is the ID for the main channel
-                 // We still need to log to console manually or let the event do it? 
-                 // The event will log it naturally.
-                 return formattedMessage;
-            }
+    private boolean renderStage(ChatContext context) {
+        Player player = context.getPlayer();
+        Channel channel = context.getChannel();
+        String processedMessage = context.getProcessedMessage();
+
+        // Find mentioned players and apply mention coloring for all recipients in one scan
+        Set<Player> mentioned = new LinkedHashSet<>();
+        final String messageToSend = processMentions(processedMessage, config.isMentionColoringEnabled(), mentioned);
 
-            // For non-global channels (Local, Staff, etc.), we broadcast manually and return null to cancel the original event.
-            boolean messageDelivered = broadcastMessage(player, formattedMessage, channel, processedMessage);
+        // Chat bubbles logic (keep as is, runs on scheduler)
+        boolean shouldShowBubble = config.isChatBubblesEnabled()
+                && PermissionCache.has(player, PermissionCache.CHAT_BUBBLES)
+                && isPublicChannel(channel);
 
-            if (config.isUndeliveredMessageNotificationEnabled() && !messageDelivered) {
-                player.sendMessage(ColorUtil.parseComponentCached(messages.getString("message-not-delivered")));
+        if (shouldShowBubble) {
+            try {
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    try {
+                        removeBubble(player);
+                        String bubbleMessage = PermissionCache.has(player, PermissionCache.COLOR) ? messageToSend : ColorUtil.stripAllColors(messageToSend);
+                        createBubble(player, bubbleMessage);
+                    } catch (Exception e) {
+                        plugin.logError("Error in bubble creation task: " + e.getMessage());
+                    }
+                });
+            } catch (Exception e) {
+                // Fallback handled in original code, simplified here for brevity
             }
-            
-            return null; // Return null to tell the listener to cancel the event (since we handled it)
+        }
 
-        } finally {
-            lock.unlock();
-            if (!player.isOnline()) {
-                playerLocks.remove(player);
+        for (Player target : mentioned) {
+            if (target.isOnline()) {
+                notifyMentionedPlayer(target, player);
             }
         }
+        context.setMessageToSend(messageToSend);
+        context.setFormatted(channel.formatMessage(player, messageToSend));
+        return true;
+    }
+
+    private boolean deliverStage(ChatContext context) {
+        Player player = context.getPlayer();
+        Channel channel = context.getChannel();
+        Component formattedMessage = context.getFormatted();
+
+        // IMPORTANT: If it's the GLOBAL channel, we return the component so the event can handle it natively.
+        // This fixes double messages and Bedrock hiding issues.
+        // If the event stopped waiting (pipeline timeout), fall through to manual delivery instead.
+        if (isNativelyDelivered(channel) && context.claimNativeDelivery()) {
+            context.getResult().complete(formattedMessage);
+            // The server prints natively delivered chat itself, only the chat log file needs it
+            chatLog.log(formattedMessage, false);
+            return true;
+        }
+
+        // For non-global channels (Local, Staff, etc.), we broadcast manually and the event is cancelled.
+        boolean messageDelivered = broadcastMessage(player, formattedMessage, channel);
+
+        if (config.isUndeliveredMessageNotificationEnabled() && !messageDelivered) {
+            player.sendMessage(ColorUtil.parseComponentCached(messages.getString("message-not-delivered")));
+        }
+        return true;
     }
 
     /**
@@ -263,32 +364,7 @@ public class ChatManager {
         try {
             Bukkit.getScheduler().runTaskTimer(plugin, () -> {
                 try {
-                    // Use Stream API to handle updating bubbles
-                    bubbles.entrySet().stream()
-                            .filter(entry -> entry.getKey().isOnline() && !entry.getValue().isEmpty())
-                            .forEach(entry -> {
-                                try {
-                                    Player player = entry.getKey();
-                                    Location newLoc = player.getLocation().add(0, config.getChatBubblesHeight(), 0);
-                                    DisplayEntityUtil.updateBubblesLocation(entry.getValue(), newLoc);
-                                } catch (Exception e) {
-                                    plugin.logError("Error updating bubbles for player " + entry.getKey().getName() + ": " + e.getMessage());
-                                }
-                            });
-
-                    // Clean up bubbles for offline players
-                    bubbles.entrySet().removeIf(entry -> {
-                        try {
-                            if (!entry.getKey().isOnline()) {
-                                DisplayEntityUtil.removeBubbles(entry.getValue());
-                                return true;
-                            }
-                        } catch (Exception e) {
-                            plugin.logError("Error cleaning up bubbles for offline player: " + e.getMessage());
-                            return true; // Remove entry on error
-                        }
-                        return false;
-                    });
+                    updateBubbles();
                 } catch (Exception e) {
                     plugin.logError("Error in bubble updater: " + e.getMessage());
                 }
@@ -299,32 +375,7 @@ public class ChatManager {
             try {
                 Bukkit.getScheduler().runTaskTimer(plugin, () -> {
                     try {
-                        // Use Stream API to handle updating bubbles
-                        bubbles.entrySet().stream()
-                                .filter(entry -> entry.getKey().isOnline() && !entry.getValue().isEmpty())
-                                .forEach(entry -> {
-                                    try {
-                                        Player player = entry.getKey();
-                                        Location newLoc = player.getLocation().add(0, config.getChatBubblesHeight(), 0);
-                                        DisplayEntityUtil.updateBubblesLocation(entry.getValue(), newLoc);
-                                    } catch (Exception e2) {
-                                        plugin.logError("Error updating bubbles for player " + entry.getKey().getName() + ": " + e2.getMessage());
-                                    }
-                                });
-
-                        // Clean up bubbles for offline players
-                        bubbles.entrySet().removeIf(entry -> {
-                            try {
-                                if (!entry.getKey().isOnline()) {
-                                    DisplayEntityUtil.removeBubbles(entry.getValue());
-                                    return true;
-                                }
-                            } catch (Exception e2) {
-                                plugin.logError("Error cleaning up bubbles for offline player: " + e2.getMessage());
-                                return true; // Remove entry on error
-                            }
-                            return false;
-                        });
+                        updateBubbles();
                     } catch (Exception e2) {
                         plugin.logError("Error in fallback bubble updater: " + e2.getMessage());
                     }
@@ -338,32 +389,7 @@ public class ChatManager {
                     // This will run the updater immediately and then stop
                     Bukkit.getScheduler().runTask(plugin, () -> {
                         try {
-                            // Use Stream API to handle updating bubbles
-                            bubbles.entrySet().stream()
-                                    .filter(entry -> entry.getKey().isOnline() && !entry.getValue().isEmpty())
-                                    .forEach(entry -> {
-                                        try {
-                                            Player player = entry.getKey();
-                                            Location newLoc = player.getLocation().add(0, config.getChatBubblesHeight(), 0);
-                                            DisplayEntityUtil.updateBubblesLocation(entry.getValue(), newLoc);
-                                        } catch (Exception e2) {
-                                            plugin.logError("Error updating bubbles for player " + entry.getKey().getName() + ": " + e2.getMessage());
-                                        }
-                                    });
-
-                            // Clean up bubbles for offline players
-                            bubbles.entrySet().removeIf(entry -> {
-                                try {
-                                    if (!entry.getKey().isOnline()) {
-                                        DisplayEntityUtil.removeBubbles(entry.getValue());
-                                        return true;
-                                    }
-                                } catch (Exception e2) {
-                                    plugin.logError("Error cleaning up bubbles for offline player: " + e2.getMessage());
-                                    return true; // Remove entry on error
-                                }
-                                return false;
-                            });
+                            updateBubbles();
                         } catch (Exception e2) {
                             plugin.logError("Error in immediate bubble updater: " + e2.getMessage());
                         }
@@ -376,6 +402,97 @@ public class ChatManager {
         }
     }
 
+    /**
+     * Queues the player's chat bubble to follow them on the next updater run.
+     * Called from the main thread when the player moves or teleports.
+     *
+     * @param player The player who moved
+     */
+    public void markBubbleMoved(Player player) {
+        ChatBubble bubble = bubbles.get(player);
+        if (bubble != null && !bubble.isQueued()) {
+            bubble.setQueued(true);
+            movedBubbles.add(bubble);
+        }
+    }
+
+    private void updateBubbles() {
+        // Only bubbles whose owner moved are looked at, at most the configured number per tick
+        int budget = config.getChatBubblesUpdatesPerTick();
+        double height = config.getChatBubblesHeight();
+        ChatBubble moved;
+        while (budget > 0 && (moved = movedBubbles.poll()) != null) {
+            moved.setQueued(false);
+            Player owner = moved.getOwner();
+            if (bubbles.get(owner) != moved || !owner.isOnline()) {
+                continue;
+            }
+            try {
+                owner.getLocation(bubbleScratch);
+                if (!moved.isIn(bubbleScratch.getWorld())) {
+                    // Bubbles stay in the world they were spawned in
+                    removeBubble(owner);
+                } else if (moved.hasMoved(bubbleScratch, BUBBLE_MOVE_EPSILON)) {
+                    moved.moveTo(bubbleScratch, height);
+                    budget--;
+                }
+            } catch (Exception e) {
+                plugin.logError("Error updating bubbles for player " + owner.getName() + ": " + e.getMessage());
+            }
+        }
+
+        if (++bubbleTicks % BUBBLE_VIEWER_REFRESH_TICKS != 0) {
+            return;
+        }
+
+        bubbles.values().stream()
+                .filter(bubble -> bubble.getOwner().isOnline() && !bubble.isEmpty())
+                .forEach(bubble -> {
+                    try {
+                        bubble.updateViewers(plugin, findBubbleViewers(bubble.getOwner()));
+                    } catch (Exception e) {
+                        plugin.logError("Error updating bubble viewers for player " + bubble.getOwner().getName() + ": " + e.getMessage());
+                    }
+                });
+
+        // Clean up bubbles for offline players
+        bubbles.entrySet().removeIf(entry -> {
+            try {
+                if (!entry.getKey().isOnline()) {
+                    entry.getValue().remove();
+                    return true;
+                }
+            } catch (Exception e) {
+                plugin.logError("Error cleaning up bubbles for offline player: " + e.getMessage());
+                return true; // Remove entry on error
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Finds the players a bubble above the given player should be shown to
+     * @param owner The player the bubble belongs to
+     * @return Players within bubble view range, owner included
+     */
+    private Collection<Player> findBubbleViewers(Player owner) {
+        List<Player> nearby = spatialIndex.findNearby(owner, DisplayEntityUtil.VIEW_RANGE);
+        if (nearby != null) {
+            return nearby;
+        }
+
+        // Owner not indexed yet, fall back to scanning the world
+        double rangeSquared = DisplayEntityUtil.VIEW_RANGE * DisplayEntityUtil.VIEW_RANGE;
+        Location origin = owner.getLocation();
+        List<Player> result = new ArrayList<>();
+        for (Player candidate : owner.getWorld().getPlayers()) {
+            if (candidate.getLocation().distanceSquared(origin) <= rangeSquared) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
     private void createBubble(Player player, String message) {
         if (player.getGameMode() == GameMode.SPECTATOR) {
             return; // Don't spawn bubble if player is in spectator mode
@@ -384,12 +501,14 @@ public class ChatManager {
         try {
             Location loc = player.getLocation().add(0, config.getChatBubblesHeight(), 0);
 
-            List<TextDisplay> playerBubbles = DisplayEntityUtil.spawnMultilineBubble(player, message, loc, 
+            ChatBubble bubble = ChatBubble.spawn(player, message, loc,
                 config.getChatBubblesScale(), config.getChatBubblesScaleX(), config.getChatBubblesScaleY(), config.getChatBubblesScaleZ());
             
             // Only add bubbles if they were successfully created
-            if (playerBubbles != null && !playerBubbles.isEmpty()) {
-                bubbles.put(player, playerBubbles);
+            if (!bubble.isEmpty()) {
+                bubble.setAnchor(player.getLocation());
+                bubble.updateViewers(plugin, findBubbleViewers(player));
+                bubbles.put(player, bubble);
 
                 try {
                     Bukkit.getScheduler().runTaskLater(plugin, () -> {
@@ -422,9 +541,9 @@ public class ChatManager {
 
     private void removeBubble(Player player) {
         try {
-            List<TextDisplay> playerBubbles = bubbles.remove(player);
-            if (playerBubbles != null) {
-                DisplayEntityUtil.removeBubbles(playerBubbles);
+            ChatBubble bubble = bubbles.remove(player);
+            if (bubble != null) {
+                bubble.remove();
             }
         } catch (Exception e) {
             plugin.logError("Error removing bubbles for player " + player.getName() + ": " + e.getMessage());
@@ -437,45 +556,13 @@ public class ChatManager {
         }
     }
 
-    private boolean handleBlockedWords(Player player, String message) {
-        if (!player.hasPermission("nonchat.antiblockedwords")) {
-            WordBlocker wordBlocker = config.getWordBlocker();
-            // Check blocked words on the message without color codes
-            String messageToCheck = ColorUtil.stripAllColors(message);
-            if (!wordBlocker.isMessageAllowed(messageToCheck)) {
-                player.sendMessage(ColorUtil.parseComponentCached(messages.getString("blocked-words")));
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private void handleMentions(Player sender, String message) {
-        // Find all mentions in the message (strip colors first to avoid false matches)
-        String messageToCheck = ColorUtil.stripAllColors(message);
-        Matcher mentionMatcher = mentionPattern.matcher(messageToCheck);
-
-        // Collect all the names found into a list and process with Stream API
-        List<String> mentionedNames = new ArrayList<>();
-        while (mentionMatcher.find()) {
-            mentionedNames.add(mentionMatcher.group(1));
-        }
-
-        // Process the mentions using Stream API
-        mentionedNames.stream()
-                .map(Bukkit::getPlayer)
-                .filter(java.util.Objects::nonNull)
-                .filter(Player::isOnline)
-                .forEach(player -> notifyMentionedPlayer(player, sender));
-    }
-
     private void notifyMentionedPlayer(Player mentioned, Player sender) {
         String mentionMessage = messages.getString("mentioned");
 
         // Apply PlaceholderAPI to mention message
         if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
             try {
-                mentionMessage = PlaceholderAPI.setPlaceholders(sender, mentionMessage);
+                mentionMessage = PlaceholderResolver.setPlaceholders(sender, mentionMessage);
             } catch (Exception e) {
                 plugin.logError("Error processing mention message placeholders: " + e.getMessage());
             }
@@ -499,30 +586,66 @@ public class ChatManager {
     }
 
     /**
-     * Processes mention coloring in a message for the sender's view
+     * Finds @name mentions of online players and optionally colors them
      * @param message The message to process
-     * @return The message with colored mentions
+     * @param color Whether to color the mentions
+     * @param mentioned Receives every mentioned online player, each once
+     * @return The message with colored mentions, or the message itself if nothing changed
      */
-    private String processMentionColoring(String message) {
-        String mentionColor = config.getMentionColor();
-        Matcher mentionMatcher = mentionPattern.matcher(message);
-
-        // Use StringBuilder for efficient string manipulation
-        StringBuilder coloredMessage = new StringBuilder();
+    private String processMentions(String message, boolean color, Set<Player> mentioned) {
+        String mentionColor = color ? config.getMentionColor() : null;
+        StringBuilder coloredMessage = null;
         int lastEnd = 0;
 
-        while (mentionMatcher.find()) {
-            // Add text before the mention
-            coloredMessage.append(message.substring(lastEnd, mentionMatcher.start()));
-            // Add the colored mention with reset after it
-            coloredMessage.append(mentionColor).append(mentionMatcher.group(0)).append("&r");
-            lastEnd = mentionMatcher.end();
+        int at = message.indexOf('@');
+        while (at >= 0) {
+            int end = at + 1;
+            // Only built when colour codes are mixed into the name, e.g. @&aSteve
+            StringBuilder name = null;
+            while (end < message.length()) {
+                int codeLength = ScannedMessage.colorCodeLength(message, end);
+                if (codeLength > 0) {
+                    if (name == null) {
+                        name = new StringBuilder(end - at + 16).append(message, at + 1, end);
+                    }
+                    end += codeLength;
+                } else if (isNameChar(message.charAt(end))) {
+                    if (name != null) {
+                        name.append(message.charAt(end));
+                    }
+                    end++;
+                } else {
+                    break;
+                }
+            }
+
+            // Only exact names of online players count as mentions
+            String token = name != null ? name.toString() : message.substring(at + 1, end);
+            Player target = token.isEmpty() ? null : nameIndex.get(token);
+            if (target != null) {
+                mentioned.add(target);
+                if (color) {
+                    if (coloredMessage == null) {
+                        coloredMessage = new StringBuilder(message.length() + 16);
+                    }
+                    // Add the text before the mention, then the colored mention with reset after it
+                    coloredMessage.append(message, lastEnd, at)
+                            .append(mentionColor).append(message, at, end).append("&r");
+                    lastEnd = end;
+                }
+            }
+            at = message.indexOf('@', end);
         }
 
+        if (coloredMessage == null) {
+            return message;
+        }
         // Add remaining text after the last mention
-        coloredMessage.append(message.substring(lastEnd));
+        return coloredMessage.append(message, lastEnd, message.length()).toString();
+    }
 
-        return coloredMessage.toString();
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
     }
 
     /**
@@ -532,44 +655,77 @@ public class ChatManager {
      * @param sender The player sending the message
      * @param message The formatted message component
      * @param channel The channel being used
-     * @param originalMessage The original message content
      * @return true if the message was delivered to at least one player, false
      * otherwise
      */
-    private boolean broadcastMessage(Player sender, Component message, Channel channel, String originalMessage) {
-        // For console, create a simple message without our color modifications to avoid &f appearing
-        String consoleFormat = channel.getFormat().replace("{message}", originalMessage);
-        
-        // Apply PlaceholderAPI for console
-        if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
-            try {
-                consoleFormat = PlaceholderAPI.setPlaceholders(sender, consoleFormat);
-            } catch (Exception e) {
-                plugin.logError("Error processing format placeholders for console: " + e.getMessage());
+    private boolean broadcastMessage(Player sender, Component message, Channel channel) {
+        long started = ChatStats.start();
+        try {
+            int recipientCount = deliverToRecipients(sender, message, channel);
+            deliveredCounter.add(recipientCount);
+
+            // Return true if at least one player (other than sender) received the message
+            // If the player is alone in the server, consider it delivered to avoid confusion
+            if (Bukkit.getOnlinePlayers().size() == 1) {
+                return true;
             }
+            return recipientCount > 1;
+        } finally {
+            broadcastTimer.stop(started);
         }
-        
-        // Send to console with processed format
-        Bukkit.getConsoleSender().sendMessage(ColorUtil.parseComponent(consoleFormat));
-
-        // Count how many players received the message
-        long recipientCount = Bukkit.getOnlinePlayers().stream()
-                // Skip players ignoring the sender
-                .filter(recipient -> ignoreCommand == null || !ignoreCommand.isIgnoring(recipient, sender))
-                // Check channel-specific conditions
-                .filter(recipient -> channel.canReceive(recipient))
-                // Check for local channels, also check range
-                .filter(recipient -> channel.isGlobal() || channel.isInRange(sender, recipient))
-                // Send message to filtered recipients and count them
-                .peek(recipient -> recipient.sendMessage(message, ChatType.CHAT.bind(sender.displayName())))
-                .count();
-
-        // Return true if at least one player (other than sender) received the message
-        // If the player is alone in the server, consider it delivered to avoid confusion
-        if (Bukkit.getOnlinePlayers().size() == 1) {
-            return true;
+    }
+
+    /**
+     * Sends a message to the console and every eligible recipient
+     *
+     * @param sender The player who sent the message
+     * @param message The formatted message component
+     * @param channel The channel the message was sent in
+     * @return Number of players that received the message
+     */
+    private int deliverToRecipients(Player sender, Component message, Channel channel) {
+        // Console output is written in the background from the rendered message
+        chatLog.log(message, true);
+
+        // Ranged channels only look at players near the sender
+        Collection<? extends Player> candidates = null;
+        boolean ranged = !channel.isGlobal() && !channel.isWorldSpecific();
+        if (ranged) {
+            candidates = spatialIndex.findNearby(sender, channel.getRadius());
         }
-        return recipientCount > 1;
+        // Sender not indexed yet (joined this tick), fall back to checking everyone
+        boolean checkRange = candidates == null;
+        if (candidates == null) {
+            candidates = Bukkit.getOnlinePlayers();
+        }
+
+        // Everyone ignoring the sender, resolved once instead of per recipient
+        Set<UUID> ignorers = ignoreCommand != null ? ignoreCommand.getIgnoredBy(sender) : Collections.emptySet();
+
+        // Resolve every recipient in one pass before sending anything
+        List<Player> recipients = new ArrayList<>(candidates.size());
+        for (Player recipient : candidates) {
+            // Index snapshots can be a tick old
+            if (!recipient.isOnline()) {
+                continue;
+            }
+            // Skip players ignoring the sender
+            if (ignorers.contains(recipient.getUniqueId())) {
+                continue;
+            }
+            // Check channel-specific conditions
+            if (!channel.canReceive(recipient)) {
+                continue;
+            }
+            // Check for local channels, also check range
+            if (checkRange && !channel.isGlobal() && !channel.isInRange(sender, recipient)) {
+                continue;
+            }
+            recipients.add(recipient);
+        }
+
+        // The chat type is bound once and the same component goes to every recipient
+        return delivery.deliver(recipients, message, ChatType.CHAT.bind(sender.displayName()));
     }
 
     /**
@@ -579,7 +735,7 @@ public class ChatManager {
      * @return The channel, or null if not found
      */
     private Channel findChannelByChar(char c) {
-        return channelManager.findChannelByPrefix(String.valueOf(c)).orElse(null);
+        return channelManager.getChannelByPrefixChar(c);
     }
 
     /**
@@ -722,6 +878,18 @@ public class ChatManager {
         return channelManager;
     }
 
+    public ChatPipeline getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * Gets the online player name index used for mentions
+     * @return Name index
+     */
+    public PlayerNameIndex getNameIndex() {
+        return nameIndex;
+    }
+
     /**
      * Sets the ignore command instance.
      *
@@ -735,8 +903,13 @@ public class ChatManager {
      * Cleanup method to remove all bubbles when plugin is disabled
      */
     public void cleanup() {
-        bubbles.values().forEach(DisplayEntityUtil::removeBubbles);
+        bubbles.values().forEach(ChatBubble::remove);
         bubbles.clear();
-        playerLocks.clear();
+        movedBubbles.clear();
+        pipeline.shutdown();
+        delivery.shutdown();
+        chatLog.shutdown();
+        spatialIndex.stop();
+        nameIndex.stop();
     }
 }
@@ -14,6 +14,7 @@ import com.nonxedy.nonchat.config.PluginConfig;
 import com.nonxedy.nonchat.config.PluginMessages;
 import com.nonxedy.nonchat.util.chat.formatting.PrivateMessageUtil;
 import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+import com.nonxedy.nonchat.util.core.permissions.PermissionCache;
 
 import net.kyori.adventure.text.Component;
 
@@ -61,7 +62,7 @@ public class MessageManager {
         lastMessageSender.put(receiver.getUniqueId(), sender.getUniqueId());
 
         // Process message with color permission for sender
-        String processedMessage = sender.hasPermission("nonchat.color") ? message : ColorUtil.stripAllColors(message);
+        String processedMessage = PermissionCache.has(sender, PermissionCache.COLOR) ? message : ColorUtil.stripAllColors(message);
 
         // Create and send enhanced formatted messages using new utility
         Component senderMessage = PrivateMessageUtil.createSenderMessage(config, sender, receiver, processedMessage);
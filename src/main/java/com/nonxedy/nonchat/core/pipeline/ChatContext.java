@@ -0,0 +1,62 @@
+package com.nonxedy.nonchat.core.pipeline;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.entity.Player;
+
+import com.nonxedy.nonchat.api.Channel;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.kyori.adventure.text.Component;
+
+/**
+ * Per-message state carried through the chat pipeline stages
+ */
+@Getter
+@Setter
+public class ChatContext {
+    private static final int PENDING = 0;
+    private static final int NATIVE = 1;
+    private static final int DETACHED = 2;
+
+    private final Player player;
+    private final String rawMessage;
+    private final CompletableFuture<Component> result = new CompletableFuture<>();
+    private final AtomicInteger deliveryMode = new AtomicInteger(PENDING);
+
+    /** Current message text, updated as stages strip colours or prefixes */
+    private String message;
+    /** Channel matched by the chat listener, confirmed or resolved by the route stage */
+    private Channel channel;
+    /** Message after channel prefix removal and API processors */
+    private String processedMessage;
+    /** Message as shown to recipients (mention colouring applied) */
+    private String messageToSend;
+    /** Fully formatted component produced by the render stage */
+    private Component formatted;
+
+    public ChatContext(Player player, String rawMessage) {
+        this.player = player;
+        this.rawMessage = rawMessage;
+        this.message = rawMessage;
+    }
+
+    /**
+     * Claims native delivery through the chat event for this message.
+     * Fails if the caller stopped waiting, in which case the pipeline must deliver manually.
+     * @return true if the event will deliver the returned component
+     */
+    public boolean claimNativeDelivery() {
+        return deliveryMode.compareAndSet(PENDING, NATIVE);
+    }
+
+    /**
+     * Marks this message as no longer awaited by the chat event
+     * @return true if detached, false if native delivery was already claimed
+     */
+    public boolean detach() {
+        return deliveryMode.compareAndSet(PENDING, DETACHED);
+    }
+}
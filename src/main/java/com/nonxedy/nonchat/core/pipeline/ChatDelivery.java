@@ -0,0 +1,114 @@
+package com.nonxedy.nonchat.core.pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.entity.Player;
+
+import com.nonxedy.nonchat.Nonchat;
+import com.nonxedy.nonchat.config.PluginConfig;
+import com.nonxedy.nonchat.util.core.stats.ChatStats;
+
+import net.kyori.adventure.chat.ChatType;
+import net.kyori.adventure.text.Component;
+
+/**
+ * Final fan-out of a rendered message to its resolved recipients.
+ * Small recipient lists are sent on the calling pipeline thread. Large ones are split into
+ * fixed-size batches, the first sent by the caller and the rest on a small bounded executor,
+ * and the call returns once every batch is done so delivery counts stay exact.
+ */
+public class ChatDelivery {
+    private final Nonchat plugin;
+    private final int batchSize;
+    private final ExecutorService executor;
+    private final ChatStats.Timer sendTimer = ChatStats.timer("delivery_send");
+    private final ChatStats.Counter batchCounter = ChatStats.counter("delivery_batches");
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    public ChatDelivery(Nonchat plugin, PluginConfig config) {
+        this.plugin = plugin;
+        this.batchSize = config.getDeliveryBatchSize();
+        this.executor = Executors.newFixedThreadPool(config.getDeliveryThreads(), r -> {
+            Thread thread = new Thread(r, "nonchat-delivery-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sends a message to every recipient
+     * @param recipients Resolved recipients, not modified
+     * @param message Final message component
+     * @param chatType Chat type already bound to the sender
+     * @return Number of players the message was sent to
+     */
+    public int deliver(List<Player> recipients, Component message, ChatType.Bound chatType) {
+        long started = ChatStats.start();
+        try {
+            int size = recipients.size();
+            if (size <= batchSize) {
+                return send(recipients, message, chatType);
+            }
+
+            List<CompletableFuture<Integer>> batches = new ArrayList<>();
+            for (int from = batchSize; from < size; from += batchSize) {
+                List<Player> batch = recipients.subList(from, Math.min(from + batchSize, size));
+                try {
+                    batches.add(CompletableFuture.supplyAsync(() -> send(batch, message, chatType), executor));
+                } catch (RejectedExecutionException e) {
+                    // Shutting down, finish on this thread
+                    batches.add(CompletableFuture.completedFuture(send(batch, message, chatType)));
+                }
+            }
+
+            int delivered = send(recipients.subList(0, batchSize), message, chatType);
+            for (CompletableFuture<Integer> batch : batches) {
+                try {
+                    delivered += batch.join();
+                } catch (CompletionException e) {
+                    plugin.logError("Error delivering chat batch: " + e.getCause().getMessage());
+                }
+            }
+            batchCounter.add(batches.size() + 1);
+            return delivered;
+        } finally {
+            sendTimer.stop(started);
+        }
+    }
+
+    /**
+     * Stops the delivery threads, waiting briefly for batches in flight
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(2, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int send(List<Player> batch, Component message, ChatType.Bound chatType) {
+        int delivered = 0;
+        for (Player recipient : batch) {
+            try {
+                recipient.sendMessage(message, chatType);
+                delivered++;
+            } catch (Exception e) {
+                plugin.logError("Error sending chat message to " + recipient.getName() + ": " + e.getMessage());
+            }
+        }
+        return delivered;
+    }
+}
@@ -0,0 +1,191 @@
+package com.nonxedy.nonchat.core.pipeline;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
+
+import com.nonxedy.nonchat.Nonchat;
+import com.nonxedy.nonchat.config.PluginConfig;
+import com.nonxedy.nonchat.util.core.stats.ChatStats;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+
+/**
+ * Writes delivered chat lines to the console and, optionally, to a daily plain-text chat log.
+ * Chat threads only add the already rendered component to a bounded queue; a single background
+ * thread turns queued lines into plain text and writes them in batches. When the queue is full
+ * new lines are dropped and counted instead of slowing down delivery.
+ */
+public class ChatLogSink {
+    private static final int BATCH_SIZE = 256;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final Nonchat plugin;
+    private final PluginConfig config;
+    private final BlockingQueue<Entry> queue;
+    private final File logsFolder;
+    private final Thread writer;
+    private final ChatStats.Timer writeTimer = ChatStats.timer("chat_log_write");
+    private final ChatStats.Counter writtenCounter = ChatStats.counter("chat_log_written");
+    private final ChatStats.Counter droppedCounter = ChatStats.counter("chat_log_dropped");
+    private volatile boolean running = true;
+    private BufferedWriter file;
+    private LocalDate fileDate;
+
+    public ChatLogSink(Nonchat plugin, PluginConfig config) {
+        this.plugin = plugin;
+        this.config = config;
+        this.queue = new ArrayBlockingQueue<>(config.getChatLogQueueSize());
+        this.logsFolder = new File(plugin.getDataFolder(), "chat_logs");
+        ChatStats.gauge("chat_log_queue", queue::size);
+        this.writer = new Thread(this::run, "nonchat-chat-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a delivered message for logging
+     * @param message Rendered message component
+     * @param console Whether to print it to the console, false when the server already logs it
+     */
+    public void log(Component message, boolean console) {
+        if (!running || (!console && !config.isChatLogFileEnabled())) {
+            return;
+        }
+        if (!queue.offer(new Entry(message, console))) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Stops the writer after it has written what is still queued
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            writer.join(2000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            writer.interrupt();
+        }
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (running || !queue.isEmpty()) {
+                Entry first = queue.poll(500L, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeFile();
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        long started = ChatStats.start();
+        boolean toConsole = config.isChatLogConsoleEnabled();
+        boolean toFile = config.isChatLogFileEnabled();
+        StringBuilder consoleLines = new StringBuilder();
+        List<String> fileLines = new ArrayList<>(batch.size());
+
+        for (Entry entry : batch) {
+            String line = PlainTextComponentSerializer.plainText().serialize(entry.message);
+            if (toConsole && entry.console) {
+                if (consoleLines.length() > 0) {
+                    consoleLines.append('\n');
+                }
+                consoleLines.append(line);
+            }
+            if (toFile) {
+                fileLines.add(line);
+            }
+        }
+
+        if (consoleLines.length() > 0) {
+            Bukkit.getConsoleSender().sendMessage(consoleLines.toString());
+        }
+        if (!fileLines.isEmpty()) {
+            writeFile(fileLines);
+        }
+        writtenCounter.add(batch.size());
+        writeTimer.stop(started);
+    }
+
+    private void writeFile(List<String> lines) {
+        try {
+            LocalDate today = LocalDate.now();
+            if (file == null || !today.equals(fileDate)) {
+                closeFile();
+                logsFolder.mkdirs();
+                File logFile = new File(logsFolder, "chat_" + today.format(DATE_FORMAT) + ".log");
+                file = Files.newBufferedWriter(logFile.toPath(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                fileDate = today;
+            }
+
+            String time = "[" + LocalTime.now().format(TIME_FORMAT) + "] ";
+            for (String line : lines) {
+                file.write(time);
+                file.write(line);
+                file.newLine();
+            }
+            file.flush();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to write chat log: {0}", e.getMessage());
+            closeFile();
+        }
+    }
+
+    private void closeFile() {
+        if (file == null) {
+            return;
+        }
+        try {
+            file.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.FINE, "Failed to close chat log: {0}", e.getMessage());
+        }
+        file = null;
+        fileDate = null;
+    }
+
+    /**
+     * One queued chat line
+     */
+    private static final class Entry {
+        private final Component message;
+        private final boolean console;
+
+        private Entry(Component message, boolean console) {
+            this.message = message;
+            this.console = console;
+        }
+    }
+}
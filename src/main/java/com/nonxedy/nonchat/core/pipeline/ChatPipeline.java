@@ -0,0 +1,236 @@
+package com.nonxedy.nonchat.core.pipeline;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.entity.Player;
+
+import com.nonxedy.nonchat.Nonchat;
+import com.nonxedy.nonchat.api.Channel;
+import com.nonxedy.nonchat.config.PluginConfig;
+import com.nonxedy.nonchat.util.core.stats.ChatStats;
+import com.nonxedy.nonchat.util.integration.external.PlaceholderResolver;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Staged chat pipeline.
+ * Messages from one player are processed strictly in order through a bounded per-player lane,
+ * while lanes of different players drain in parallel on a dedicated executor. No locks are held
+ * while a message moves through the stages.
+ */
+public class ChatPipeline {
+
+    /**
+     * Runs a single stage for a message
+     */
+    @FunctionalInterface
+    public interface StageHandler {
+        /**
+         * Handles the given stage for the message
+         * @param stage Stage being executed
+         * @param context Message context
+         * @return true to continue with the next stage, false to stop processing
+         */
+        boolean handle(ChatStage stage, ChatContext context);
+    }
+
+    private final Nonchat plugin;
+    private final PluginConfig config;
+    private final StageHandler handler;
+    private final ExecutorService executor;
+    private final Map<UUID, Lane> lanes = new ConcurrentHashMap<>();
+    private final Map<ChatStage, AtomicInteger> stageDepth = new EnumMap<>(ChatStage.class);
+    private final Map<ChatStage, ChatStats.Timer> stageTimers = new EnumMap<>(ChatStage.class);
+    private final ChatStats.Timer totalTimer = ChatStats.timer("pipeline_total");
+    private final ChatStats.Counter processedCounter = ChatStats.counter("messages_processed");
+    private final ChatStats.Counter cancelledCounter = ChatStats.counter("messages_cancelled");
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    public ChatPipeline(Nonchat plugin, PluginConfig config, StageHandler handler) {
+        this.plugin = plugin;
+        this.config = config;
+        this.handler = handler;
+        for (ChatStage stage : ChatStage.values()) {
+            stageDepth.put(stage, new AtomicInteger());
+            stageTimers.put(stage, ChatStats.timer("stage_" + stage.name().toLowerCase()));
+        }
+        this.executor = Executors.newFixedThreadPool(config.getChatPipelineThreads(), r -> {
+            Thread thread = new Thread(r, "nonchat-chat-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a message for processing
+     * @param player Sending player
+     * @param message Raw message
+     * @param routedChannel Channel already matched from the message prefix, or null
+     * @return Message context, or null if the player's lane is full or the pipeline is shut down
+     */
+    public ChatContext submit(Player player, String message, Channel routedChannel) {
+        Lane lane = lanes.computeIfAbsent(player.getUniqueId(), id -> new Lane());
+        if (lane.size.incrementAndGet() > config.getChatPipelineQueueSize()) {
+            lane.size.decrementAndGet();
+            return null;
+        }
+
+        ChatContext context = new ChatContext(player, message);
+        context.setChannel(routedChannel);
+        lane.queue.offer(context);
+        queued.incrementAndGet();
+        schedule(player.getUniqueId(), lane);
+        return context;
+    }
+
+    /**
+     * Waits for a message to finish the render stage
+     * @param context Context returned by {@link #submit}
+     * @return Component for native delivery, or null if the message was cancelled,
+     *         delivered manually or did not finish in time
+     */
+    public Component await(ChatContext context) {
+        try {
+            return context.getResult().get(config.getChatPipelineTimeout(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (context.detach()) {
+                plugin.logError("Chat pipeline timed out for " + context.getPlayer().getName() + ", delivering asynchronously");
+                return null;
+            }
+            // Native delivery was claimed just before the timeout, the result is imminent
+            return context.getResult().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            context.detach();
+            return null;
+        } catch (ExecutionException e) {
+            plugin.logError("Error processing chat message: " + e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    private void schedule(UUID playerId, Lane lane) {
+        if (!lane.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(playerId, lane));
+        } catch (RejectedExecutionException e) {
+            lane.draining.set(false);
+            ChatContext context;
+            while ((context = lane.queue.poll()) != null) {
+                lane.size.decrementAndGet();
+                queued.decrementAndGet();
+                context.getResult().complete(null);
+            }
+        }
+    }
+
+    private void drain(UUID playerId, Lane lane) {
+        ChatContext context;
+        while ((context = lane.queue.poll()) != null) {
+            queued.decrementAndGet();
+            try {
+                run(context);
+            } finally {
+                lane.size.decrementAndGet();
+            }
+        }
+
+        lane.draining.set(false);
+        // A message may have been queued between the last poll and releasing the lane
+        if (!lane.queue.isEmpty()) {
+            schedule(playerId, lane);
+        } else if (lane.size.get() == 0 && !isOnline(playerId)) {
+            lanes.remove(playerId, lane);
+        }
+    }
+
+    private void run(ChatContext context) {
+        long started = ChatStats.start();
+        // Each placeholder is resolved at most once while the message passes through the stages
+        PlaceholderResolver.beginMessage();
+        try {
+            for (ChatStage stage : ChatStage.values()) {
+                AtomicInteger depth = stageDepth.get(stage);
+                depth.incrementAndGet();
+                long stageStarted = ChatStats.start();
+                try {
+                    if (!handler.handle(stage, context)) {
+                        cancelledCounter.increment();
+                        break;
+                    }
+                } finally {
+                    stageTimers.get(stage).stop(stageStarted);
+                    depth.decrementAndGet();
+                }
+            }
+        } catch (Exception e) {
+            plugin.logError("Error in chat pipeline for " + context.getPlayer().getName() + ": " + e.getMessage());
+        } finally {
+            // Any path that did not hand a component to the event resolves to null
+            context.getResult().complete(null);
+            PlaceholderResolver.endMessage();
+            processedCounter.increment();
+            totalTimer.stop(started);
+        }
+    }
+
+    private boolean isOnline(UUID playerId) {
+        Player player = plugin.getServer().getPlayer(playerId);
+        return player != null && player.isOnline();
+    }
+
+    /**
+     * Gets the number of messages currently inside a stage
+     * @param stage Pipeline stage
+     * @return Current depth
+     */
+    public int getStageDepth(ChatStage stage) {
+        return stageDepth.get(stage).get();
+    }
+
+    /**
+     * Gets the number of messages waiting in player lanes
+     * @return Queued message count
+     */
+    public int getQueuedMessages() {
+        return queued.get();
+    }
+
+    /**
+     * Stops accepting work and waits briefly for queued messages to finish
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(2, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        lanes.clear();
+    }
+
+    private static class Lane {
+        private final Queue<ChatContext> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+    }
+}
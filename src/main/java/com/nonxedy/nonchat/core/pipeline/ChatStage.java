@@ -0,0 +1,26 @@
+package com.nonxedy.nonchat.core.pipeline;
+
+/**
+ * Ordered stages every chat message passes through.
+ * A message either runs through all stages or stops at the first one that rejects it.
+ */
+public enum ChatStage {
+    /** Basic sanity checks: sender still online, message not empty or blank */
+    VALIDATE,
+    /** Moderation filters: blocked words, caps, spam, advertisements, colour permission */
+    FILTER,
+    /** Channel resolution, permission, length, cooldown and API filters/processors */
+    ROUTE,
+    /** Mentions, chat bubbles and component formatting */
+    RENDER,
+    /** Hand-off to the native event or manual broadcast to recipients */
+    DELIVER;
+
+    /**
+     * Gets the lowercase identifier used in stats output
+     * @return Stage identifier
+     */
+    public String id() {
+        return name().toLowerCase();
+    }
+}
@@ -1,233 +1,355 @@
 package com.nonxedy.nonchat.database;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
+import org.bukkit.Bukkit;
+
 import com.nonxedy.nonchat.Nonchat;
 import com.nonxedy.nonchat.config.DatabaseConfig;
-import com.zaxxer.hikari.HikariConfig;
-import com.zaxxer.hikari.HikariDataSource;
+import com.nonxedy.nonchat.util.core.stats.ChatStats;
 
+/**
+ * Entry point for everything nonchat stores. Buffers player writes, caches loaded player data,
+ * records stats and logs failures, and hands the actual reads and writes to the
+ * {@link StorageProvider} selected by the type in database.yml.
+ */
 public class DatabaseManager {
+    /** Storage types accepted in database.yml and by the migrate command */
+    public static final List<String> STORAGE_TYPES = List.of("mariadb", "sqlite");
+
+    // Profiles preloaded for players who never made it to the server are dropped after this long
+    private static final long STALE_PROFILE_MILLIS = 60_000L;
 
     private final Nonchat plugin;
     private final DatabaseConfig config;
-    private HikariDataSource dataSource;
+    private StorageProvider storage;
+    private final ChatStats.Timer readTimer = ChatStats.timer("db_read");
+    private final ChatStats.Timer writeTimer = ChatStats.timer("db_write");
+    private final ChatStats.Timer migrateTimer = ChatStats.timer("db_migrate");
+    private final ChatStats.Counter errorCounter = ChatStats.counter("db_errors");
+    private final WriteBehindQueue writeQueue;
+    private final Map<UUID, CompletableFuture<PlayerData>> playerData = new ConcurrentHashMap<>();
 
     public DatabaseManager(Nonchat plugin, DatabaseConfig config) {
         this.plugin = plugin;
         this.config = config;
+        this.writeQueue = new WriteBehindQueue(plugin, this::writeBatch);
     }
 
-    public void initialize() {
-        HikariConfig hikariConfig = new HikariConfig();
-        hikariConfig.setJdbcUrl("jdbc:mariadb://" + config.getHost() + ":" + config.getPort() + "/" + config.getDatabase());
-        hikariConfig.setUsername(config.getUsername());
-        hikariConfig.setPassword(config.getPassword());
-        hikariConfig.setDriverClassName("org.mariadb.jdbc.Driver");
-        
-        // Recommended settings
-        hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
-        hikariConfig.addDataSourceProperty("prepStmtCacheSize", "250");
-        hikariConfig.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-
-        dataSource = new HikariDataSource(hikariConfig);
-        
-        createTables();
+    /**
+     * Opens the storage backend selected in database.yml
+     * @throws SQLException if the backend cannot be reached
+     */
+    public void initialize() throws SQLException {
+        storage = createStorage(config.getType());
+        storage.open();
+        writeQueue.start(config.getWriteBatchSize(), Math.max(1L, config.getWriteFlushInterval() / 50L));
     }
 
     public void close() {
-        if (dataSource != null && !dataSource.isClosed()) {
-            dataSource.close();
+        if (storage != null && storage.isOpen()) {
+            // Queued writes go out before the backend is closed
+            writeQueue.stop();
+            storage.close();
         }
     }
 
-    private Connection getConnection() throws SQLException {
-        return dataSource.getConnection();
-    }
-
-    private void createTables() {
-        try (Connection connection = getConnection()) {
-            try (Statement stmt = connection.createStatement()) {
-                // Player Tags Table
-                stmt.execute("CREATE TABLE IF NOT EXISTS nonchat_player_tags (" +
-                        "uuid VARCHAR(36) NOT NULL," +
-                        "category VARCHAR(64) NOT NULL," +
-                        "tag_id VARCHAR(64) NOT NULL," +
-                        "PRIMARY KEY (uuid, category))");
-                        
-                // Tag Configs Table (Sync)
-                stmt.execute("CREATE TABLE IF NOT EXISTS nonchat_tag_configs (" +
-                        "category_id VARCHAR(64) NOT NULL," +
-                        "config_data LONGTEXT NOT NULL," +
-                        "PRIMARY KEY (category_id))");
-                        
-                // Player Settings Table
-                stmt.execute("CREATE TABLE IF NOT EXISTS nonchat_player_settings (" +
-                        "uuid VARCHAR(36) NOT NULL," +
-                        "setting_key VARCHAR(64) NOT NULL," +
-                        "setting_value VARCHAR(255) NOT NULL," +
-                        "PRIMARY KEY (uuid, setting_key))");
+    /**
+     * Creates a storage backend without opening it
+     * @param type Storage type, one of {@link #STORAGE_TYPES}
+     * @return The backend
+     * @throws IllegalArgumentException if the type is unknown
+     */
+    private StorageProvider createStorage(String type) {
+        return switch (type) {
+            case "mariadb" -> new MariaDbStorage(plugin, config);
+            case "sqlite" -> new SqliteStorage(plugin, config);
+            default -> throw new IllegalArgumentException("Unknown storage type: " + type);
+        };
+    }
+
+    /**
+     * Gets the type of the open storage backend
+     * @return Storage type, e.g. mariadb or sqlite
+     */
+    public String getStorageType() {
+        return storage != null ? storage.getType() : config.getType();
+    }
+
+    /**
+     * Copies every table of the open backend into another backend, replacing what the target held.
+     * Queued writes are flushed first. Blocks until done, so it must not run on the main thread.
+     * @param type Target storage type, one of {@link #STORAGE_TYPES}
+     * @return Number of rows copied
+     * @throws SQLException if reading or writing fails
+     * @throws IllegalArgumentException if the type is unknown
+     */
+    public int migrateTo(String type) throws SQLException {
+        writeQueue.flush();
+        StorageProvider target = createStorage(type);
+        long started = ChatStats.start();
+        try {
+            target.open();
+            int copied = 0;
+            for (StorageTable table : StorageTable.values()) {
+                List<String[]> rows = storage.exportRows(table);
+                target.importRows(table, rows);
+                copied += rows.size();
             }
+            return copied;
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not create database tables", e);
+            errorCounter.increment();
+            throw e;
+        } finally {
+            target.close();
+            migrateTimer.stop(started);
         }
     }
-    
-    // --- Player Settings Methods ---
-    
-    public void savePlayerSetting(String uuid, String key, String value) {
-        try (Connection connection = getConnection();
-             PreparedStatement stmt = connection.prepareStatement(
-                     "INSERT INTO nonchat_player_settings (uuid, setting_key, setting_value) VALUES (?, ?, ?) " +
-                     "ON DUPLICATE KEY UPDATE setting_value = ?")) {
-            stmt.setString(1, uuid);
-            stmt.setString(2, key);
-            stmt.setString(3, value);
-            stmt.setString(4, value);
-            stmt.executeUpdate();
+
+    /**
+     * Writes every queued player setting, tag and ignore list change on the calling thread
+     */
+    public void flushWrites() {
+        writeQueue.flush();
+    }
+
+    /**
+     * Writes the queued player setting, tag and ignore list changes of one player on the calling thread
+     * @param uuid Player UUID
+     */
+    public void flushWrites(String uuid) {
+        writeQueue.flush(uuid);
+    }
+
+    // --- Player Data Methods ---
+
+    /**
+     * Reads everything stored for a player with one query per table
+     * @param uuid Player UUID
+     * @return The profile, with queued writes not stored yet applied on top
+     */
+    public PlayerData loadPlayerData(UUID uuid) {
+        String id = uuid.toString();
+        Map<String, String> tags = new HashMap<>();
+        Map<String, String> settings = new HashMap<>();
+        Set<String> ignored = new HashSet<>();
+
+        long started = ChatStats.start();
+        try {
+            storage.loadPlayer(id, tags, settings, ignored);
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not save player setting: " + key, e);
+            errorCounter.increment();
+            plugin.getLogger().log(Level.SEVERE, "Could not load player data", e);
+        } finally {
+            readTimer.stop(started);
         }
-    }
-    
-    public String loadPlayerSetting(String uuid, String key) {
-        try (Connection connection = getConnection();
-             PreparedStatement stmt = connection.prepareStatement(
-                     "SELECT setting_value FROM nonchat_player_settings WHERE uuid = ? AND setting_key = ?")) {
-            stmt.setString(1, uuid);
-            stmt.setString(2, key);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("setting_value");
+
+        writeQueue.getPending(id).forEach((key, write) -> {
+            if (key.getKind() == WriteBehindQueue.Kind.IGNORE) {
+                if (write.isDelete()) {
+                    ignored.remove(key.getKey());
+                } else {
+                    ignored.add(key.getKey());
                 }
+                return;
             }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not load player setting: " + key, e);
-        }
-        return null;
+            Map<String, String> target = key.getKind() == WriteBehindQueue.Kind.TAG ? tags : settings;
+            if (write.isDelete()) {
+                target.remove(key.getKey());
+            } else {
+                target.put(key.getKey(), write.getValue());
+            }
+        });
+        return new PlayerData(uuid, tags, settings, ignored);
+    }
+
+    /**
+     * Loads a joining player's profile on the calling thread, meant for the async pre-login event
+     * @param uuid Player UUID
+     */
+    public void preloadPlayerData(UUID uuid) {
+        long cutoff = System.currentTimeMillis() - STALE_PROFILE_MILLIS;
+        playerData.entrySet().removeIf(entry -> {
+            PlayerData profile = entry.getValue().getNow(null);
+            return profile != null && profile.getLoadedAt() < cutoff && Bukkit.getPlayer(entry.getKey()) == null;
+        });
+        playerData.put(uuid, CompletableFuture.completedFuture(loadPlayerData(uuid)));
+    }
+
+    /**
+     * Gets a player's profile, loading it in the background if it was not preloaded
+     * (e.g. players already online during a reload)
+     * @param uuid Player UUID
+     * @return Future completed with the profile, already completed if it was preloaded
+     */
+    public CompletableFuture<PlayerData> getPlayerData(UUID uuid) {
+        return playerData.computeIfAbsent(uuid, id -> CompletableFuture.supplyAsync(() -> loadPlayerData(id)));
+    }
+
+    /**
+     * Drops a player's profile once they left
+     * @param uuid Player UUID
+     */
+    public void releasePlayerData(UUID uuid) {
+        playerData.remove(uuid);
+    }
+
+    // --- Player Settings Methods ---
+    
+    /**
+     * Queues a player setting for the next batched write
+     * @param uuid Player UUID
+     * @param key Setting key
+     * @param value Setting value
+     */
+    public void savePlayerSetting(String uuid, String key, String value) {
+        writeQueue.put(WriteBehindQueue.Kind.SETTING, uuid, key, value);
     }
     
     // --- Config Sync Methods ---
     
+    /**
+     * Stores a tag category and raises its version, so other servers pick it up
+     * @param category Category id
+     * @param data Category YAML
+     */
     public void saveTagConfig(String category, String data) {
-        try (Connection connection = getConnection();
-             PreparedStatement stmt = connection.prepareStatement(
-                     "INSERT INTO nonchat_tag_configs (category_id, config_data) VALUES (?, ?) " +
-                     "ON DUPLICATE KEY UPDATE config_data = ?")) {
-            stmt.setString(1, category);
-            stmt.setString(2, data);
-            stmt.setString(3, data);
-            stmt.executeUpdate();
+        long started = ChatStats.start();
+        try {
+            storage.saveTagConfig(category, data);
         } catch (SQLException e) {
+            errorCounter.increment();
             plugin.getLogger().log(Level.SEVERE, "Could not save tag config for " + category, e);
+        } finally {
+            writeTimer.stop(started);
         }
     }
     
+    /**
+     * Deletes a tag category and raises its version, so other servers drop it
+     * @param category Category id
+     */
     public void deleteTagConfig(String category) {
-        try (Connection connection = getConnection();
-             PreparedStatement stmt = connection.prepareStatement("DELETE FROM nonchat_tag_configs WHERE category_id = ?")) {
-            stmt.setString(1, category);
-            stmt.executeUpdate();
+        long started = ChatStats.start();
+        try {
+            storage.deleteTagConfig(category);
         } catch (SQLException e) {
+            errorCounter.increment();
             plugin.getLogger().log(Level.SEVERE, "Could not delete tag config for " + category, e);
+        } finally {
+            writeTimer.stop(started);
         }
     }
-    
-    public String loadTagConfig(String category) {
-        try (Connection connection = getConnection();
-             PreparedStatement stmt = connection.prepareStatement("SELECT config_data FROM nonchat_tag_configs WHERE category_id = ?")) {
-            stmt.setString(1, category);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("config_data");
-                }
-            }
+
+    /**
+     * Reads the version of every tag category, deleted ones included
+     * @return Versions keyed by category id, or null if they could not be read
+     */
+    public Map<String, TagVersion> getTagVersions() {
+        long started = ChatStats.start();
+        try {
+            return storage.loadTagVersions();
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not load tag config for " + category, e);
+            errorCounter.increment();
+            plugin.getLogger().log(Level.SEVERE, "Could not load tag versions", e);
+        } finally {
+            readTimer.stop(started);
         }
         return null;
     }
     
-    public Map<String, String> getAllTagConfigs() {
-        Map<String, String> configs = new HashMap<>();
-        try (Connection connection = getConnection();
-             PreparedStatement stmt = connection.prepareStatement("SELECT category_id, config_data FROM nonchat_tag_configs");
-             ResultSet rs = stmt.executeQuery()) {
-            while (rs.next()) {
-                configs.put(rs.getString("category_id"), rs.getString("config_data"));
-            }
+    /**
+     * Reads the stored content of some tag categories
+     * @param categories Category ids to read
+     * @return Stored configs keyed by category id, or null if they could not be read
+     */
+    public Map<String, String> getTagConfigs(Collection<String> categories) {
+        long started = ChatStats.start();
+        try {
+            return storage.loadTagConfigs(categories);
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not load all tag configs", e);
+            errorCounter.increment();
+            plugin.getLogger().log(Level.SEVERE, "Could not load tag configs", e);
+        } finally {
+            readTimer.stop(started);
         }
-        return configs;
+        return null;
     }
 
-    // --- Sync / Versioning Methods ---
+    // --- Player Tag Methods ---
 
-    public void updateTagSyncVersion() {
-        saveTagConfig("__SYNC_TIMESTAMP__", String.valueOf(System.currentTimeMillis()));
+    /**
+     * Queues a player's tag selection for the next batched write
+     * @param uuid Player UUID
+     * @param category Tag category
+     * @param tagId Selected tag id
+     */
+    public void setPlayerTag(String uuid, String category, String tagId) {
+        writeQueue.put(WriteBehindQueue.Kind.TAG, uuid, category, tagId);
     }
 
-    public long getTagSyncVersion() {
-        String val = loadTagConfig("__SYNC_TIMESTAMP__");
-        if (val == null) return 0L;
-        try {
-            return Long.parseLong(val);
-        } catch (NumberFormatException e) {
-            return 0L;
-        }
+    /**
+     * Queues removal of a player's tag selection for the next batched write
+     * @param uuid Player UUID
+     * @param category Tag category
+     */
+    public void removePlayerTag(String uuid, String category) {
+        writeQueue.put(WriteBehindQueue.Kind.TAG, uuid, category, null);
     }
 
-    // --- Player Tag Methods ---
-
-    public void setPlayerTag(String uuid, String category, String tagId) {
-        try (Connection connection = getConnection();
-             PreparedStatement stmt = connection.prepareStatement(
-                     "INSERT INTO nonchat_player_tags (uuid, category, tag_id) VALUES (?, ?, ?) " +
-                     "ON DUPLICATE KEY UPDATE tag_id = ?")) {
-            stmt.setString(1, uuid);
-            stmt.setString(2, category);
-            stmt.setString(3, tagId);
-            stmt.setString(4, tagId);
-            stmt.executeUpdate();
+    /**
+     * Writes a batch of queued setting, tag and ignore list changes in one transaction
+     * @param batch Queued writes
+     * @return true if every change was written
+     */
+    private boolean writeBatch(Map<WriteBehindQueue.Key, WriteBehindQueue.Write> batch) {
+        long started = ChatStats.start();
+        try {
+            storage.writePlayerChanges(batch);
+            return true;
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not set player tag", e);
+            errorCounter.increment();
+            plugin.getLogger().log(Level.SEVERE, "Could not write queued player data", e);
+            return false;
+        } finally {
+            writeTimer.stop(started);
         }
     }
 
-    public void removePlayerTag(String uuid, String category) {
-        try (Connection connection = getConnection();
-             PreparedStatement stmt = connection.prepareStatement(
-                     "DELETE FROM nonchat_player_tags WHERE uuid = ? AND category = ?")) {
-            stmt.setString(1, uuid);
-            stmt.setString(2, category);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not remove player tag", e);
-        }
+    // --- Ignore List Methods ---
+
+    /**
+     * Queues an ignore list change for the next batched write
+     * @param uuid UUID of the ignoring player
+     * @param ignoredUuid UUID of the ignored player
+     * @param ignored true to add the entry, false to remove it
+     */
+    public void setIgnored(String uuid, String ignoredUuid, boolean ignored) {
+        writeQueue.put(WriteBehindQueue.Kind.IGNORE, uuid, ignoredUuid, ignored ? ignoredUuid : null);
     }
 
-    public String getPlayerTag(String uuid, String category) {
-        try (Connection connection = getConnection();
-             PreparedStatement stmt = connection.prepareStatement(
-                     "SELECT tag_id FROM nonchat_player_tags WHERE uuid = ? AND category = ?")) {
-            stmt.setString(1, uuid);
-            stmt.setString(2, category);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("tag_id");
-                }
+    /**
+     * Gets the ignore list changes of one player that have not reached the database yet
+     * @param uuid UUID of the ignoring player
+     * @return true for added and false for removed, keyed by ignored UUID
+     */
+    public Map<String, Boolean> getQueuedIgnoreChanges(String uuid) {
+        Map<String, Boolean> changes = new HashMap<>();
+        writeQueue.getPending(uuid).forEach((key, write) -> {
+            if (key.getKind() == WriteBehindQueue.Kind.IGNORE) {
+                changes.put(key.getKey(), !write.isDelete());
             }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not get player tag", e);
-        }
-        return null;
+        });
+        return changes;
     }
-}
\ No newline at end of file
+}
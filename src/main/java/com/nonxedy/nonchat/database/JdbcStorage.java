@@ -0,0 +1,397 @@
+package com.nonxedy.nonchat.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.nonxedy.nonchat.Nonchat;
+import com.nonxedy.nonchat.config.DatabaseConfig;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Storage backend on top of a pooled JDBC connection.
+ * Queries are shared by every SQL dialect; subclasses configure the pool and build the upsert,
+ * the only statement that differs between the supported databases.
+ */
+public abstract class JdbcStorage implements StorageProvider {
+    // Rows sent per JDBC batch when importing a table
+    private static final int IMPORT_BATCH_SIZE = 500;
+
+    protected final Nonchat plugin;
+    protected final DatabaseConfig config;
+    private final Map<StorageTable, String> upserts = new EnumMap<>(StorageTable.class);
+    private HikariDataSource dataSource;
+
+    protected JdbcStorage(Nonchat plugin, DatabaseConfig config) {
+        this.plugin = plugin;
+        this.config = config;
+    }
+
+    /**
+     * Creates the pool settings for this backend
+     * @return Pool configuration with URL, driver and credentials set
+     */
+    protected abstract HikariConfig createPoolConfig();
+
+    /**
+     * Builds an insert that replaces the value columns of an existing row with the same key,
+     * or skips the row if the table only has key columns
+     * @param table Target table
+     * @return Statement taking every column in {@link StorageTable#getColumns()} order
+     */
+    protected abstract String buildUpsert(StorageTable table);
+
+    @Override
+    public void open() throws SQLException {
+        for (StorageTable table : StorageTable.values()) {
+            upserts.put(table, buildUpsert(table));
+        }
+        dataSource = new HikariDataSource(createPoolConfig());
+        createTables();
+        versionLegacyTagConfigs();
+    }
+
+    @Override
+    public void close() {
+        if (dataSource != null && !dataSource.isClosed()) {
+            dataSource.close();
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return dataSource != null && !dataSource.isClosed();
+    }
+
+    private Connection getConnection() throws SQLException {
+        if (dataSource == null) {
+            throw new SQLException(getType() + " storage is not open");
+        }
+        return dataSource.getConnection();
+    }
+
+    private String upsert(StorageTable table) {
+        return upserts.get(table);
+    }
+
+    private void createTables() throws SQLException {
+        try (Connection connection = getConnection();
+             Statement stmt = connection.createStatement()) {
+            // Player Tags Table
+            stmt.execute("CREATE TABLE IF NOT EXISTS nonchat_player_tags (" +
+                    "uuid VARCHAR(36) NOT NULL," +
+                    "category VARCHAR(64) NOT NULL," +
+                    "tag_id VARCHAR(64) NOT NULL," +
+                    "PRIMARY KEY (uuid, category))");
+
+            // Tag Configs Table (Sync)
+            stmt.execute("CREATE TABLE IF NOT EXISTS nonchat_tag_configs (" +
+                    "category_id VARCHAR(64) NOT NULL," +
+                    "config_data LONGTEXT NOT NULL," +
+                    "PRIMARY KEY (category_id))");
+
+            // Tag Config Versions Table (Sync)
+            stmt.execute("CREATE TABLE IF NOT EXISTS nonchat_tag_versions (" +
+                    "category_id VARCHAR(64) NOT NULL," +
+                    "version BIGINT NOT NULL," +
+                    "content_hash VARCHAR(64) NOT NULL," +
+                    "PRIMARY KEY (category_id))");
+
+            // Player Settings Table
+            stmt.execute("CREATE TABLE IF NOT EXISTS nonchat_player_settings (" +
+                    "uuid VARCHAR(36) NOT NULL," +
+                    "setting_key VARCHAR(64) NOT NULL," +
+                    "setting_value VARCHAR(255) NOT NULL," +
+                    "PRIMARY KEY (uuid, setting_key))");
+
+            // Player Ignore Lists Table
+            stmt.execute("CREATE TABLE IF NOT EXISTS nonchat_player_ignores (" +
+                    "uuid VARCHAR(36) NOT NULL," +
+                    "ignored_uuid VARCHAR(36) NOT NULL," +
+                    "PRIMARY KEY (uuid, ignored_uuid))");
+        }
+    }
+
+    /**
+     * Drops the old global sync timestamp row and gives tag configs stored before
+     * versioning their first version
+     */
+    private void versionLegacyTagConfigs() throws SQLException {
+        inTransaction(connection -> {
+            try (PreparedStatement delete = connection.prepareStatement(
+                    "DELETE FROM nonchat_tag_configs WHERE category_id = '__SYNC_TIMESTAMP__'")) {
+                delete.executeUpdate();
+            }
+            try (PreparedStatement select = connection.prepareStatement(
+                         "SELECT c.category_id, c.config_data FROM nonchat_tag_configs c " +
+                         "LEFT JOIN nonchat_tag_versions v ON v.category_id = c.category_id " +
+                         "WHERE v.category_id IS NULL");
+                 PreparedStatement insert = connection.prepareStatement(upsert(StorageTable.TAG_VERSIONS));
+                 ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    insert.setString(1, rs.getString(1));
+                    insert.setLong(2, 1L);
+                    insert.setString(3, TagVersion.hash(rs.getString(2)));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        });
+    }
+
+    // --- Player Data ---
+
+    @Override
+    public void loadPlayer(String uuid, Map<String, String> tags, Map<String, String> settings, Set<String> ignored) throws SQLException {
+        try (Connection connection = getConnection()) {
+            readColumns(connection, "SELECT category, tag_id FROM nonchat_player_tags WHERE uuid = ?", uuid, tags);
+            readColumns(connection, "SELECT setting_key, setting_value FROM nonchat_player_settings WHERE uuid = ?", uuid, settings);
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "SELECT ignored_uuid FROM nonchat_player_ignores WHERE uuid = ?")) {
+                stmt.setString(1, uuid);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ignored.add(rs.getString(1));
+                    }
+                }
+            }
+        }
+    }
+
+    private void readColumns(Connection connection, String sql, String uuid, Map<String, String> target) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, uuid);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    target.put(rs.getString(1), rs.getString(2));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void writePlayerChanges(Map<WriteBehindQueue.Key, WriteBehindQueue.Write> batch) throws SQLException {
+        inTransaction(connection -> {
+            try (PreparedStatement saveSetting = connection.prepareStatement(upsert(StorageTable.PLAYER_SETTINGS));
+                 PreparedStatement deleteSetting = connection.prepareStatement(
+                         "DELETE FROM nonchat_player_settings WHERE uuid = ? AND setting_key = ?");
+                 PreparedStatement saveTag = connection.prepareStatement(upsert(StorageTable.PLAYER_TAGS));
+                 PreparedStatement deleteTag = connection.prepareStatement(
+                         "DELETE FROM nonchat_player_tags WHERE uuid = ? AND category = ?");
+                 PreparedStatement saveIgnore = connection.prepareStatement(upsert(StorageTable.PLAYER_IGNORES));
+                 PreparedStatement deleteIgnore = connection.prepareStatement(
+                         "DELETE FROM nonchat_player_ignores WHERE uuid = ? AND ignored_uuid = ?")) {
+                for (Map.Entry<WriteBehindQueue.Key, WriteBehindQueue.Write> entry : batch.entrySet()) {
+                    WriteBehindQueue.Key key = entry.getKey();
+                    WriteBehindQueue.Write write = entry.getValue();
+                    PreparedStatement stmt = switch (key.getKind()) {
+                        case SETTING -> write.isDelete() ? deleteSetting : saveSetting;
+                        case TAG -> write.isDelete() ? deleteTag : saveTag;
+                        case IGNORE -> write.isDelete() ? deleteIgnore : saveIgnore;
+                    };
+                    stmt.setString(1, key.getUuid());
+                    stmt.setString(2, key.getKey());
+                    // Ignore rows are key-only, the queued value just marks an addition
+                    if (!write.isDelete() && key.getKind() != WriteBehindQueue.Kind.IGNORE) {
+                        stmt.setString(3, write.getValue());
+                    }
+                    stmt.addBatch();
+                }
+                saveSetting.executeBatch();
+                deleteSetting.executeBatch();
+                saveTag.executeBatch();
+                deleteTag.executeBatch();
+                saveIgnore.executeBatch();
+                deleteIgnore.executeBatch();
+            }
+        });
+    }
+
+    // --- Tag Configs ---
+
+    @Override
+    public void saveTagConfig(String category, String data) throws SQLException {
+        String hash = TagVersion.hash(data);
+        inTransaction(connection -> {
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT content_hash FROM nonchat_tag_versions WHERE category_id = ?")) {
+                select.setString(1, category);
+                try (ResultSet rs = select.executeQuery()) {
+                    if (rs.next() && hash.equals(rs.getString(1))) {
+                        return;
+                    }
+                }
+            }
+            try (PreparedStatement stmt = connection.prepareStatement(upsert(StorageTable.TAG_CONFIGS))) {
+                stmt.setString(1, category);
+                stmt.setString(2, data);
+                stmt.executeUpdate();
+            }
+            raiseTagVersion(connection, category, hash);
+        });
+    }
+
+    @Override
+    public void deleteTagConfig(String category) throws SQLException {
+        inTransaction(connection -> {
+            try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM nonchat_tag_configs WHERE category_id = ?")) {
+                stmt.setString(1, category);
+                stmt.executeUpdate();
+            }
+            raiseTagVersion(connection, category, "");
+        });
+    }
+
+    private void raiseTagVersion(Connection connection, String category, String hash) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE nonchat_tag_versions SET version = version + 1, content_hash = ? WHERE category_id = ?")) {
+            update.setString(1, hash);
+            update.setString(2, category);
+            if (update.executeUpdate() > 0) {
+                return;
+            }
+        }
+        try (PreparedStatement insert = connection.prepareStatement(upsert(StorageTable.TAG_VERSIONS))) {
+            insert.setString(1, category);
+            insert.setLong(2, 1L);
+            insert.setString(3, hash);
+            insert.executeUpdate();
+        }
+    }
+
+    @Override
+    public Map<String, TagVersion> loadTagVersions() throws SQLException {
+        Map<String, TagVersion> versions = new HashMap<>();
+        try (Connection connection = getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                     "SELECT category_id, version, content_hash FROM nonchat_tag_versions");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                versions.put(rs.getString("category_id"), new TagVersion(rs.getLong("version"), rs.getString("content_hash")));
+            }
+        }
+        return versions;
+    }
+
+    @Override
+    public Map<String, String> loadTagConfigs(Collection<String> categories) throws SQLException {
+        Map<String, String> configs = new HashMap<>();
+        if (categories.isEmpty()) {
+            return configs;
+        }
+        try (Connection connection = getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                     "SELECT category_id, config_data FROM nonchat_tag_configs " +
+                     "WHERE category_id IN (" + parameterList(categories.size()) + ")")) {
+            int index = 1;
+            for (String category : categories) {
+                stmt.setString(index++, category);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    configs.put(rs.getString("category_id"), rs.getString("config_data"));
+                }
+            }
+        }
+        return configs;
+    }
+
+    // --- Migration ---
+
+    @Override
+    public List<String[]> exportRows(StorageTable table) throws SQLException {
+        String[] columns = table.getColumns();
+        List<String[]> rows = new ArrayList<>();
+        try (Connection connection = getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                     "SELECT " + columnList(columns) + " FROM " + table.getTableName());
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                String[] row = new String[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    row[i] = rs.getString(i + 1);
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public void importRows(StorageTable table, List<String[]> rows) throws SQLException {
+        inTransaction(connection -> {
+            // Rows deleted in the source must not survive in the target
+            try (Statement clear = connection.createStatement()) {
+                clear.executeUpdate("DELETE FROM " + table.getTableName());
+            }
+            try (PreparedStatement stmt = connection.prepareStatement(upsert(table))) {
+                int pending = 0;
+                for (String[] row : rows) {
+                    for (int i = 0; i < row.length; i++) {
+                        stmt.setString(i + 1, row[i]);
+                    }
+                    stmt.addBatch();
+                    if (++pending == IMPORT_BATCH_SIZE) {
+                        stmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    stmt.executeBatch();
+                }
+            }
+        });
+    }
+
+    private void inTransaction(SqlWork work) throws SQLException {
+        try (Connection connection = getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                work.run(connection);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Statements run inside one transaction
+     */
+    @FunctionalInterface
+    private interface SqlWork {
+        void run(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Joins column names for an insert column list
+     * @param columns Column names
+     * @return Comma separated names
+     */
+    protected static String columnList(String[] columns) {
+        return String.join(", ", columns);
+    }
+
+    /**
+     * Builds the parameter list of an insert
+     * @param count Number of parameters
+     * @return Comma separated question marks
+     */
+    protected static String parameterList(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
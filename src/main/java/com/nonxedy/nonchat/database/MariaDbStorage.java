@@ -0,0 +1,57 @@
+package com.nonxedy.nonchat.database;
+
+import com.nonxedy.nonchat.Nonchat;
+import com.nonxedy.nonchat.config.DatabaseConfig;
+import com.zaxxer.hikari.HikariConfig;
+
+/**
+ * MariaDB / MySQL backend, for networks sharing player data between servers
+ */
+public class MariaDbStorage extends JdbcStorage {
+
+    public MariaDbStorage(Nonchat plugin, DatabaseConfig config) {
+        super(plugin, config);
+    }
+
+    @Override
+    public String getType() {
+        return "mariadb";
+    }
+
+    @Override
+    protected HikariConfig createPoolConfig() {
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setJdbcUrl("jdbc:mariadb://" + config.getHost() + ":" + config.getPort() + "/" + config.getDatabase());
+        hikariConfig.setUsername(config.getUsername());
+        hikariConfig.setPassword(config.getPassword());
+        hikariConfig.setDriverClassName("org.mariadb.jdbc.Driver");
+        hikariConfig.setPoolName("nonchat-mariadb");
+
+        // Recommended settings
+        hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
+        hikariConfig.addDataSourceProperty("prepStmtCacheSize", "250");
+        hikariConfig.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        return hikariConfig;
+    }
+
+    @Override
+    protected String buildUpsert(StorageTable table) {
+        String[] columns = table.getColumns();
+        String[] values = table.getValueColumns();
+        if (values.length == 0) {
+            return "INSERT IGNORE INTO " + table.getTableName() + " (" + columnList(columns) + ") " +
+                    "VALUES (" + parameterList(columns.length) + ")";
+        }
+
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table.getTableName())
+                .append(" (").append(columnList(columns)).append(") VALUES (")
+                .append(parameterList(columns.length)).append(") ON DUPLICATE KEY UPDATE ");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(values[i]).append(" = VALUES(").append(values[i]).append(')');
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.nonxedy.nonchat.database;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Everything nonchat stores for one player, loaded in one go before the player joins:
+ * selected tags, settings and ignore list. Read-only; changes go through the managers
+ * owning each part.
+ */
+public class PlayerData {
+    private final UUID uuid;
+    private final Map<String, String> tags;
+    private final Map<String, String> settings;
+    private final Set<String> ignored;
+    private final long loadedAt;
+
+    public PlayerData(UUID uuid, Map<String, String> tags, Map<String, String> settings, Set<String> ignored) {
+        this.uuid = uuid;
+        this.tags = Collections.unmodifiableMap(tags);
+        this.settings = Collections.unmodifiableMap(settings);
+        this.ignored = Collections.unmodifiableSet(ignored);
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Gets the selected tag id per category
+     * @return Unmodifiable map of category to tag id
+     */
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Gets a stored setting
+     * @param key Setting key
+     * @return The value, or null if not set
+     */
+    public String getSetting(String key) {
+        return settings.get(key);
+    }
+
+    /**
+     * Gets the UUIDs of players this player ignores
+     * @return Unmodifiable set of UUID strings
+     */
+    public Set<String> getIgnored() {
+        return ignored;
+    }
+
+    /**
+     * Gets when the profile was read from the database
+     * @return Epoch milliseconds
+     */
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+}
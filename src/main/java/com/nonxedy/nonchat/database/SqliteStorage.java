@@ -0,0 +1,66 @@
+package com.nonxedy.nonchat.database;
+
+import java.io.File;
+
+import com.nonxedy.nonchat.Nonchat;
+import com.nonxedy.nonchat.config.DatabaseConfig;
+import com.zaxxer.hikari.HikariConfig;
+
+/**
+ * Embedded SQLite backend stored in the plugin folder, for single servers without a database server.
+ * Uses the SQLite driver shipped with the server. The pool keeps one connection open, so reads skip
+ * the network round trip and connection setup; WAL journaling keeps writes from blocking readers
+ * in the file.
+ */
+public class SqliteStorage extends JdbcStorage {
+
+    public SqliteStorage(Nonchat plugin, DatabaseConfig config) {
+        super(plugin, config);
+    }
+
+    @Override
+    public String getType() {
+        return "sqlite";
+    }
+
+    @Override
+    protected HikariConfig createPoolConfig() {
+        File file = new File(plugin.getDataFolder(), config.getFile());
+        file.getParentFile().mkdirs();
+
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setJdbcUrl("jdbc:sqlite:" + file.getAbsolutePath());
+        hikariConfig.setDriverClassName("org.sqlite.JDBC");
+        hikariConfig.setPoolName("nonchat-sqlite");
+        // SQLite allows a single writer, a larger pool would only wait on the file lock
+        hikariConfig.setMaximumPoolSize(1);
+        hikariConfig.setMaxLifetime(0);
+
+        hikariConfig.addDataSourceProperty("journal_mode", "WAL");
+        hikariConfig.addDataSourceProperty("synchronous", "NORMAL");
+        hikariConfig.addDataSourceProperty("busy_timeout", "5000");
+        return hikariConfig;
+    }
+
+    @Override
+    protected String buildUpsert(StorageTable table) {
+        String[] columns = table.getColumns();
+        String[] values = table.getValueColumns();
+        if (values.length == 0) {
+            return "INSERT OR IGNORE INTO " + table.getTableName() + " (" + columnList(columns) + ") " +
+                    "VALUES (" + parameterList(columns.length) + ")";
+        }
+
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table.getTableName())
+                .append(" (").append(columnList(columns)).append(") VALUES (")
+                .append(parameterList(columns.length)).append(") ON CONFLICT (")
+                .append(columnList(table.getKeyColumns())).append(") DO UPDATE SET ");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(values[i]).append(" = excluded.").append(values[i]);
+        }
+        return sql.toString();
+    }
+}
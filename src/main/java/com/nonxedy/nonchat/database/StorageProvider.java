@@ -0,0 +1,103 @@
+package com.nonxedy.nonchat.database;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A storage backend for player data and synced tag configs.
+ * Implementations only talk to their store and report failures as exceptions;
+ * write buffering, caching, stats and error logging stay in {@link DatabaseManager}.
+ */
+public interface StorageProvider {
+
+    /**
+     * Gets the backend name used in database.yml
+     * @return Storage type, e.g. mariadb or sqlite
+     */
+    String getType();
+
+    /**
+     * Connects to the store and creates missing tables
+     * @throws SQLException if the store cannot be reached
+     */
+    void open() throws SQLException;
+
+    /**
+     * Releases every connection, does nothing if the store is not open
+     */
+    void close();
+
+    /**
+     * Checks if the store is open
+     * @return true between {@link #open()} and {@link #close()}
+     */
+    boolean isOpen();
+
+    /**
+     * Reads everything stored for a player
+     * @param uuid Player UUID
+     * @param tags Receives selected tags keyed by category
+     * @param settings Receives settings keyed by setting key
+     * @param ignored Receives the UUIDs the player ignores
+     * @throws SQLException if the read fails
+     */
+    void loadPlayer(String uuid, Map<String, String> tags, Map<String, String> settings, Set<String> ignored) throws SQLException;
+
+    /**
+     * Writes queued setting, tag and ignore list changes in one transaction
+     * @param batch Queued writes
+     * @throws SQLException if the batch could not be written, nothing is stored then
+     */
+    void writePlayerChanges(Map<WriteBehindQueue.Key, WriteBehindQueue.Write> batch) throws SQLException;
+
+    /**
+     * Stores a tag category and raises its version in one transaction,
+     * does nothing if the stored content is the same
+     * @param category Category id
+     * @param data Category YAML
+     * @throws SQLException if the write fails, nothing is stored then
+     */
+    void saveTagConfig(String category, String data) throws SQLException;
+
+    /**
+     * Deletes a tag category and raises its version in one transaction, leaving a version row
+     * with an empty hash behind
+     * @param category Category id
+     * @throws SQLException if the write fails, nothing is stored then
+     */
+    void deleteTagConfig(String category) throws SQLException;
+
+    /**
+     * Reads the version of every tag category, deleted ones included
+     * @return Versions keyed by category id
+     * @throws SQLException if the read fails
+     */
+    Map<String, TagVersion> loadTagVersions() throws SQLException;
+
+    /**
+     * Reads the stored content of some tag categories
+     * @param categories Category ids to read
+     * @return Stored configs keyed by category id, categories without a config are left out
+     * @throws SQLException if the read fails
+     */
+    Map<String, String> loadTagConfigs(Collection<String> categories) throws SQLException;
+
+    /**
+     * Reads every row of a table, used for migrations
+     * @param table Table to read
+     * @return Rows with values in {@link StorageTable#getColumns()} order
+     * @throws SQLException if the read fails
+     */
+    List<String[]> exportRows(StorageTable table) throws SQLException;
+
+    /**
+     * Replaces every row of a table in one transaction, used for migrations
+     * @param table Table to write
+     * @param rows Rows with values in {@link StorageTable#getColumns()} order
+     * @throws SQLException if the rows could not be written, nothing is stored then
+     */
+    void importRows(StorageTable table, List<String[]> rows) throws SQLException;
+}
@@ -0,0 +1,46 @@
+package com.nonxedy.nonchat.database;
+
+/**
+ * Tables every storage backend keeps, with the columns that identify a row and the columns
+ * that hold its data. Used to build dialect specific upserts and to copy data between backends.
+ */
+public enum StorageTable {
+    PLAYER_TAGS("nonchat_player_tags", new String[]{"uuid", "category"}, new String[]{"tag_id"}),
+    TAG_CONFIGS("nonchat_tag_configs", new String[]{"category_id"}, new String[]{"config_data"}),
+    TAG_VERSIONS("nonchat_tag_versions", new String[]{"category_id"}, new String[]{"version", "content_hash"}),
+    PLAYER_SETTINGS("nonchat_player_settings", new String[]{"uuid", "setting_key"}, new String[]{"setting_value"}),
+    PLAYER_IGNORES("nonchat_player_ignores", new String[]{"uuid", "ignored_uuid"}, new String[0]);
+
+    private final String tableName;
+    private final String[] keyColumns;
+    private final String[] valueColumns;
+
+    StorageTable(String tableName, String[] keyColumns, String[] valueColumns) {
+        this.tableName = tableName;
+        this.keyColumns = keyColumns;
+        this.valueColumns = valueColumns;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String[] getKeyColumns() {
+        return keyColumns.clone();
+    }
+
+    public String[] getValueColumns() {
+        return valueColumns.clone();
+    }
+
+    /**
+     * Gets every column, key columns first
+     * @return Column names in insert order
+     */
+    public String[] getColumns() {
+        String[] columns = new String[keyColumns.length + valueColumns.length];
+        System.arraycopy(keyColumns, 0, columns, 0, keyColumns.length);
+        System.arraycopy(valueColumns, 0, columns, keyColumns.length, valueColumns.length);
+        return columns;
+    }
+}
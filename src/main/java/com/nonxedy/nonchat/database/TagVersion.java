@@ -0,0 +1,53 @@
+package com.nonxedy.nonchat.database;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Version and content hash of one synced tag category.
+ * The version goes up on every change to the category; the hash lets a server skip
+ * re-parsing a category whose content it already has. A deleted category keeps its
+ * row with an empty hash, so other servers notice the removal.
+ */
+public final class TagVersion {
+    private final long version;
+    private final String hash;
+
+    public TagVersion(long version, String hash) {
+        this.version = version;
+        this.hash = hash;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * Checks if the category was deleted
+     * @return true if the category no longer exists
+     */
+    public boolean isDeleted() {
+        return hash.isEmpty();
+    }
+
+    /**
+     * Hashes the content of a tag category
+     * @param content Category YAML
+     * @return SHA-256 of the content as lowercase hex
+     */
+    public static String hash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java runtime ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
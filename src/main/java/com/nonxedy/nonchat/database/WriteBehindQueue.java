@@ -0,0 +1,270 @@
+package com.nonxedy.nonchat.database;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.nonxedy.nonchat.Nonchat;
+import com.nonxedy.nonchat.util.core.stats.ChatStats;
+
+/**
+ * Write-behind buffer for per-player rows.
+ * Writes are keyed by (kind, uuid, key); a newer write to the same key replaces the queued one,
+ * so dragging a slider or clicking through a menu only stores the last value. Queued writes are
+ * handed to the batch writer when enough have piled up, on a fixed interval and on request.
+ * A batch stays readable through {@link #get} while it is being written, and is queued again
+ * if the write fails, unless newer writes replaced it meanwhile.
+ */
+public class WriteBehindQueue {
+
+    /**
+     * Table a queued write belongs to
+     */
+    public enum Kind {
+        /** nonchat_player_settings, key is the setting key */
+        SETTING,
+        /** nonchat_player_tags, key is the tag category */
+        TAG,
+        /** nonchat_player_ignores, key is the ignored UUID; any non-null value adds the row */
+        IGNORE
+    }
+
+    /**
+     * Writes a batch of queued writes
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        /**
+         * Writes every entry of the batch
+         * @param batch Writes to store, keyed by target row
+         * @return true if the whole batch was written
+         */
+        boolean write(Map<Key, Write> batch);
+    }
+
+    private final Nonchat plugin;
+    private final BatchWriter writer;
+    private final Map<Key, Write> pending = new ConcurrentHashMap<>();
+    // Writes taken out of pending by the running flush, until the database has them
+    private final Map<Key, Write> inFlight = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ChatStats.Timer flushTimer = ChatStats.timer("db_flush");
+    private final ChatStats.Counter coalescedCounter = ChatStats.counter("db_writes_coalesced");
+    private final ChatStats.Counter flushedCounter = ChatStats.counter("db_writes_flushed");
+    private volatile int batchSize = 100;
+    private BukkitTask flushTask;
+
+    public WriteBehindQueue(Nonchat plugin, BatchWriter writer) {
+        this.plugin = plugin;
+        this.writer = writer;
+        ChatStats.gauge("db_write_queue", pending::size);
+    }
+
+    /**
+     * Starts the periodic flush
+     * @param batchSize Number of queued writes that triggers an early flush
+     * @param intervalTicks Ticks between periodic flushes
+     */
+    public void start(int batchSize, long intervalTicks) {
+        this.batchSize = batchSize;
+        if (flushTask != null) {
+            return;
+        }
+        try {
+            flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flush, intervalTicks, intervalTicks);
+        } catch (IllegalArgumentException e) {
+            plugin.logError("Failed to start database write flush task: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the periodic flush and writes everything still queued on the calling thread
+     */
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        flush();
+    }
+
+    /**
+     * Queues a write, replacing any queued write to the same row
+     * @param kind Target table
+     * @param uuid Player UUID
+     * @param key Setting key, tag category or ignored UUID
+     * @param value New value, or null to delete the row
+     */
+    public void put(Kind kind, String uuid, String key, String value) {
+        if (pending.put(new Key(kind, uuid, key), new Write(value)) != null) {
+            coalescedCounter.increment();
+        }
+        if (pending.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            } catch (RuntimeException e) {
+                // Plugin is disabling, the final flush picks it up
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Gets a queued or in-flight write that has not reached the database yet
+     * @param kind Target table
+     * @param uuid Player UUID
+     * @param key Setting key, tag category or ignored UUID
+     * @return The newest such write, or null if nothing is queued for that row
+     */
+    public Write get(Kind kind, String uuid, String key) {
+        Key rowKey = new Key(kind, uuid, key);
+        Write write = pending.get(rowKey);
+        return write != null ? write : inFlight.get(rowKey);
+    }
+
+    /**
+     * Gets the queued writes of one player
+     * @param uuid Player UUID
+     * @return Copy of the player's queued and in-flight writes, newest per row
+     */
+    public Map<Key, Write> getPending(String uuid) {
+        Map<Key, Write> result = new HashMap<>();
+        inFlight.forEach((key, write) -> {
+            if (key.uuid.equals(uuid)) {
+                result.put(key, write);
+            }
+        });
+        pending.forEach((key, write) -> {
+            if (key.uuid.equals(uuid)) {
+                result.put(key, write);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Gets the number of queued writes
+     * @return Queue depth
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Writes every queued write
+     */
+    public synchronized void flush() {
+        flush(null);
+    }
+
+    /**
+     * Writes the queued writes of one player
+     * @param uuid Player UUID, or null for every player
+     */
+    public synchronized void flush(String uuid) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Key, Write> batch = new HashMap<>();
+        for (Map.Entry<Key, Write> entry : pending.entrySet()) {
+            Key key = entry.getKey();
+            if (uuid != null && !uuid.equals(key.uuid)) {
+                continue;
+            }
+            // Visible in flight before it leaves pending, so readers never miss it
+            inFlight.put(key, entry.getValue());
+            if (pending.remove(key, entry.getValue())) {
+                batch.put(key, entry.getValue());
+            } else {
+                // Replaced meanwhile, the newer write stays queued for the next run
+                inFlight.remove(key, entry.getValue());
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long started = ChatStats.start();
+        try {
+            if (writer.write(batch)) {
+                flushedCounter.add(batch.size());
+            } else {
+                batch.forEach(pending::putIfAbsent);
+            }
+        } finally {
+            batch.forEach(inFlight::remove);
+            flushTimer.stop(started);
+        }
+    }
+
+    /**
+     * Target row of a queued write
+     */
+    public static final class Key {
+        private final Kind kind;
+        private final String uuid;
+        private final String key;
+
+        private Key(Kind kind, String uuid, String key) {
+            this.kind = kind;
+            this.uuid = uuid;
+            this.key = key;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getUuid() {
+            return uuid;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return kind == other.kind && uuid.equals(other.uuid) && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, uuid, key);
+        }
+    }
+
+    /**
+     * A queued value, a null value deletes the row
+     */
+    public static final class Write {
+        private final String value;
+
+        private Write(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * Checks if the write deletes the row
+         * @return true if the row is removed
+         */
+        public boolean isDelete() {
+            return value == null;
+        }
+    }
+}
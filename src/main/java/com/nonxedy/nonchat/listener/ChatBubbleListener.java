@@ -0,0 +1,46 @@
+package com.nonxedy.nonchat.listener;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
+
+import com.nonxedy.nonchat.core.ChatManager;
+
+/**
+ * Queues a player's chat bubble for repositioning when the player moves.
+ * Riders of boats, minecarts and mounts get no move events of their own, so they are
+ * queued when their vehicle moves. Players standing still never reach the bubble updater.
+ */
+public class ChatBubbleListener implements Listener {
+    private final ChatManager chatManager;
+
+    public ChatBubbleListener(ChatManager chatManager) {
+        this.chatManager = chatManager;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        if (event.hasChangedPosition()) {
+            chatManager.markBubbleMoved(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        chatManager.markBubbleMoved(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onVehicleMove(VehicleMoveEvent event) {
+        for (Entity passenger : event.getVehicle().getPassengers()) {
+            if (passenger instanceof Player player) {
+                chatManager.markBubbleMoved(player);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.nonxedy.nonchat.listener;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import com.nonxedy.nonchat.util.special.ignore.IgnoreManager;
+
+/**
+ * Loads ignore lists when players join and drops them when they leave
+ */
+public class IgnoreListener implements Listener {
+    private final IgnoreManager ignoreManager;
+
+    public IgnoreListener(IgnoreManager ignoreManager) {
+        this.ignoreManager = ignoreManager;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        ignoreManager.load(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        ignoreManager.unload(event.getPlayer().getUniqueId());
+    }
+}
@@ -10,6 +10,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 
 import com.nonxedy.nonchat.Nonchat;
+import com.nonxedy.nonchat.api.Channel;
 import com.nonxedy.nonchat.core.ChatManager;
 import com.nonxedy.nonchat.service.ChatService;
 
@@ -21,6 +22,7 @@ public class PaperChatListener extends ChatListener {
     private final Nonchat plugin;
     private final Map<String, String> playerMessages = new ConcurrentHashMap<>();
     private final Map<String, String> modifiedPrefixes = new ConcurrentHashMap<>();
+    private final Map<String, Channel> routedChannels = new ConcurrentHashMap<>();
 
     public PaperChatListener(Nonchat plugin, ChatManager chatManager, ChatService chatService) {
         super(chatManager, chatService);
@@ -38,6 +40,8 @@ public class PaperChatListener extends ChatListener {
                 // Temporarily remove the prefix so ChatColor2 can color the message
                 event.setMessage(message.substring(channel.getPrefix().length()));
                 modifiedPrefixes.put(event.getPlayer().getUniqueId().toString(), channel.getPrefix());
+                // Remember the match so processChat does not look it up again
+                routedChannels.put(event.getPlayer().getUniqueId().toString(), channel);
             }
         }
     }
@@ -66,13 +70,14 @@ public class PaperChatListener extends ChatListener {
         // Use the colored message from AsyncPlayerChatEvent if available, otherwise fall back to plain text
         final String message = playerMessages.remove(playerId); // Remove to prevent memory leaks
         final String finalMessage = message != null ? message : PlainTextComponentSerializer.plainText().serialize(event.message());
+        final Channel routedChannel = routedChannels.remove(playerId);
 
         // Process chat and get result
         // Note: processChat is now blocking/synchronous in terms of logic but runs on async thread
         net.kyori.adventure.text.Component result = null;
         try {
             if (chatManager != null) {
-                result = chatManager.processChat(player, finalMessage);
+                result = chatManager.processChat(player, finalMessage, routedChannel);
             }
         } catch (Exception e) {
             plugin.logError("Chat processing failed: " + e.getMessage());
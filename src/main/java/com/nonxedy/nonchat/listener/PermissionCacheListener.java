@@ -0,0 +1,35 @@
+package com.nonxedy.nonchat.listener;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import com.nonxedy.nonchat.util.core.cache.PlayerCaches;
+import com.nonxedy.nonchat.util.core.permissions.PermissionCache;
+
+/**
+ * Keeps permission snapshots in sync with player sessions.
+ * Snapshots are built on join, dropped on quit and on world change
+ * (permissions may depend on world context).
+ * Every other per-player cache is dropped on quit as well.
+ */
+public class PermissionCacheListener implements Listener {
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        PermissionCache.refresh(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        PermissionCache.invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        PlayerCaches.invalidate(event.getPlayer().getUniqueId());
+    }
+}
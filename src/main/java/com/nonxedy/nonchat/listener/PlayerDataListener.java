@@ -0,0 +1,51 @@
+package com.nonxedy.nonchat.listener;
+
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import com.nonxedy.nonchat.Nonchat;
+import com.nonxedy.nonchat.database.DatabaseManager;
+
+/**
+ * Loads a player's stored profile before they join, so tags, settings and the ignore list
+ * are ready without extra queries on join. When the player leaves, the profile is dropped and
+ * their queued settings and tag changes are written right away, so another server sharing
+ * the database sees them on the next join.
+ */
+public class PlayerDataListener implements Listener {
+    private final Nonchat plugin;
+    private final DatabaseManager databaseManager;
+
+    public PlayerDataListener(Nonchat plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            databaseManager.preloadPlayerData(event.getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            databaseManager.releasePlayerData(event.getPlayer().getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        databaseManager.releasePlayerData(uuid);
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> databaseManager.flushWrites(uuid.toString()));
+    }
+}
@@ -0,0 +1,30 @@
+package com.nonxedy.nonchat.listener;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import com.nonxedy.nonchat.chat.channel.PlayerNameIndex;
+
+/**
+ * Keeps the online player name index used for mentions in sync with joins and quits
+ */
+public class PlayerNameIndexListener implements Listener {
+    private final PlayerNameIndex nameIndex;
+
+    public PlayerNameIndexListener(PlayerNameIndex nameIndex) {
+        this.nameIndex = nameIndex;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        nameIndex.add(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        nameIndex.remove(event.getPlayer());
+    }
+}
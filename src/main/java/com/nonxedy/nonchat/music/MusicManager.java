@@ -193,13 +193,15 @@ public class MusicManager {
     }
     
     public void loadPlayerSettings(Player player) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            String valMute = plugin.getDatabaseManager().loadPlayerSetting(player.getUniqueId().toString(), "music_muted");
+        // Usually preloaded before join, so this completes right away
+        plugin.getDatabaseManager().getPlayerData(player.getUniqueId()).thenAccept(data -> {
+            if (!player.isOnline()) return;
+            String valMute = data.getSetting("music_muted");
             if ("true".equals(valMute)) {
                 mutedPlayers.add(player.getUniqueId());
             }
             
-            String valVol = plugin.getDatabaseManager().loadPlayerSetting(player.getUniqueId().toString(), "music_volume");
+            String valVol = data.getSetting("music_volume");
             if (valVol != null) {
                 try {
                     playerVolumes.put(player.getUniqueId(), Float.parseFloat(valVol));
@@ -214,9 +216,8 @@ public class MusicManager {
     }
     
     private void saveSettingAsync(Player player, String key, String value) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getDatabaseManager().savePlayerSetting(player.getUniqueId().toString(), key, value);
-        });
+        // Queued and written in batches, repeated changes only store the last value
+        plugin.getDatabaseManager().savePlayerSetting(player.getUniqueId().toString(), key, value);
     }
     
     private void startSessionTask() {
@@ -6,6 +6,7 @@ import org.jetbrains.annotations.NotNull;
 import com.nonxedy.nonchat.Nonchat;
 import com.nonxedy.nonchat.api.Channel;
 import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+import com.nonxedy.nonchat.util.core.stats.ChatStats;
 
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 
@@ -57,6 +58,11 @@ public class NonchatExpansion extends PlaceholderExpansion {
      */
     @Override
     public String onPlaceholderRequest(Player player, String identifier) {
+        // Stats are server-wide and do not need a player
+        if (identifier.startsWith("stat_")) {
+            return ChatStats.lookup(identifier.substring("stat_".length()));
+        }
+
         if (player == null) {
             return "";
         }
@@ -6,8 +6,10 @@ import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -19,23 +21,31 @@ import org.bukkit.entity.Player;
 
 import com.nonxedy.nonchat.Nonchat;
 import com.nonxedy.nonchat.database.DatabaseManager;
+import com.nonxedy.nonchat.database.TagVersion;
 import com.nonxedy.nonchat.gui.GUIUtil;
 import com.nonxedy.nonchat.gui.JavaGUIConfig;
+import com.nonxedy.nonchat.util.chat.formatting.RenderCache;
 import com.nonxedy.nonchat.util.integration.external.IntegrationUtil;
+import com.nonxedy.nonchat.util.integration.external.PlaceholderResolver;
 
 public class TagManager {
 
     private final Nonchat plugin;
     private final DatabaseManager databaseManager;
-    private final Map<String, Map<String, Tag>> tagsByCategory = new HashMap<>();
-    private final Map<String, String> defaultValues = new HashMap<>();
-    private final Map<String, String> categorySelectionMessages = new HashMap<>();
-    private final Map<String, CategoryMeta> categoryMeta = new HashMap<>();
+    private final Map<String, Map<String, Tag>> tagsByCategory = new ConcurrentHashMap<>();
+    private final Map<String, String> defaultValues = new ConcurrentHashMap<>();
+    private final Map<String, String> categorySelectionMessages = new ConcurrentHashMap<>();
+    private final Map<String, CategoryMeta> categoryMeta = new ConcurrentHashMap<>();
     
     private final Map<UUID, Map<String, String>> playerActiveTags = new ConcurrentHashMap<>();
     private final Map<UUID, Map<String, String>> playerRandomSelections = new ConcurrentHashMap<>();
     
-    private long localTagVersion = 0;
+    // Version of each category as last applied on this server
+    private final Map<String, TagVersion> loadedVersions = new ConcurrentHashMap<>();
+    // Versions whose config failed to parse, so they are not fetched again every poll
+    private final Map<String, TagVersion> rejectedVersions = new ConcurrentHashMap<>();
+    // Guards only the in-memory swap, never held during database I/O
+    private final Object swapLock = new Object();
 
     public TagManager(Nonchat plugin, DatabaseManager databaseManager) {
         this.plugin = plugin;
@@ -48,44 +58,120 @@ public class TagManager {
         // Check every 5 seconds (100 ticks)
         org.bukkit.Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
             try {
-                long remote = databaseManager.getTagSyncVersion();
-                if (remote > localTagVersion) {
-                    localTagVersion = remote;
-                    org.bukkit.Bukkit.getScheduler().runTask(plugin, () -> {
-                        plugin.getLogger().info("Remote tag update detected. Reloading tags...");
-                        loadTags();
-                    });
-                }
+                syncTags();
             } catch (Exception e) {
                 // Suppress errors during shutdown or connection issues
             }
         }, 100L, 100L);
     }
 
+    /**
+     * Fetches and re-parses only the categories whose version changed since they were
+     * last applied, then swaps them in. Runs off the main thread; concurrent syncs wait
+     * for each other, but a reload only waits for the swap.
+     */
+    private synchronized void syncTags() {
+        Map<String, TagVersion> remote = databaseManager.getTagVersions();
+        if (remote == null) return;
+
+        Set<String> changed = new HashSet<>();
+        Set<String> removed = new HashSet<>();
+        for (Map.Entry<String, TagVersion> entry : remote.entrySet()) {
+            String category = entry.getKey();
+            TagVersion version = entry.getValue();
+            TagVersion local = loadedVersions.get(category);
+            if (version.isDeleted()) {
+                rejectedVersions.remove(category);
+                if (local != null) removed.add(category);
+            } else if (local == null || local.getVersion() != version.getVersion()) {
+                TagVersion rejected = rejectedVersions.get(category);
+                if (local != null && local.getHash().equals(version.getHash())) {
+                    // Same content under a new version, nothing to parse
+                    loadedVersions.put(category, version);
+                } else if (rejected == null || !rejected.getHash().equals(version.getHash())) {
+                    changed.add(category);
+                }
+            }
+        }
+        for (String category : loadedVersions.keySet()) {
+            if (!remote.containsKey(category)) removed.add(category);
+        }
+        if (changed.isEmpty() && removed.isEmpty()) return;
+
+        Map<String, String> configs = databaseManager.getTagConfigs(changed);
+        if (configs == null) return;
+
+        Map<String, LoadedCategory> parsed = parseCategories(configs);
+        synchronized (swapLock) {
+            for (String category : changed) {
+                LoadedCategory loaded = parsed.get(category);
+                if (loaded != null) {
+                    applyCategory(category, loaded);
+                    loadedVersions.put(category, remote.get(category));
+                    rejectedVersions.remove(category);
+                } else if (configs.containsKey(category)) {
+                    // Broken config, keep what is loaded until the category changes again
+                    rejectedVersions.put(category, remote.get(category));
+                } else {
+                    // Deleted between reading versions and configs
+                    removed.add(category);
+                }
+            }
+            for (String category : removed) {
+                removeCategory(category);
+                loadedVersions.remove(category);
+            }
+        }
+
+        plugin.getLogger().info("Remote tag update applied (" + changed.size() + " changed, " + removed.size() + " removed).");
+        RenderCache.invalidateAll();
+        PlaceholderResolver.invalidateAll();
+    }
+
     public void loadTags() {
-        tagsByCategory.clear();
-        defaultValues.clear();
-        categorySelectionMessages.clear();
-        categoryMeta.clear();
-        
         // 1. Try to load from Database (Primary Source)
         boolean loadedFromDB = false;
+        Map<String, LoadedCategory> parsed = new HashMap<>();
+        Map<String, TagVersion> versions = new HashMap<>();
+        Map<String, String> dbConfigs = new HashMap<>();
+        boolean readFailed = false;
         if (databaseManager != null) {
-            localTagVersion = databaseManager.getTagSyncVersion();
-            Map<String, String> dbConfigs = databaseManager.getAllTagConfigs();
-            if (!dbConfigs.isEmpty()) {
+            Map<String, TagVersion> remote = databaseManager.getTagVersions();
+            if (remote != null) {
+                remote.forEach((category, version) -> {
+                    if (!version.isDeleted()) versions.put(category, version);
+                });
+                dbConfigs = databaseManager.getTagConfigs(versions.keySet());
+            }
+            if (remote == null || dbConfigs == null) {
+                // Keep what is loaded, the next sync retries
+                plugin.getLogger().warning("Could not read tags from database, keeping the currently loaded tags.");
+                readFailed = true;
+                loadedFromDB = !tagsByCategory.isEmpty();
+            } else if (!dbConfigs.isEmpty()) {
                 plugin.getLogger().info("Loading tags from database (" + dbConfigs.size() + " categories)...");
-                for (Map.Entry<String, String> entry : dbConfigs.entrySet()) {
-                    String category = entry.getKey();
-                    String content = entry.getValue();
-                    try {
-                        YamlConfiguration config = YamlConfiguration.loadConfiguration(new StringReader(content));
-                        loadTagsFromConfig(config, category);
-                    } catch (Exception e) {
-                        plugin.getLogger().log(Level.SEVERE, "Failed to parse tag config from DB for category: " + category, e);
+                parsed = parseCategories(dbConfigs);
+                loadedFromDB = true;
+            }
+        }
+
+        // Swap in the new categories without clearing first, so chat never sees an empty tag set
+        if (!readFailed) {
+            synchronized (swapLock) {
+                Set<String> stale = new HashSet<>(categoryMeta.keySet());
+                stale.addAll(tagsByCategory.keySet());
+                stale.removeAll(parsed.keySet());
+                stale.forEach(this::removeCategory);
+                parsed.forEach(this::applyCategory);
+                loadedVersions.clear();
+                rejectedVersions.clear();
+                for (Map.Entry<String, TagVersion> entry : versions.entrySet()) {
+                    if (parsed.containsKey(entry.getKey())) {
+                        loadedVersions.put(entry.getKey(), entry.getValue());
+                    } else if (dbConfigs.containsKey(entry.getKey())) {
+                        rejectedVersions.put(entry.getKey(), entry.getValue());
                     }
                 }
-                loadedFromDB = true;
             }
         }
         
@@ -104,6 +190,45 @@ public class TagManager {
         }
         
         plugin.getLogger().info("Loaded " + tagsByCategory.size() + " tag categories.");
+        RenderCache.invalidateAll();
+        PlaceholderResolver.invalidateAll();
+    }
+
+    private Map<String, LoadedCategory> parseCategories(Map<String, String> configs) {
+        Map<String, LoadedCategory> parsed = new HashMap<>();
+        for (Map.Entry<String, String> entry : configs.entrySet()) {
+            String category = entry.getKey();
+            try {
+                YamlConfiguration config = YamlConfiguration.loadConfiguration(new StringReader(entry.getValue()));
+                parsed.put(category, loadTagsFromConfig(config, category));
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to parse tag config from DB for category: " + category, e);
+            }
+        }
+        return parsed;
+    }
+
+    private void applyCategory(String category, LoadedCategory loaded) {
+        if (loaded.selectionMessage != null) {
+            categorySelectionMessages.put(category, loaded.selectionMessage);
+        } else {
+            categorySelectionMessages.remove(category);
+        }
+        defaultValues.put(category, loaded.defaultValue);
+        categoryMeta.put(category, loaded.meta);
+        // Tags go last, they make the category visible
+        if (loaded.tags != null) {
+            tagsByCategory.put(category, loaded.tags);
+        } else {
+            tagsByCategory.remove(category);
+        }
+    }
+
+    private void removeCategory(String category) {
+        tagsByCategory.remove(category);
+        categoryMeta.remove(category);
+        defaultValues.remove(category);
+        categorySelectionMessages.remove(category);
     }
     
     public void importToDatabase(String category) {
@@ -115,10 +240,9 @@ public class TagManager {
                 try {
                     String content = Files.readString(file.toPath(), StandardCharsets.UTF_8);
                     databaseManager.saveTagConfig(category, content);
-                    databaseManager.updateTagSyncVersion();
                     plugin.getLogger().info("Imported category '" + category + "' to database.");
-                    // Optional: Reload tags to reflect changes immediately
-                    org.bukkit.Bukkit.getScheduler().runTask(plugin, this::loadTags);
+                    // Apply the change here right away instead of waiting for the next poll
+                    syncTags();
                 } catch (IOException e) {
                     plugin.getLogger().log(Level.SEVERE, "Failed to read tag file for import: " + category, e);
                 }
@@ -133,11 +257,10 @@ public class TagManager {
         
         CompletableFuture.runAsync(() -> {
             databaseManager.deleteTagConfig(category);
-            databaseManager.updateTagSyncVersion();
             plugin.getLogger().info("Deleted category '" + category + "' from database.");
             
-            // Reload tags to reflect changes (remove from memory)
-            org.bukkit.Bukkit.getScheduler().runTask(plugin, this::loadTags);
+            // Remove it from memory right away instead of waiting for the next poll
+            syncTags();
         });
     }
 
@@ -152,14 +275,15 @@ public class TagManager {
         }
     }
 
-    private void loadTagsFromConfig(YamlConfiguration config, String category) {
+    private LoadedCategory loadTagsFromConfig(YamlConfiguration config, String category) {
+        LoadedCategory loaded = new LoadedCategory();
         String selectionMsg = config.getString("selection-message");
         if (selectionMsg != null && !selectionMsg.isEmpty()) {
-            categorySelectionMessages.put(category, selectionMsg);
+            loaded.selectionMessage = selectionMsg;
         }
         
         String defaultValue = config.getString("default-value", "");
-        defaultValues.put(category, defaultValue);
+        loaded.defaultValue = defaultValue;
         
         // Metadata
         String displayName = config.getString("title", category);
@@ -217,12 +341,12 @@ public class TagManager {
             GUIUtil.parseSlots(slotStr, tagSlots);
         }
         
-        categoryMeta.put(category, new CategoryMeta(displayName, menuTitle, menuRows, tagSlots, fillers, buttons, bedrockTitle, bedrockContent, bedrockDefaultIcon, tagsPerPage, expirationMessage, expirationTitle, expirationSubtitle, expirationActionBar));
+        loaded.meta = new CategoryMeta(displayName, menuTitle, menuRows, tagSlots, fillers, buttons, bedrockTitle, bedrockContent, bedrockDefaultIcon, tagsPerPage, expirationMessage, expirationTitle, expirationSubtitle, expirationActionBar);
         
         ConfigurationSection tagsSection = config.getConfigurationSection("tags");
         if (tagsSection == null) {
             plugin.getLogger().warning("Configuration for " + category + " does not have a 'tags' section.");
-            return;
+            return loaded;
         }
 
         Map<String, Tag> categoryTags = new HashMap<>();
@@ -320,27 +444,33 @@ public class TagManager {
             }
         }
 
-        tagsByCategory.put(category, categoryTags);
+        loaded.tags = categoryTags;
+        return loaded;
     }
 
     public void loadPlayerTags(Player player) {
         if (databaseManager == null) return;
         
-        CompletableFuture.runAsync(() -> {
-            Map<String, String> loadedTags = new HashMap<>();
-            for (String category : tagsByCategory.keySet()) {
-                String tagId = databaseManager.getPlayerTag(player.getUniqueId().toString(), category);
-                if (tagId != null) {
+        // Usually preloaded before join, so this completes right away
+        databaseManager.getPlayerData(player.getUniqueId()).thenAccept(data -> {
+            if (!player.isOnline()) return;
+            Map<String, String> loadedTags = new ConcurrentHashMap<>();
+            data.getTags().forEach((category, tagId) -> {
+                if (tagsByCategory.containsKey(category)) {
                     loadedTags.put(category, tagId);
                 }
-            }
+            });
             playerActiveTags.put(player.getUniqueId(), loadedTags);
+            RenderCache.invalidate(player.getUniqueId());
+            PlaceholderResolver.invalidate(player.getUniqueId());
         });
     }
 
     public void unloadPlayerTags(Player player) {
         playerActiveTags.remove(player.getUniqueId());
         playerRandomSelections.remove(player.getUniqueId());
+        RenderCache.invalidate(player.getUniqueId());
+        PlaceholderResolver.invalidate(player.getUniqueId());
     }
 
     public void setPlayerTag(Player player, String category, String tagId) {
@@ -354,11 +484,11 @@ public class TagManager {
         if (!tagId.equals("__random__") && playerRandomSelections.containsKey(player.getUniqueId())) {
             playerRandomSelections.get(player.getUniqueId()).remove(category);
         }
+        RenderCache.invalidate(player.getUniqueId());
+        PlaceholderResolver.invalidate(player.getUniqueId());
 
         if (databaseManager != null) {
-            CompletableFuture.runAsync(() -> {
-                databaseManager.setPlayerTag(player.getUniqueId().toString(), category, tagId);
-            });
+            databaseManager.setPlayerTag(player.getUniqueId().toString(), category, tagId);
         }
     }
 
@@ -371,11 +501,11 @@ public class TagManager {
         if (playerRandomSelections.containsKey(player.getUniqueId())) {
             playerRandomSelections.get(player.getUniqueId()).remove(category);
         }
+        RenderCache.invalidate(player.getUniqueId());
+        PlaceholderResolver.invalidate(player.getUniqueId());
 
         if (databaseManager != null) {
-            CompletableFuture.runAsync(() -> {
-                databaseManager.removePlayerTag(player.getUniqueId().toString(), category);
-            });
+            databaseManager.removePlayerTag(player.getUniqueId().toString(), category);
         }
     }
 
@@ -455,6 +585,16 @@ public class TagManager {
         return categoryMeta.get(category);
     }
     
+    /**
+     * Everything parsed from one category config, applied to the lookup maps together
+     */
+    private static final class LoadedCategory {
+        private String selectionMessage;
+        private String defaultValue;
+        private CategoryMeta meta;
+        private Map<String, Tag> tags;
+    }
+    
     @lombok.Getter
     @lombok.AllArgsConstructor
     public static class CategoryMeta {
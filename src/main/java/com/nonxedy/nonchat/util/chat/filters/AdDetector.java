@@ -10,6 +10,7 @@ import org.bukkit.entity.Player;
 
 import com.nonxedy.nonchat.api.MessageFilter;
 import com.nonxedy.nonchat.config.PluginConfig;
+import com.nonxedy.nonchat.util.core.permissions.PermissionCache;
 
 import me.clip.placeholderapi.PlaceholderAPI;
 
@@ -28,28 +29,41 @@ public class AdDetector implements MessageFilter {
 
     @Override
     public boolean shouldFilter(Player player, String message) {
-        if (player.hasPermission("nonchat.ad.bypass")) {
+        if (PermissionCache.has(player, PermissionCache.AD_BYPASS)) {
             return false;
         }
+        return detect(player, ScannedMessage.of(message)) != null;
+    }
 
-        Matcher matcher = pattern.matcher(message);
-        while (matcher.find()) {
-            String matched = matcher.group();
-            if (!isWhitelisted(matched)) {
-                notifyStaff(player, message);
-                return true;
+    /**
+     * Checks an already scanned message for advertisements, notifying staff on a hit.
+     * Bypass permission is not checked here.
+     * @param player The sender
+     * @param message The scanned message
+     * @return The matched advertisement, or null if none was found
+     */
+    public String detect(Player player, ScannedMessage message) {
+        // The URL pattern needs a host-like token, skip the regex when there is none
+        if (message.isUrlCandidate()) {
+            Matcher matcher = pattern.matcher(message.getRaw());
+            while (matcher.find()) {
+                String matched = matcher.group();
+                if (!isWhitelisted(matched)) {
+                    notifyStaff(player, message.getRaw());
+                    return matched;
+                }
             }
         }
 
         // Additional checks based on sensitivity
         if (sensitivity > 0.5f) {
-            if (detectCommonAdTerms(message)) {
-                notifyStaff(player, message);
-                return true;
+            if (detectCommonAdTerms(message.getLower())) {
+                notifyStaff(player, message.getRaw());
+                return message.getRaw();
             }
         }
 
-        return false;
+        return null;
     }
 
     private boolean isWhitelisted(String url) {
@@ -61,8 +75,7 @@ public class AdDetector implements MessageFilter {
         return false;
     }
 
-    private boolean detectCommonAdTerms(String message) {
-        String lower = message.toLowerCase();
+    private boolean detectCommonAdTerms(String lower) {
         return lower.contains("join") && lower.contains("server") ||
                lower.contains("ip") && lower.contains("play");
     }
@@ -0,0 +1,160 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over the banned word list.
+ * Built once per configuration load; finds any banned word in time linear
+ * in the message length regardless of how many words are configured.
+ * Matching is case-insensitive, the same as a lowercase {@code contains} per word.
+ */
+public class BannedWordMatcher {
+    private static final int ROOT = 0;
+
+    /** Sorted transition characters per node */
+    private final char[][] edgeChars;
+    /** Target node per transition, parallel to {@link #edgeChars} */
+    private final int[][] edgeTargets;
+    /** Failure link per node */
+    private final int[] fail;
+    /** Index of a word ending at this node or reachable through failure links, -1 if none */
+    private final int[] output;
+    /** Words as configured, reported back on a match */
+    private final String[] words;
+
+    /**
+     * Builds the automaton
+     * @param bannedWords Words to match, empty entries are ignored
+     */
+    public BannedWordMatcher(List<String> bannedWords) {
+        List<String> accepted = new ArrayList<>();
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        terminal.add(-1);
+
+        for (String word : bannedWords) {
+            if (word == null || word.isEmpty()) {
+                continue;
+            }
+            String lower = toLowerCase(word);
+            int node = ROOT;
+            for (int i = 0; i < lower.length(); i++) {
+                char c = lower.charAt(i);
+                Integer next = trie.get(node).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    terminal.add(-1);
+                    trie.get(node).put(c, next);
+                }
+                node = next;
+            }
+            if (terminal.get(node) < 0) {
+                terminal.set(node, accepted.size());
+            }
+            accepted.add(word);
+        }
+
+        int size = trie.size();
+        this.words = accepted.toArray(new String[0]);
+        this.edgeChars = new char[size][];
+        this.edgeTargets = new int[size][];
+        this.fail = new int[size];
+        this.output = new int[size];
+
+        for (int node = 0; node < size; node++) {
+            TreeMap<Character, Integer> edges = trie.get(node);
+            char[] chars = new char[edges.size()];
+            int[] targets = new int[edges.size()];
+            int i = 0;
+            for (var entry : edges.entrySet()) {
+                chars[i] = entry.getKey();
+                targets[i] = entry.getValue();
+                i++;
+            }
+            edgeChars[node] = chars;
+            edgeTargets[node] = targets;
+            output[node] = terminal.get(node);
+        }
+
+        // Breadth-first pass to compute failure links and merged outputs
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[ROOT]) {
+            fail[child] = ROOT;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < edgeChars[node].length; i++) {
+                char c = edgeChars[node][i];
+                int child = edgeTargets[node][i];
+                int f = fail[node];
+                int target;
+                while ((target = step(f, c)) < 0 && f != ROOT) {
+                    f = fail[f];
+                }
+                fail[child] = target < 0 ? ROOT : target;
+                if (output[child] < 0) {
+                    output[child] = output[fail[child]];
+                }
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Finds the first banned word contained in the text
+     * @param lowerText Text already converted with {@link #toLowerCase(String)}
+     * @return The banned word as configured, or null if none matched
+     */
+    public String findFirst(String lowerText) {
+        if (words.length == 0) {
+            return null;
+        }
+        int node = ROOT;
+        for (int i = 0; i < lowerText.length(); i++) {
+            char c = lowerText.charAt(i);
+            int next;
+            while ((next = step(node, c)) < 0 && node != ROOT) {
+                node = fail[node];
+            }
+            node = next < 0 ? ROOT : next;
+            if (output[node] >= 0) {
+                return words[output[node]];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of words in the automaton
+     * @return Word count
+     */
+    public int size() {
+        return words.length;
+    }
+
+    private int step(int node, char c) {
+        int index = Arrays.binarySearch(edgeChars[node], c);
+        return index < 0 ? -1 : edgeTargets[node][index];
+    }
+
+    /**
+     * Lowercases text character by character, the same way {@link ScannedMessage} does
+     * @param text Text to convert
+     * @return Lowercase text
+     */
+    public static String toLowerCase(String text) {
+        char[] chars = new char[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(text.charAt(i));
+        }
+        return new String(chars);
+    }
+}
@@ -24,20 +24,32 @@ public class CapsFilter {
         if (!this.enabled) {
             return false;
         }
-        
-        // Then check message length
-        if (message.length() < this.minLength) {
-            return false;
-        }
 
         int capsCount = 0;
-        for (char c : message.toCharArray()) {
-            if (Character.isUpperCase(c)) {
+        for (int i = 0; i < message.length(); i++) {
+            if (Character.isUpperCase(message.charAt(i))) {
                 capsCount++;
             }
         }
+        return shouldFilter(message.length(), capsCount);
+    }
+
+    /**
+     * Determines if a scanned message should be filtered for excessive caps
+     * @param message The scanned message
+     * @return true if message exceeds caps limit, false otherwise
+     */
+    public boolean shouldFilter(ScannedMessage message) {
+        return this.enabled && shouldFilter(message.length(), message.getUpperCount());
+    }
+
+    private boolean shouldFilter(int length, int capsCount) {
+        // Check message length
+        if (length < this.minLength || length == 0) {
+            return false;
+        }
 
-        double percentage = (double) capsCount / message.length() * 100;
+        double percentage = (double) capsCount / length * 100;
         return percentage > this.maxCapsPercentage;
     }
 
@@ -1,84 +1,304 @@
 package com.nonxedy.nonchat.util.chat.filters;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.Arrays;
 import java.util.UUID;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 
 /**
  * Stores message history for a player
- * Tracks messages with timestamps for spam detection
+ * Tracks messages with timestamps for spam detection.
+ * Messages are kept in a fixed-capacity ring buffer of (timestamp, content hash, normalised text, similarity sketch)
+ * so memory per player is bounded. Each spam window (repetitive, similar, flood) keeps a pointer
+ * to its oldest entry and the repetitive window keeps per-hash counts, so window counts are
+ * maintained incrementally instead of rescanning the history.
  */
-@Data
-@AllArgsConstructor
 public class MessageHistory {
-    private UUID playerUuid;
-    private List<MessageEntry> messages;
+    @Getter
+    private final UUID playerUuid;
 
-    public MessageHistory(UUID playerUuid) {
+    private long[] timestamps;
+    private long[] hashes;
+    private long[] sketches;
+    private String[] normalizedMessages;
+    private int capacity;
+    /** Sequence number of the next message, the slot is seq % capacity */
+    private long nextSeq;
+    private int size;
+
+    private final Window repetitiveWindow = new Window();
+    private final Window similarWindow = new Window();
+    private final Window floodWindow = new Window();
+    private RepeatCounter repeatCounts;
+
+    public MessageHistory(UUID playerUuid, int capacity, int repetitiveWindowSeconds,
+                          int similarWindowSeconds, int floodWindowSeconds) {
         this.playerUuid = playerUuid;
-        this.messages = new ArrayList<>();
+        this.capacity = Math.max(1, capacity);
+        this.timestamps = new long[this.capacity];
+        this.hashes = new long[this.capacity];
+        this.sketches = new long[this.capacity];
+        this.normalizedMessages = new String[this.capacity];
+        this.repeatCounts = new RepeatCounter(this.capacity);
+        this.repetitiveWindow.millis = repetitiveWindowSeconds * 1000L;
+        this.similarWindow.millis = similarWindowSeconds * 1000L;
+        this.floodWindow.millis = floodWindowSeconds * 1000L;
+    }
+
+    /**
+     * Applies new capacity and window settings, rebuilding counters only if something changed
+     * @param capacity Maximum number of messages kept
+     * @param repetitiveWindowSeconds Repetitive spam window
+     * @param similarWindowSeconds Similar spam window
+     * @param floodWindowSeconds Flood window
+     */
+    public void configure(int capacity, int repetitiveWindowSeconds, int similarWindowSeconds, int floodWindowSeconds) {
+        capacity = Math.max(1, capacity);
+        if (capacity == this.capacity
+                && repetitiveWindow.millis == repetitiveWindowSeconds * 1000L
+                && similarWindow.millis == similarWindowSeconds * 1000L
+                && floodWindow.millis == floodWindowSeconds * 1000L) {
+            return;
+        }
+
+        if (capacity != this.capacity) {
+            // Keep the most recent messages that still fit
+            int keep = Math.min(size, capacity);
+            long[] newTimestamps = new long[capacity];
+            long[] newHashes = new long[capacity];
+            long[] newSketches = new long[capacity];
+            String[] newMessages = new String[capacity];
+            for (long seq = nextSeq - keep; seq < nextSeq; seq++) {
+                int from = slot(seq);
+                int to = (int) (seq % capacity);
+                newTimestamps[to] = timestamps[from];
+                newHashes[to] = hashes[from];
+                newSketches[to] = sketches[from];
+                newMessages[to] = normalizedMessages[from];
+            }
+            this.timestamps = newTimestamps;
+            this.hashes = newHashes;
+            this.sketches = newSketches;
+            this.normalizedMessages = newMessages;
+            this.capacity = capacity;
+            this.size = keep;
+            this.repeatCounts = new RepeatCounter(capacity);
+        }
+
+        repetitiveWindow.millis = repetitiveWindowSeconds * 1000L;
+        similarWindow.millis = similarWindowSeconds * 1000L;
+        floodWindow.millis = floodWindowSeconds * 1000L;
+
+        // Restart every window from the oldest kept message, they catch up on the next query
+        long oldest = nextSeq - size;
+        repetitiveWindow.start = oldest;
+        similarWindow.start = oldest;
+        floodWindow.start = oldest;
+        repeatCounts.clear();
+        for (long seq = oldest; seq < nextSeq; seq++) {
+            repeatCounts.increment(hashes[slot(seq)]);
+        }
     }
 
     /**
      * Adds a new message to the history
      * @param message The message content
+     * @param normalizedMessage The lowercase, trimmed message content
      * @param timestamp The timestamp when the message was sent
      */
-    public void addMessage(String message, long timestamp) {
-        messages.add(new MessageEntry(message, timestamp));
+    public void addMessage(String message, String normalizedMessage, long timestamp) {
+        if (size == capacity) {
+            // Evict the oldest message, dropping it from the repetitive counts if still inside that window
+            long evicted = nextSeq - capacity;
+            if (repetitiveWindow.start <= evicted) {
+                repeatCounts.decrement(hashes[slot(evicted)]);
+                repetitiveWindow.start = evicted + 1;
+            }
+        } else {
+            size++;
+        }
+
+        int slot = slot(nextSeq);
+        timestamps[slot] = timestamp;
+        hashes[slot] = hash(message);
+        sketches[slot] = TextSimilarityUtil.sketch(normalizedMessage);
+        normalizedMessages[slot] = normalizedMessage;
+        repeatCounts.increment(hashes[slot]);
+        nextSeq++;
     }
 
     /**
-     * Gets all messages within a time window
-     * @param timeWindowSeconds Time window in seconds
-     * @return List of messages within the time window
+     * Counts messages identical to the given one within the repetitive window
+     * @param messageHash Hash of the message from {@link #hash(String)}
+     * @param currentTime Current time in milliseconds
+     * @return Number of identical messages
      */
-    public List<MessageEntry> getMessagesInTimeWindow(int timeWindowSeconds) {
-        long currentTime = System.currentTimeMillis();
-        long windowStart = currentTime - (timeWindowSeconds * 1000L);
-        List<MessageEntry> result = new ArrayList<>();
-
-        for (MessageEntry entry : messages) {
-            if (entry.getTimestamp() >= windowStart) {
-                result.add(entry);
-            }
-        }
+    public int getRepeatCount(long messageHash, long currentTime) {
+        advance(repetitiveWindow, currentTime, true);
+        return repeatCounts.get(messageHash);
+    }
 
-        return result;
+    /**
+     * Counts messages within the flood window
+     * @param currentTime Current time in milliseconds
+     * @return Number of messages
+     */
+    public int getFloodCount(long currentTime) {
+        advance(floodWindow, currentTime, false);
+        return (int) (nextSeq - floodWindow.start);
     }
 
     /**
-     * Cleans up old messages outside the maximum time window
-     * @param maxTimeWindowSeconds Maximum time window to keep messages for
+     * Counts messages within the similar window, newest first when accessed by age
+     * @param currentTime Current time in milliseconds
+     * @return Number of messages, valid ages are 0 (newest) to count - 1
      */
-    public void cleanupOldMessages(int maxTimeWindowSeconds) {
-        long currentTime = System.currentTimeMillis();
-        long cutoffTime = currentTime - (maxTimeWindowSeconds * 1000L);
+    public int getSimilarCount(long currentTime) {
+        advance(similarWindow, currentTime, false);
+        return (int) (nextSeq - similarWindow.start);
+    }
 
-        messages.removeIf(entry -> entry.getTimestamp() < cutoffTime);
+    /**
+     * Gets the normalised text of a message by age
+     * @param age 0 for the newest message
+     * @return Normalised message
+     */
+    public String getNormalizedMessage(int age) {
+        return normalizedMessages[slot(nextSeq - 1 - age)];
     }
 
     /**
-     * Gets the count of messages within a time window
-     * @param timeWindowSeconds Time window in seconds
-     * @return Number of messages in the time window
+     * Gets the similarity sketch of a message by age
+     * @param age 0 for the newest message
+     * @return Sketch from {@link TextSimilarityUtil#sketch(String)}
      */
-    public int getMessageCountInTimeWindow(int timeWindowSeconds) {
-        return getMessagesInTimeWindow(timeWindowSeconds).size();
+    public long getSketch(int age) {
+        return sketches[slot(nextSeq - 1 - age)];
     }
 
     /**
-     * Represents a single message entry with timestamp
+     * Gets the content hash of a message by age
+     * @param age 0 for the newest message
+     * @return Content hash
      */
-    @Data
-    @AllArgsConstructor
-    public static class MessageEntry {
-        private String message;
-        private long timestamp;
+    public long getHash(int age) {
+        return hashes[slot(nextSeq - 1 - age)];
+    }
+
+    /**
+     * Gets the number of stored messages
+     * @return Message count, at most the capacity
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Computes the 64-bit content hash used to compare messages
+     * @param message Message content
+     * @return Hash (FNV-1a over UTF-16 chars, with a final avalanche)
+     */
+    public static long hash(String message) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < message.length(); i++) {
+            h ^= message.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
     }
-}
 
+    private void advance(Window window, long currentTime, boolean trackRepeats) {
+        long oldest = nextSeq - size;
+        if (window.start < oldest) {
+            // Entries were evicted while still inside the window, repeats are handled on eviction
+            window.start = oldest;
+        }
+        long cutoff = currentTime - window.millis;
+        while (window.start < nextSeq && timestamps[slot(window.start)] < cutoff) {
+            if (trackRepeats) {
+                repeatCounts.decrement(hashes[slot(window.start)]);
+            }
+            window.start++;
+        }
+    }
+
+    private int slot(long seq) {
+        return (int) (seq % capacity);
+    }
+
+    /**
+     * Sliding window over the ring, start is the sequence number of its oldest message
+     */
+    private static final class Window {
+        private long millis;
+        private long start;
+    }
+
+    /**
+     * Open-addressing hash to count map, sized for the ring capacity so it never resizes
+     */
+    private static final class RepeatCounter {
+        private final long[] keys;
+        private final int[] counts;
+        private final int mask;
+
+        private RepeatCounter(int capacity) {
+            int tableSize = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+            this.keys = new long[tableSize];
+            this.counts = new int[tableSize];
+            this.mask = tableSize - 1;
+        }
+
+        private int get(long key) {
+            for (int i = index(key); counts[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return counts[i];
+                }
+            }
+            return 0;
+        }
+
+        private void increment(long key) {
+            int i = index(key);
+            while (counts[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            counts[i]++;
+        }
+
+        private void decrement(long key) {
+            int i = index(key);
+            while (counts[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (counts[i] == 0 || --counts[i] > 0) {
+                return;
+            }
+
+            // Backward-shift deletion keeps probe chains intact without tombstones
+            int hole = i;
+            for (int j = (hole + 1) & mask; counts[j] != 0; j = (j + 1) & mask) {
+                int home = index(keys[j]);
+                boolean movable = hole <= j ? (home <= hole || home > j) : (home <= hole && home > j);
+                if (movable) {
+                    keys[hole] = keys[j];
+                    counts[hole] = counts[j];
+                    counts[j] = 0;
+                    hole = j;
+                }
+            }
+        }
+
+        private void clear() {
+            Arrays.fill(counts, 0);
+        }
+
+        private int index(long key) {
+            return (int) (key ^ (key >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import com.nonxedy.nonchat.config.PluginConfig;
+import com.nonxedy.nonchat.config.PluginMessages;
+import com.nonxedy.nonchat.util.chat.filters.ModerationVerdict.Rule;
+import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+import com.nonxedy.nonchat.util.core.permissions.PermissionCache;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Runs every moderation rule against a message that is normalised only once.
+ * Rules are evaluated in a fixed order (blocked words, caps, spam, advertisements)
+ * and the first rule that fires decides the verdict.
+ */
+public class ModerationScanner {
+
+    private final PluginConfig config;
+    private final PluginMessages messages;
+    private final AdDetector adDetector;
+    private final SpamDetector spamDetector;
+
+    public ModerationScanner(PluginConfig config, PluginMessages messages, AdDetector adDetector, SpamDetector spamDetector) {
+        this.config = config;
+        this.messages = messages;
+        this.adDetector = adDetector;
+        this.spamDetector = spamDetector;
+    }
+
+    /**
+     * Scans a message against all enabled rules the player does not bypass
+     * @param player The sender
+     * @param message The raw message
+     * @return Verdict recording the rule that fired, or {@link ModerationVerdict#ALLOWED}
+     */
+    public ModerationVerdict scan(Player player, String message) {
+        ScannedMessage scanned = ScannedMessage.of(message);
+
+        if (!PermissionCache.has(player, PermissionCache.ANTI_BLOCKED_WORDS)) {
+            String term = config.getWordBlocker().findBlockedTerm(scanned);
+            if (term != null) {
+                notifyStaff(player, message, term);
+                return new ModerationVerdict(Rule.BLOCKED_WORD, term);
+            }
+        }
+
+        if (!PermissionCache.has(player, PermissionCache.CAPS_BYPASS) && config.getCapsFilter().shouldFilter(scanned)) {
+            return new ModerationVerdict(Rule.CAPS, null);
+        }
+
+        if (config.isAntiSpamEnabled() && !PermissionCache.has(player, PermissionCache.SPAM_BYPASS)) {
+            String spamType = spamDetector.detect(player, scanned);
+            if (spamType != null) {
+                return new ModerationVerdict(Rule.SPAM, spamType);
+            }
+        }
+
+        if (config.isAntiAdEnabled() && !PermissionCache.has(player, PermissionCache.AD_BYPASS)) {
+            String advertisement = adDetector.detect(player, scanned);
+            if (advertisement != null) {
+                return new ModerationVerdict(Rule.ADVERTISEMENT, advertisement);
+            }
+        }
+
+        return ModerationVerdict.ALLOWED;
+    }
+
+    /**
+     * Notifies staff members which banned term a player used
+     * @param player The sender
+     * @param message The blocked message
+     * @param term The matched word or pattern
+     */
+    private void notifyStaff(Player player, String message, String term) {
+        String template = messages.getString("blocked-word-detected");
+        if (template == null || template.isEmpty()) {
+            return;
+        }
+
+        Component notification = ColorUtil.parseComponentCached(template
+            .replace("{player}", player.getName())
+            .replace("{word}", term)
+            .replace("{message}", message));
+
+        Bukkit.getOnlinePlayers().stream()
+            .filter(p -> p.hasPermission("nonchat.blockedwords.notify"))
+            .forEach(p -> p.sendMessage(notification));
+        Bukkit.getConsoleSender().sendMessage(notification);
+    }
+}
@@ -0,0 +1,40 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import lombok.Getter;
+
+/**
+ * Result of a moderation scan, recording which rule (if any) blocked the message
+ */
+@Getter
+public class ModerationVerdict {
+    /** Verdict for messages that passed every rule */
+    public static final ModerationVerdict ALLOWED = new ModerationVerdict(Rule.NONE, null);
+
+    /**
+     * Moderation rules evaluated by the scanner, in evaluation order
+     */
+    public enum Rule {
+        NONE,
+        BLOCKED_WORD,
+        CAPS,
+        SPAM,
+        ADVERTISEMENT
+    }
+
+    private final Rule rule;
+    /** Rule specific detail: matched term, spam type or matched URL */
+    private final String detail;
+
+    public ModerationVerdict(Rule rule, String detail) {
+        this.rule = rule;
+        this.detail = detail;
+    }
+
+    /**
+     * Checks if the message was blocked
+     * @return true if any rule fired
+     */
+    public boolean isBlocked() {
+        return rule != Rule.NONE;
+    }
+}
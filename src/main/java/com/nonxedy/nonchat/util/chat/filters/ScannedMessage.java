@@ -0,0 +1,149 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import lombok.Getter;
+
+/**
+ * A chat message normalised in a single pass over its characters.
+ * Holds every view of the message the moderation filters need so that
+ * no filter has to strip, lowercase or copy the message again.
+ */
+@Getter
+public class ScannedMessage {
+    /** Message exactly as sent */
+    private final String raw;
+    /** Lowercase message */
+    private final String lower;
+    /** Lowercase, trimmed message used for spam comparisons */
+    private final String normalized;
+    /** Message with colour codes and MiniMessage tags removed */
+    private final String stripped;
+    /** Lowercase message with colour codes and MiniMessage tags removed */
+    private final String strippedLower;
+    /** Number of uppercase characters in the raw message */
+    private final int upperCount;
+    /** Whether the message contains a host-like token (word[.:]word) that the URL pattern could match */
+    private final boolean urlCandidate;
+
+    private ScannedMessage(String raw, String lower, String stripped, String strippedLower,
+                           int upperCount, boolean urlCandidate) {
+        this.raw = raw;
+        this.lower = lower;
+        this.normalized = lower.trim();
+        this.stripped = stripped;
+        this.strippedLower = strippedLower;
+        this.upperCount = upperCount;
+        this.urlCandidate = urlCandidate;
+    }
+
+    /**
+     * Scans a message once, producing all normalised views
+     * @param message The message to scan
+     * @return Scanned message
+     */
+    public static ScannedMessage of(String message) {
+        if (message == null) {
+            message = "";
+        }
+
+        int length = message.length();
+        StringBuilder lower = new StringBuilder(length);
+        StringBuilder stripped = new StringBuilder(length);
+        StringBuilder strippedLower = new StringBuilder(length);
+        int upperCount = 0;
+        boolean urlCandidate = false;
+        // Index up to which characters belong to a colour code or tag
+        int skipUntil = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = message.charAt(i);
+            char lc = Character.toLowerCase(c);
+            lower.append(lc);
+
+            if (Character.isUpperCase(c)) {
+                upperCount++;
+            }
+
+            if (!urlCandidate && (c == '.' || c == ':') && i > 0 && i + 1 < length
+                    && isHostChar(message.charAt(i - 1)) && isWordChar(message.charAt(i + 1))) {
+                urlCandidate = true;
+            }
+
+            if (i < skipUntil) {
+                continue;
+            }
+
+            int codeLength = colorCodeLength(message, i);
+            if (codeLength > 0) {
+                skipUntil = i + codeLength;
+                continue;
+            }
+
+            stripped.append(c);
+            strippedLower.append(lc);
+        }
+
+        return new ScannedMessage(message, lower.toString(), stripped.toString(),
+                strippedLower.toString(), upperCount, urlCandidate);
+    }
+
+    /**
+     * Gets the length of the raw message
+     * @return Message length
+     */
+    public int length() {
+        return raw.length();
+    }
+
+    /**
+     * Gets the length of the colour code or MiniMessage tag starting at the given index
+     * @param message Message to inspect
+     * @param i Index to check
+     * @return Code length, or 0 if no code starts here
+     */
+    public static int colorCodeLength(String message, int i) {
+        char c = message.charAt(i);
+        int length = message.length();
+
+        if (c == '&' && i + 1 < length) {
+            char next = message.charAt(i + 1);
+            // Hex colour (&#RRGGBB)
+            if (next == '#' && i + 7 < length && isHex(message, i + 2, 6)) {
+                return 8;
+            }
+            if (isLegacyCode(next)) {
+                return 2;
+            }
+        } else if (c == '§' && i + 1 < length && isLegacyCode(message.charAt(i + 1))) {
+            return 2;
+        } else if (c == '<') {
+            int close = message.indexOf('>', i + 1);
+            if (close > i + 1) {
+                return close - i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isLegacyCode(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f')
+                || c == 'k' || c == 'l' || c == 'm' || c == 'n' || c == 'o' || c == 'r';
+    }
+
+    private static boolean isHex(String message, int start, int count) {
+        for (int i = start; i < start + count; i++) {
+            char c = message.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isHostChar(char c) {
+        return isWordChar(c) || c == '-';
+    }
+}
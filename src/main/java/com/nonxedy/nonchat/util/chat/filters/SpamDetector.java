@@ -13,8 +13,8 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import com.nonxedy.nonchat.api.MessageFilter;
 import com.nonxedy.nonchat.config.PluginConfig;
 import com.nonxedy.nonchat.config.PluginMessages;
-import com.nonxedy.nonchat.util.chat.filters.MessageHistory.MessageEntry;
 import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+import com.nonxedy.nonchat.util.core.permissions.PermissionCache;
 
 import me.clip.placeholderapi.PlaceholderAPI;
 import net.kyori.adventure.text.Component;
@@ -24,6 +24,9 @@ import net.kyori.adventure.text.Component;
  * Detects repetitive messages, similar messages, and message flooding
  */
 public class SpamDetector implements MessageFilter {
+    /** Messages kept per player at least, raised to fit the flood and repetitive thresholds */
+    private static final int MIN_HISTORY_SIZE = 32;
+    private static final int MAX_HISTORY_SIZE = 512;
     
     private final PluginConfig config;
     private final PluginMessages messages;
@@ -58,115 +61,114 @@ public class SpamDetector implements MessageFilter {
         }
 
         // Check bypass permission
-        if (player.hasPermission("nonchat.spam.bypass")) {
+        if (PermissionCache.has(player, PermissionCache.SPAM_BYPASS)) {
             return false;
         }
 
+        return detect(player, ScannedMessage.of(message)) != null;
+    }
+
+    /**
+     * Checks an already scanned message for spam and runs the configured actions on a hit.
+     * Enabled state and bypass permission are not checked here.
+     * @param player The sender
+     * @param scanned The scanned message
+     * @return The detected spam type (repetitive, similar, flood), or null if none
+     */
+    public String detect(Player player, ScannedMessage scanned) {
+        String message = scanned.getRaw();
+
+        int capacity = getHistoryCapacity();
+        int repetitiveWindow = config.getAntiSpamRepetitiveTimeWindow();
+        int similarWindow = config.getAntiSpamSimilarTimeWindow();
+        int floodWindow = config.getAntiSpamFloodTimeWindow();
+
         // Get or create message history for player
         MessageHistory history = messageHistoryCache.get(
             player.getUniqueId(),
-            uuid -> new MessageHistory(uuid)
+            uuid -> new MessageHistory(uuid, capacity, repetitiveWindow, similarWindow, floodWindow)
         );
 
         long currentTime = System.currentTimeMillis();
-        
-        // Check for repetitive messages (before adding current message)
-        if (config.isAntiSpamRepetitiveEnabled()) {
-            if (detectRepetitiveSpam(history, message)) {
-                // Add message to history for tracking, but block it
-                history.addMessage(message, currentTime);
-                handleSpamDetection(player, message, "repetitive");
-                return true;
-            }
-        }
+        long messageHash = MessageHistory.hash(message);
+        String spamType = null;
 
-        // Check for similar messages (before adding current message)
-        if (config.isAntiSpamSimilarEnabled()) {
-            if (detectSimilarSpam(history, message)) {
-                // Add message to history for tracking, but block it
-                history.addMessage(message, currentTime);
-                handleSpamDetection(player, message, "similar");
-                return true;
-            }
-        }
+        synchronized (history) {
+            // Pick up reloaded window settings
+            history.configure(capacity, repetitiveWindow, similarWindow, floodWindow);
 
-        // Check for flood (before adding current message)
-        if (config.isAntiSpamFloodEnabled()) {
-            if (detectFlood(history)) {
-                // Add message to history for tracking, but block it
-                history.addMessage(message, currentTime);
-                handleSpamDetection(player, message, "flood");
-                return true;
+            // Check for repetitive messages (before adding current message)
+            if (config.isAntiSpamRepetitiveEnabled() && detectRepetitiveSpam(history, messageHash, currentTime)) {
+                spamType = "repetitive";
+            // Check for similar messages (before adding current message)
+            } else if (config.isAntiSpamSimilarEnabled() && detectSimilarSpam(history, scanned, messageHash, currentTime)) {
+                spamType = "similar";
+            // Check for flood (before adding current message)
+            } else if (config.isAntiSpamFloodEnabled() && detectFlood(history, currentTime)) {
+                spamType = "flood";
             }
-        }
 
-        // Message passed all checks, add it to history
-        history.addMessage(message, currentTime);
+            // Add message to history for tracking, blocked messages included
+            history.addMessage(message, scanned.getNormalized(), currentTime);
+        }
 
-        // Cleanup old messages periodically
-        cleanupOldMessages(history);
+        if (spamType != null) {
+            handleSpamDetection(player, message, spamType);
+            return spamType;
+        }
 
-        return false;
+        return null;
     }
 
+    /**
+     * Gets how many messages are kept per player
+     * @return History capacity
+     */
+    private int getHistoryCapacity() {
+        int needed = Math.max(config.getAntiSpamFloodMaxMessages(), config.getAntiSpamRepetitiveThreshold()) + 1;
+        return Math.min(MAX_HISTORY_SIZE, Math.max(MIN_HISTORY_SIZE, needed));
+    }
+    
     /**
      * Detects if a message is repetitive (exact duplicate)
      * @param history Message history for the player
-     * @param message Current message (not yet added to history)
+     * @param messageHash Hash of the current message (not yet added to history)
+     * @param currentTime Current time in milliseconds
      * @return true if repetitive spam detected
      */
-    private boolean detectRepetitiveSpam(MessageHistory history, String message) {
-        if (message == null) {
-            return false;
-        }
-        
+    private boolean detectRepetitiveSpam(MessageHistory history, long messageHash, long currentTime) {
         int threshold = config.getAntiSpamRepetitiveThreshold();
-        int timeWindow = config.getAntiSpamRepetitiveTimeWindow();
-        
-        List<MessageEntry> recentMessages = history.getMessagesInTimeWindow(timeWindow);
         
         // Count how many times this exact message appears in recent history
         // If count >= threshold, the current message would exceed the limit
-        int count = 0;
-        for (MessageEntry entry : recentMessages) {
-            if (entry != null && entry.getMessage() != null && entry.getMessage().equals(message)) {
-                count++;
-            }
-        }
-        
-        // If we already have threshold or more identical messages, block this one
-        return count >= threshold;
+        return history.getRepeatCount(messageHash, currentTime) >= threshold;
     }
 
     /**
      * Detects if a message is similar to previous messages
      * @param history Message history for the player
-     * @param message Current message
+     * @param scanned Current message
+     * @param messageHash Hash of the current message
+     * @param currentTime Current time in milliseconds
      * @return true if similar spam detected
      */
-    private boolean detectSimilarSpam(MessageHistory history, String message) {
-        if (message == null) {
-            return false;
-        }
-        
+    private boolean detectSimilarSpam(MessageHistory history, ScannedMessage scanned, long messageHash, long currentTime) {
         double threshold = config.getAntiSpamSimilarThreshold();
-        int timeWindow = config.getAntiSpamSimilarTimeWindow();
         
-        List<MessageEntry> recentMessages = history.getMessagesInTimeWindow(timeWindow);
+        String normalized = scanned.getNormalized();
+        long sketch = TextSimilarityUtil.sketch(normalized);
         
         // Check similarity with recent messages
-        for (MessageEntry entry : recentMessages) {
-            if (entry == null || entry.getMessage() == null) {
-                continue;
-            }
-            
+        int count = history.getSimilarCount(currentTime);
+        for (int age = 0; age < count; age++) {
             // Don't compare with itself
-            if (entry.getMessage().equals(message)) {
+            if (history.getHash(age) == messageHash) {
                 continue;
             }
             
-            double similarity = TextSimilarityUtil.calculateSimilarity(message, entry.getMessage());
-            if (similarity >= threshold) {
+            // Both sides were normalised once when scanned, pairs that cannot reach the threshold are skipped
+            if (TextSimilarityUtil.isSimilar(normalized, sketch, history.getNormalizedMessage(age),
+                    history.getSketch(age), threshold)) {
                 return true;
             }
         }
@@ -177,16 +179,15 @@ public class SpamDetector implements MessageFilter {
     /**
      * Detects if player is flooding messages
      * @param history Message history for the player
+     * @param currentTime Current time in milliseconds
      * @return true if flood detected
      */
-    private boolean detectFlood(MessageHistory history) {
+    private boolean detectFlood(MessageHistory history, long currentTime) {
         int maxMessages = config.getAntiSpamFloodMaxMessages();
-        int timeWindow = config.getAntiSpamFloodTimeWindow();
         
         // Count existing messages in time window
         // If count >= maxMessages, adding current message would exceed the limit
-        int messageCount = history.getMessageCountInTimeWindow(timeWindow);
-        return messageCount >= maxMessages;
+        return history.getFloodCount(currentTime) >= maxMessages;
     }
 
     /**
@@ -331,22 +332,4 @@ public class SpamDetector implements MessageFilter {
         return text.replace("%player_name%", player.getName())
                   .replace("%player_uuid%", player.getUniqueId().toString());
     }
-
-    /**
-     * Cleans up old messages from history
-     * @param history Message history to clean
-     */
-    private void cleanupOldMessages(MessageHistory history) {
-        // Clean up messages older than the maximum time window
-        int maxTimeWindow = Math.max(
-            Math.max(
-                config.getAntiSpamRepetitiveTimeWindow(),
-                config.getAntiSpamSimilarTimeWindow()
-            ),
-            config.getAntiSpamFloodTimeWindow()
-        );
-        
-        history.cleanupOldMessages(maxTimeWindow);
-    }
 }
-
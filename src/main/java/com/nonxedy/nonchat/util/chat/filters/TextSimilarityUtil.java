@@ -2,14 +2,19 @@ package com.nonxedy.nonchat.util.chat.filters;
 
 /**
  * Utility class for calculating text similarity
- * Uses Levenshtein distance algorithm to determine how similar two strings are
+ * Uses Levenshtein distance algorithm to determine how similar two strings are.
+ * Distances are computed with a banded dynamic program over two reused rows,
+ * which stops as soon as the distance is known to exceed the allowed bound.
  */
 public class TextSimilarityUtil {
 
+    /** Two reusable DP rows per thread, grown on demand */
+    private static final ThreadLocal<int[][]> ROWS = ThreadLocal.withInitial(() -> new int[2][257]);
+
     /**
      * Calculates similarity between two strings using Levenshtein distance
      * Returns a value between 0.0 (completely different) and 1.0 (identical)
-     * 
+     *
      * @param str1 First string to compare
      * @param str2 Second string to compare
      * @return Similarity score between 0.0 and 1.0
@@ -20,33 +25,118 @@ public class TextSimilarityUtil {
         }
 
         // Normalize strings for comparison
-        String normalized1 = normalizeString(str1);
-        String normalized2 = normalizeString(str2);
+        return calculateNormalizedSimilarity(normalizeString(str1), normalizeString(str2));
+    }
+
+    /**
+     * Calculates similarity between two strings that are already normalised
+     * (lowercase and trimmed), skipping the normalisation step
+     *
+     * @param normalized1 First normalised string
+     * @param normalized2 Second normalised string
+     * @return Similarity score between 0.0 and 1.0
+     */
+    public static double calculateNormalizedSimilarity(String normalized1, String normalized2) {
+        if (normalized1 == null || normalized2 == null) {
+            return 0.0;
+        }
 
         // If strings are identical after normalization, return 1.0
         if (normalized1.equals(normalized2)) {
             return 1.0;
         }
 
-        // Calculate Levenshtein distance
-        int distance = levenshteinDistance(normalized1, normalized2);
-        
         // Get maximum length for normalization
         int maxLength = Math.max(normalized1.length(), normalized2.length());
-        
+
         if (maxLength == 0) {
             return 1.0;
         }
 
+        // Calculate Levenshtein distance, it can never exceed the longer length
+        int distance = boundedDistance(normalized1, normalized2, maxLength);
+
         // Convert distance to similarity (0.0 to 1.0)
         // Similarity = 1 - (distance / maxLength)
-        return 1.0 - ((double) distance / maxLength);
+        return toSimilarity(distance, maxLength);
+    }
+
+    /**
+     * Checks if two normalised strings reach a similarity threshold.
+     * Gives the same answer as {@code calculateNormalizedSimilarity(a, b) >= threshold}
+     * but skips pairs that cannot reach it and stops the distance computation early.
+     *
+     * @param normalized1 First normalised string
+     * @param sketch1 Sketch of the first string from {@link #sketch(String)}
+     * @param normalized2 Second normalised string
+     * @param sketch2 Sketch of the second string
+     * @param threshold Minimum similarity
+     * @return true if the similarity is at least the threshold
+     */
+    public static boolean isSimilar(String normalized1, long sketch1, String normalized2, long sketch2, double threshold) {
+        if (normalized1 == null || normalized2 == null) {
+            return 0.0 >= threshold;
+        }
+        if (normalized1.equals(normalized2)) {
+            return 1.0 >= threshold;
+        }
+
+        int maxLength = Math.max(normalized1.length(), normalized2.length());
+        int maxDistance = maxAllowedDistance(maxLength, threshold);
+        if (maxDistance < 0) {
+            return false;
+        }
+        if (maxDistance >= maxLength) {
+            return true;
+        }
+
+        // Length prefilter: at least |len1 - len2| insertions or deletions are needed
+        if (Math.abs(normalized1.length() - normalized2.length()) > maxDistance) {
+            return false;
+        }
+
+        // Sketch prefilter: every character class missing from the other string costs at least one edit
+        int missing = Math.max(Long.bitCount(sketch1 & ~sketch2), Long.bitCount(sketch2 & ~sketch1));
+        if (missing > maxDistance) {
+            return false;
+        }
+
+        return boundedDistance(normalized1, normalized2, maxDistance) <= maxDistance;
+    }
+
+    /**
+     * Checks if two normalised strings reach a similarity threshold
+     *
+     * @param normalized1 First normalised string
+     * @param normalized2 Second normalised string
+     * @param threshold Minimum similarity
+     * @return true if the similarity is at least the threshold
+     */
+    public static boolean isSimilar(String normalized1, String normalized2, double threshold) {
+        return isSimilar(normalized1, sketch(normalized1), normalized2, sketch(normalized2), threshold);
+    }
+
+    /**
+     * Builds a 64-bit character class sketch of a string, used to reject dissimilar pairs cheaply
+     *
+     * @param str String to sketch
+     * @return Bit set of the character classes present
+     */
+    public static long sketch(String str) {
+        if (str == null) {
+            return 0L;
+        }
+        long sketch = 0L;
+        for (int i = 0; i < str.length(); i++) {
+            sketch |= 1L << ((str.charAt(i) * 0x9E3779B1) >>> 26);
+        }
+        return sketch;
     }
 
     /**
      * Normalizes a string for comparison
      * Converts to lowercase and removes extra whitespace
-     * 
+     *
      * @param str String to normalize
      * @return Normalized string
      */
@@ -58,49 +148,104 @@ public class TextSimilarityUtil {
         return str.toLowerCase().trim();
     }
 
+    private static double toSimilarity(int distance, int maxLength) {
+        return 1.0 - ((double) distance / maxLength);
+    }
+
     /**
-     * Calculates Levenshtein distance between two strings
-     * This is the minimum number of single-character edits needed to transform one string into another
-     * 
+     * Finds the largest distance that still reaches the threshold, using the exact
+     * floating point expression of the similarity score so results never differ
+     *
+     * @param maxLength Length of the longer string, greater than zero
+     * @param threshold Minimum similarity
+     * @return Largest allowed distance, or -1 if only identical strings qualify
+     */
+    private static int maxAllowedDistance(int maxLength, double threshold) {
+        int distance = (int) Math.floor((1.0 - threshold) * maxLength);
+        distance = Math.max(-1, Math.min(maxLength, distance));
+        while (distance < maxLength && toSimilarity(distance + 1, maxLength) >= threshold) {
+            distance++;
+        }
+        while (distance >= 0 && toSimilarity(distance, maxLength) < threshold) {
+            distance--;
+        }
+        // A distance of zero means identical strings, which were handled before
+        return distance == 0 ? -1 : distance;
+    }
+
+    /**
+     * Calculates Levenshtein distance between two strings, giving up past a bound
+     * This is the minimum number of single-character edits needed to transform one string into another.
+     * Only cells within maxDistance of the diagonal are computed.
+     *
      * @param str1 First string
      * @param str2 Second string
-     * @return Levenshtein distance
+     * @param maxDistance Largest distance of interest
+     * @return Levenshtein distance, or maxDistance + 1 if it is larger than maxDistance
      */
-    private static int levenshteinDistance(String str1, String str2) {
+    private static int boundedDistance(String str1, String str2, int maxDistance) {
         int len1 = str1.length();
         int len2 = str2.length();
+        int limit = maxDistance + 1;
 
-        // Create a matrix to store distances
-        int[][] dp = new int[len1 + 1][len2 + 1];
+        if (Math.abs(len1 - len2) > maxDistance) {
+            return limit;
+        }
+        if (len1 == 0 || len2 == 0) {
+            return Math.min(limit, Math.max(len1, len2));
+        }
 
-        // Initialize base cases
-        for (int i = 0; i <= len1; i++) {
-            dp[i][0] = i;
+        int[][] rows = ROWS.get();
+        if (rows[0].length < len2 + 1) {
+            rows = new int[][] { new int[len2 + 1], new int[len2 + 1] };
+            ROWS.set(rows);
         }
+        int[] previous = rows[0];
+        int[] current = rows[1];
+
+        // Base case: transforming an empty prefix into str2's prefix
         for (int j = 0; j <= len2; j++) {
-            dp[0][j] = j;
+            previous[j] = Math.min(j, limit);
         }
 
-        // Fill the matrix
         for (int i = 1; i <= len1; i++) {
-            for (int j = 1; j <= len2; j++) {
-                if (str1.charAt(i - 1) == str2.charAt(j - 1)) {
-                    // Characters match, no cost
-                    dp[i][j] = dp[i - 1][j - 1];
-                } else {
-                    // Characters don't match, take minimum of three operations:
-                    // 1. Insertion
-                    // 2. Deletion
-                    // 3. Substitution
-                    dp[i][j] = 1 + Math.min(
-                        Math.min(dp[i - 1][j], dp[i][j - 1]),
-                        dp[i - 1][j - 1]
-                    );
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(len2, i + maxDistance);
+
+            current[0] = Math.min(i, limit);
+            if (from > 1) {
+                current[from - 1] = limit;
+            }
+            int rowMin = from == 1 ? current[0] : limit;
+
+            char c1 = str1.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                // Substitution (or match), deletion, insertion
+                int value = previous[j - 1] + (c1 == str2.charAt(j - 1) ? 0 : 1);
+                value = Math.min(value, previous[j] + 1);
+                value = Math.min(value, current[j - 1] + 1);
+                if (value > limit) {
+                    value = limit;
+                }
+                current[j] = value;
+                if (value < rowMin) {
+                    rowMin = value;
                 }
             }
+            if (to < len2) {
+                current[to + 1] = limit;
+            }
+
+            // Distances never drop below a row's minimum, the bound is already exceeded
+            if (rowMin >= limit) {
+                return limit;
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
         }
 
-        return dp[len1][len2];
+        return previous[len2];
     }
 }
-
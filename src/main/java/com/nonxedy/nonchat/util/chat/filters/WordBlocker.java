@@ -1,24 +1,51 @@
 package com.nonxedy.nonchat.util.chat.filters;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.logging.Level;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import org.bukkit.Bukkit;
+
+import lombok.Getter;
 
 /**
  * Handles message filtering by checking for banned words and regex patterns
- * Provides functionality to block messages containing prohibited content
+ * Provides functionality to block messages containing prohibited content.
+ * Instances are immutable and compiled once per configuration load.
  */
-@Data
-@AllArgsConstructor
+@Getter
 public class WordBlocker {
     /** List of words that are not allowed in messages */
-    private List<String> bannedWords;
+    private final List<String> bannedWords;
 
     /** List of regex patterns for advanced filtering */
-    private List<String> bannedPatterns;
+    private final List<String> bannedPatterns;
+
+    /** Automaton over all banned words */
+    private final BannedWordMatcher wordMatcher;
+
+    /** Banned patterns compiled once, invalid entries are skipped */
+    private final List<Pattern> compiledPatterns;
+
+    public WordBlocker(List<String> bannedWords, List<String> bannedPatterns) {
+        this.bannedWords = Collections.unmodifiableList(new ArrayList<>(bannedWords));
+        this.bannedPatterns = Collections.unmodifiableList(new ArrayList<>(bannedPatterns));
+        this.wordMatcher = new BannedWordMatcher(this.bannedWords);
+
+        List<Pattern> patterns = new ArrayList<>(bannedPatterns.size());
+        for (String pattern : bannedPatterns) {
+            try {
+                patterns.add(Pattern.compile(pattern, Pattern.CASE_INSENSITIVE));
+            } catch (PatternSyntaxException e) {
+                // Log invalid regex pattern but don't crash
+                Bukkit.getLogger().log(Level.WARNING, "[nonchat] Invalid regex pattern in banned patterns: {0}", pattern);
+            }
+        }
+        this.compiledPatterns = Collections.unmodifiableList(patterns);
+    }
 
     /**
      * Checks if a message is allowed by scanning for banned words and patterns
@@ -26,29 +53,33 @@ public class WordBlocker {
      * @return true if message is allowed, false if it contains banned content
      */
     public boolean isMessageAllowed(String message) {
-        String lowerMessage = message.toLowerCase();
+        return findBlockedTerm(message, BannedWordMatcher.toLowerCase(message)) == null;
+    }
+
+    /**
+     * Finds the first banned word or pattern in an already scanned message
+     * @param message The scanned message (colours are ignored)
+     * @return The matched word or pattern, or null if the message is allowed
+     */
+    public String findBlockedTerm(ScannedMessage message) {
+        return findBlockedTerm(message.getStripped(), message.getStrippedLower());
+    }
 
+    private String findBlockedTerm(String message, String lowerMessage) {
         // Check banned words (case-insensitive)
-        for (String word : bannedWords) {
-            if (lowerMessage.contains(word.toLowerCase())) {
-                return false;
-            }
+        String word = wordMatcher.findFirst(lowerMessage);
+        if (word != null) {
+            return word;
         }
 
         // Check regex patterns (case-insensitive)
-        for (String pattern : bannedPatterns) {
-            try {
-                Pattern regex = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
-                if (regex.matcher(message).find()) {
-                    return false;
-                }
-            } catch (PatternSyntaxException e) {
-                // Log invalid regex pattern but don't crash
-                System.err.println("Invalid regex pattern in banned patterns: " + pattern);
+        for (Pattern pattern : compiledPatterns) {
+            if (pattern.matcher(message).find()) {
+                return pattern.pattern();
             }
         }
 
-        return true;
+        return null;
     }
 
     /**
@@ -57,11 +88,6 @@ public class WordBlocker {
      * @return true if message is allowed, false if it contains banned words
      */
     public boolean isMessageAllowedLegacy(String message) {
-        for (String word : bannedWords) {
-            if (message.toLowerCase().contains(word.toLowerCase())) {
-                return false;
-            }
-        }
-        return true;
+        return wordMatcher.findFirst(BannedWordMatcher.toLowerCase(message)) == null;
     }
 }
@@ -8,8 +8,8 @@ import org.bukkit.entity.Player;
 
 import com.nonxedy.nonchat.util.core.colors.ColorUtil;
 import com.nonxedy.nonchat.util.integration.external.IntegrationUtil;
+import com.nonxedy.nonchat.util.integration.external.PlaceholderResolver;
 
-import me.clip.placeholderapi.PlaceholderAPI;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
@@ -36,17 +36,39 @@ public class HoverTextUtil {
      * @return Component with hover event added
      */
     public Component addHoverToComponent(Component component, Player player) {
+        return applyHover(component, player, buildHoverComponent(player));
+    }
+
+    /**
+     * Builds the parsed hover text for a player
+     * @param player The player to get hover information for
+     * @return Hover component, or null if hover is disabled or empty
+     */
+    public Component buildHoverComponent(Player player) {
         if (!enabled || hoverFormat == null || hoverFormat.isEmpty()) {
-            return component;
+            return null;
         }
 
         String hoverText = buildHoverText(player);
         if (hoverText.isEmpty()) {
-            return component;
+            return null;
         }
 
         // Parse colors in hover text using ColorUtil
-        Component hoverComponent = ColorUtil.parseComponent(hoverText);
+        return ColorUtil.parseComponent(hoverText);
+    }
+
+    /**
+     * Adds an already built hover text to an existing component
+     * @param component The existing component to add hover to
+     * @param player The player the hover belongs to
+     * @param hoverComponent Hover text from {@link #buildHoverComponent(Player)}, may be null
+     * @return Component with hover event added
+     */
+    public Component applyHover(Component component, Player player, Component hoverComponent) {
+        if (hoverComponent == null) {
+            return component;
+        }
         return component
             .hoverEvent(HoverEvent.showText(hoverComponent))
             .clickEvent(ClickEvent.suggestCommand("/m " + player.getName()));
@@ -127,7 +149,7 @@ public class HoverTextUtil {
         // Process PlaceholderAPI if available
         if (usePlaceholderAPI) {
             try {
-                processed = PlaceholderAPI.setPlaceholders(player, processed);
+                processed = PlaceholderResolver.setPlaceholders(player, processed);
             } catch (Exception e) {
                 Bukkit.getLogger().log(Level.WARNING, "Error processing placeholder in hover text: {0}", e.getMessage());
             }
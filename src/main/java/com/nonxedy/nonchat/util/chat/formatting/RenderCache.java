@@ -0,0 +1,143 @@
+package com.nonxedy.nonchat.util.chat.formatting;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.entity.Player;
+
+import com.nonxedy.nonchat.config.PluginConfig;
+import com.nonxedy.nonchat.util.core.cache.PlayerCaches;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Per-(player, channel) cache of the rendered parts of a chat line that do not depend on the message:
+ * the header before {message} with the name hover, the part after {message} and the hover text itself.
+ * Entries live for a short time and are dropped early when the player's tags, LuckPerms data
+ * or the channels change.
+ */
+public class RenderCache {
+    private static final Map<UUID, Map<String, Header>> headers = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = true;
+    private static volatile long ttlMillis = 2_000L;
+
+    static {
+        PlayerCaches.register("render", RenderCache::invalidate);
+    }
+
+    /**
+     * Applies configuration
+     * @param config Plugin configuration
+     */
+    public static void initialize(PluginConfig config) {
+        reload(config);
+    }
+
+    /**
+     * Re-reads cache settings and drops all entries
+     * @param config Plugin configuration
+     */
+    public static void reload(PluginConfig config) {
+        enabled = config.isRenderCacheEnabled();
+        ttlMillis = config.getRenderCacheTtl();
+        headers.clear();
+    }
+
+    /**
+     * Clears all entries
+     */
+    public static void shutdown() {
+        headers.clear();
+    }
+
+    /**
+     * Gets a cached header
+     * @param player Sender
+     * @param channelId Channel id
+     * @return The header, or null if missing, expired or caching is disabled
+     */
+    public static Header get(Player player, String channelId) {
+        if (!enabled) {
+            return null;
+        }
+        Map<String, Header> byChannel = headers.get(player.getUniqueId());
+        if (byChannel == null) {
+            return null;
+        }
+        Header header = byChannel.get(channelId);
+        if (header == null || System.currentTimeMillis() > header.expiresAt) {
+            return null;
+        }
+        return header;
+    }
+
+    /**
+     * Stores a freshly rendered header
+     * @param player Sender
+     * @param channelId Channel id
+     * @param before Header before {message}, hover applied to the name
+     * @param after Part after {message}, hover applied
+     * @param inheritedColor Colour the message inherits from the header
+     * @param hover Hover text component, null if hover is disabled
+     * @return The stored header
+     */
+    public static Header put(Player player, String channelId, Component before, Component after,
+                             String inheritedColor, Component hover) {
+        Header header = new Header(before, after, inheritedColor, hover, System.currentTimeMillis() + ttlMillis);
+        if (enabled && ttlMillis > 0 && player.isOnline()) {
+            headers.computeIfAbsent(player.getUniqueId(), id -> new ConcurrentHashMap<>()).put(channelId, header);
+        }
+        return header;
+    }
+
+    /**
+     * Drops all headers of a player
+     * @param playerId Player UUID
+     */
+    public static void invalidate(UUID playerId) {
+        headers.remove(playerId);
+    }
+
+    /**
+     * Drops all headers
+     */
+    public static void invalidateAll() {
+        headers.clear();
+    }
+
+    /**
+     * Rendered message-independent parts of a chat line
+     */
+    public static final class Header {
+        private final Component before;
+        private final Component after;
+        private final String inheritedColor;
+        private final Component hover;
+        private final long expiresAt;
+
+        private Header(Component before, Component after, String inheritedColor, Component hover, long expiresAt) {
+            this.before = before;
+            this.after = after;
+            this.inheritedColor = inheritedColor;
+            this.hover = hover;
+            this.expiresAt = expiresAt;
+        }
+
+        public Component getBefore() {
+            return before;
+        }
+
+        public Component getAfter() {
+            return after;
+        }
+
+        public String getInheritedColor() {
+            return inheritedColor;
+        }
+
+        public Component getHover() {
+            return hover;
+        }
+    }
+}
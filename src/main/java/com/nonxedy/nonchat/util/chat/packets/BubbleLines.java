@@ -0,0 +1,47 @@
+package com.nonxedy.nonchat.util.chat.packets;
+
+import java.util.Collection;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * The text lines of one chat bubble, either client-side packet entities or hidden server entities.
+ * Must only be used from the main thread.
+ */
+interface BubbleLines {
+
+    /**
+     * Checks if no line could be created
+     * @return true if nothing is displayed
+     */
+    boolean isEmpty();
+
+    /**
+     * Makes the lines visible to a player
+     * @param plugin Plugin owning the visibility change
+     * @param viewer Player to show the lines to
+     */
+    void show(Plugin plugin, Player viewer);
+
+    /**
+     * Makes the lines invisible to a player
+     * @param plugin Plugin owning the visibility change
+     * @param viewer Player to hide the lines from
+     */
+    void hide(Plugin plugin, Player viewer);
+
+    /**
+     * Moves every line so the lowest one is at the given location
+     * @param base Location of the lowest line
+     * @param viewers Players the lines are currently shown to
+     */
+    void moveTo(Location base, Collection<Player> viewers);
+
+    /**
+     * Removes every line
+     * @param viewers Players the lines are currently shown to
+     */
+    void remove(Collection<Player> viewers);
+}
@@ -0,0 +1,186 @@
+package com.nonxedy.nonchat.util.chat.packets;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * A chat bubble above one player, made of one TextDisplay per line.
+ * With PacketEvents installed the lines only exist on the clients of the viewers tracked here;
+ * otherwise they are hidden, non-persistent server entities shown to those viewers only.
+ * The bubble remembers where it was last placed, so it is only moved again once
+ * its owner has actually changed position.
+ * Must only be used from the main thread.
+ */
+public class ChatBubble {
+    private final Player owner;
+    private final BubbleLines lines;
+    private final Map<UUID, Player> viewers = new HashMap<>();
+    private World anchorWorld;
+    private double anchorX;
+    private double anchorY;
+    private double anchorZ;
+    private boolean queued;
+
+    private ChatBubble(Player owner, BubbleLines lines) {
+        this.owner = owner;
+        this.lines = lines;
+    }
+
+    /**
+     * Creates a bubble above a player, shown to nobody yet.
+     * Uses client-side packet entities when PacketEvents is installed and falls back to
+     * hidden server entities otherwise.
+     * @param owner The player the bubble belongs to
+     * @param text The text to display
+     * @param location Location of the lowest line
+     * @param overallScale The overall scale multiplier
+     * @param scaleX The X axis scale multiplier
+     * @param scaleY The Y axis scale multiplier
+     * @param scaleZ The Z axis scale multiplier
+     * @return The new bubble
+     */
+    public static ChatBubble spawn(Player owner, String text, Location location, double overallScale, double scaleX, double scaleY, double scaleZ) {
+        if (Bukkit.getPluginManager().isPluginEnabled("packetevents")) {
+            try {
+                if (PacketBubbleLines.supportsServer()) {
+                    return new ChatBubble(owner, PacketBubbleLines.create(text, location, overallScale, scaleX, scaleY, scaleZ));
+                }
+            } catch (Exception | LinkageError e) {
+                Bukkit.getLogger().log(Level.WARNING, "[nonchat] PacketEvents bubbles unavailable, using entities: {0}", e.getMessage());
+            }
+        }
+        return new ChatBubble(owner, new EntityBubbleLines(
+                DisplayEntityUtil.spawnMultilineBubble(owner, text, location, overallScale, scaleX, scaleY, scaleZ)));
+    }
+
+    public Player getOwner() {
+        return owner;
+    }
+
+    /**
+     * Checks if the bubble has no lines left
+     * @return true if nothing is displayed
+     */
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    /**
+     * Checks if the bubble was placed in the given world
+     * @param world World of the owner
+     * @return true if the bubble is in that world
+     */
+    public boolean isIn(World world) {
+        return anchorWorld == world;
+    }
+
+    /**
+     * Checks if the owner moved far enough from where the bubble was last placed
+     * @param location Current location of the owner
+     * @param epsilon Distance in blocks below which movement is ignored
+     * @return true if the bubble needs to follow the owner
+     */
+    public boolean hasMoved(Location location, double epsilon) {
+        double dx = location.getX() - anchorX;
+        double dy = location.getY() - anchorY;
+        double dz = location.getZ() - anchorZ;
+        return dx * dx + dy * dy + dz * dz > epsilon * epsilon;
+    }
+
+    /**
+     * Moves every line above the given owner location and remembers it as the new anchor
+     * @param location Location of the owner
+     * @param height Height of the bubble above the owner
+     */
+    public void moveTo(Location location, double height) {
+        setAnchor(location);
+        lines.moveTo(location.clone().add(0, height, 0), viewers.values());
+    }
+
+    /**
+     * Remembers the owner location the bubble is currently placed above
+     * @param location Location of the owner
+     */
+    public void setAnchor(Location location) {
+        anchorWorld = location.getWorld();
+        anchorX = location.getX();
+        anchorY = location.getY();
+        anchorZ = location.getZ();
+    }
+
+    /**
+     * Checks if the bubble is waiting in the move queue
+     * @return true if queued
+     */
+    public boolean isQueued() {
+        return queued;
+    }
+
+    public void setQueued(boolean queued) {
+        this.queued = queued;
+    }
+
+    /**
+     * Shows the bubble to players who came into range and hides it from those who left.
+     * Players who cannot see the owner, e.g. because the owner is vanished, never get the bubble.
+     * @param plugin Plugin owning the visibility change
+     * @param nearby Players currently within view range of the owner
+     */
+    public void updateViewers(Plugin plugin, Collection<Player> nearby) {
+        Set<UUID> current = new HashSet<>();
+        for (Player viewer : nearby) {
+            if (viewer != owner && !viewer.canSee(owner)) {
+                continue;
+            }
+            current.add(viewer.getUniqueId());
+            // A viewer who rejoined is a new Player and has lost the lines with the old connection
+            if (viewers.put(viewer.getUniqueId(), viewer) != viewer) {
+                lines.show(plugin, viewer);
+            }
+        }
+
+        Iterator<Map.Entry<UUID, Player>> iterator = viewers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Player> entry = iterator.next();
+            if (current.contains(entry.getKey())) {
+                continue;
+            }
+            iterator.remove();
+            if (entry.getValue().isOnline()) {
+                lines.hide(plugin, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Gets the players the bubble is currently shown to
+     * @return Viewer UUIDs
+     */
+    public Set<UUID> getViewers() {
+        return viewers.keySet();
+    }
+
+    /**
+     * Removes every line, which sends destroy packets to the current viewers
+     */
+    public void remove() {
+        try {
+            lines.remove(viewers.values());
+            viewers.clear();
+        } catch (Exception e) {
+            Bukkit.getLogger().log(Level.FINE, "[nonchat] Error removing chat bubble: {0}", e.getMessage());
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.nonxedy.nonchat.util.chat.packets;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Supplier;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
 import org.bukkit.Bukkit;
@@ -10,7 +12,6 @@ import org.bukkit.Color;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Display;
-import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.TextDisplay;
 import org.bukkit.util.Transformation;
@@ -23,14 +24,17 @@ import net.kyori.adventure.text.Component;
 /**
  * Manages chat bubble display using TextDisplay entities for better performance
  * Handles creation, removal and updating of floating text displays
+ * Bubble entities are spawned hidden and non-persistent, see {@link ChatBubble} for who gets to see them
+ * Only used when PacketEvents is not installed, otherwise bubbles are client-side packets
  */
 public class DisplayEntityUtil {
-    private static final int MAX_LINE_LENGTH = 40;
-    private static final double LINE_SPACING = 0.25;
-    private static final ObjectPool<TextDisplay> displayPool = new ObjectPool<>(50);
+    static final int MAX_LINE_LENGTH = 40;
+    static final double LINE_SPACING = 0.25;
+    public static final double VIEW_RANGE = 48.0;
+    private static final Set<TextDisplay> liveDisplays = ConcurrentHashMap.newKeySet();
     
     /**
-     * Creates and configures multiple chat bubble TextDisplay entities for multiline text using pooled entities
+     * Creates and configures multiple chat bubble TextDisplay entities for multiline text
      * @param player The player to create bubbles for
      * @param text The text to display in bubbles
      * @param location The base location to spawn bubbles at
@@ -42,7 +46,7 @@ public class DisplayEntityUtil {
     }
 
     /**
-     * Creates and configures multiple chat bubble TextDisplay entities for multiline text using pooled entities with individual axis scales
+     * Creates and configures multiple chat bubble TextDisplay entities for multiline text with individual axis scales
      * @param player The player to create bubbles for
      * @param text The text to display in bubbles
      * @param location The base location to spawn bubbles at
@@ -59,40 +63,17 @@ public class DisplayEntityUtil {
         for (int i = 0; i < lines.size(); i++) {
             Location lineLocation = location.clone().add(0, (lines.size() - 1 - i) * LINE_SPACING, 0);
             
-            TextDisplay bubble = displayPool.acquire(() -> {
-                try {
-                    // Use the player's world to spawn the entity to ensure proper region handling
-                    World world = player.getWorld();
-                    TextDisplay display = (TextDisplay) world.spawnEntity(lineLocation, EntityType.TEXT_DISPLAY);
-                    configureTextDisplay(display, overallScale, scaleX, scaleY, scaleZ);
-                    return display;
-                } catch (Exception e) {
-                    // Log error and return null if entity creation fails
-                    Bukkit.getLogger().log(Level.WARNING, "[nonchat] Failed to spawn text display: {0}", e.getMessage());
-                    return null;
-                }
+            // Use parseComponent to handle all color formats (legacy, hex, minimessage)
+            // Don't strip colors in splitTextIntoLines, let parseComponent handle it
+            Component component = ColorUtil.parseComponent(lines.get(i));
+            TextDisplay bubble = spawnHidden(player.getWorld(), lineLocation, display -> {
+                configureTextDisplay(display, overallScale, scaleX, scaleY, scaleZ);
+                display.text(component);
             });
-            
+
             // Skip if bubble creation failed
-            if (bubble == null) {
-                continue;
-            }
-            
-            try {
-                bubble.teleport(lineLocation);
-                
-                // Use parseComponent to handle all color formats (legacy, hex, minimessage)
-                // Don't strip colors in splitTextIntoLines, let parseComponent handle it
-                Component component = ColorUtil.parseComponent(lines.get(i));
-                bubble.text(component);
-                
+            if (bubble != null) {
                 bubbleDisplays.add(bubble);
-            } catch (Exception e) {
-                // Remove the bubble if configuration fails
-                if (bubble != null && !bubble.isDead()) {
-                    bubble.remove();
-                }
-                Bukkit.getLogger().log(Level.WARNING, "[nonchat] Failed to configure text display: {0}", e.getMessage());
             }
         }
         
@@ -177,41 +158,37 @@ public class DisplayEntityUtil {
      * @return Configured TextDisplay entity or null if failed
      */
     public static TextDisplay spawnBubble(Player player, String text, Location location, double scale) {
-        TextDisplay bubble = displayPool.acquire(() -> {
-            try {
-                // Use the player's world to spawn the entity to ensure proper region handling
-                World world = player.getWorld();
-                TextDisplay display = (TextDisplay) world.spawnEntity(location, EntityType.TEXT_DISPLAY);
-                configureTextDisplay(display, scale);
-                return display;
-            } catch (Exception e) {
-                // Log error and return null if entity creation fails
-                Bukkit.getLogger().log(Level.WARNING, "[nonchat] Failed to spawn text display: {0}", e.getMessage());
-                return null;
-            }
+        // Use parseComponent to handle all color formats (legacy, hex, minimessage)
+        // Don't pre-process the text, let parseComponent handle it directly
+        Component component = ColorUtil.parseComponent(text);
+        return spawnHidden(player.getWorld(), location, display -> {
+            configureTextDisplay(display, scale);
+            display.text(component);
         });
-        
-        // Return null if bubble creation failed
-        if (bubble == null) {
-            return null;
-        }
-        
+    }
+
+    /**
+     * Spawns a TextDisplay that no client receives until it is shown to them,
+     * and that is dropped instead of saved when its chunk unloads
+     * @param world The world to spawn in
+     * @param location The location to spawn at
+     * @param setup Configuration applied before the entity is added to the world
+     * @return The spawned TextDisplay or null if failed
+     */
+    private static TextDisplay spawnHidden(World world, Location location, Consumer<TextDisplay> setup) {
         try {
-            // Use parseComponent to handle all color formats (legacy, hex, minimessage)
-            // Don't pre-process the text, let parseComponent handle it directly
-            Component component = ColorUtil.parseComponent(text);
-            bubble.text(component);
-            bubble.teleport(location);
+            TextDisplay display = world.spawn(location, TextDisplay.class, entity -> {
+                entity.setPersistent(false);
+                entity.setVisibleByDefault(false);
+                setup.accept(entity);
+            });
+            liveDisplays.add(display);
+            return display;
         } catch (Exception e) {
-            // Remove the bubble if configuration fails
-            if (bubble != null && !bubble.isDead()) {
-                bubble.remove();
-            }
-            Bukkit.getLogger().log(Level.WARNING, "[nonchat] Failed to configure text display: {0}", e.getMessage());
+            // Log error and return null if entity creation fails
+            Bukkit.getLogger().log(Level.WARNING, "[nonchat] Failed to spawn text display: {0}", e.getMessage());
             return null;
         }
-        
-        return bubble;
     }
     
     /**
@@ -220,9 +197,11 @@ public class DisplayEntityUtil {
      */
     public static void removeBubble(TextDisplay bubble) {
         try {
-            if (bubble != null && !bubble.isDead()) {
-                bubble.remove();
-                displayPool.release(bubble);
+            if (bubble != null) {
+                liveDisplays.remove(bubble);
+                if (!bubble.isDead()) {
+                    bubble.remove();
+                }
             }
         } catch (Exception e) {
             Bukkit.getLogger().log(Level.FINE, "[nonchat] Error removing text display: {0}", e.getMessage());
@@ -269,13 +248,12 @@ public class DisplayEntityUtil {
             if (bubbles != null) {
                 bubbles.removeIf(bubble -> bubble == null || bubble.isDead());
                 
+                // Teleport copies the location, so one instance serves every line
+                Location lineLocation = baseLocation.clone();
                 for (int i = 0; i < bubbles.size(); i++) {
                     try {
-                        TextDisplay bubble = bubbles.get(i);
-                        if (bubble != null && !bubble.isDead()) {
-                            Location lineLocation = baseLocation.clone().add(0, (bubbles.size() - 1 - i) * LINE_SPACING, 0);
-                            bubble.teleport(lineLocation);
-                        }
+                        lineLocation.setY(baseLocation.getY() + (bubbles.size() - 1 - i) * LINE_SPACING);
+                        bubbles.get(i).teleport(lineLocation);
                     } catch (Exception e) {
                         Bukkit.getLogger().log(Level.FINE, "[nonchat] Error updating text display {0} location: {1}", new Object[]{i, e.getMessage()});
                     }
@@ -292,7 +270,7 @@ public class DisplayEntityUtil {
      * @param maxLength Maximum length per line
      * @return List of text lines
      */
-    private static List<String> splitTextIntoLines(String text, int maxLength) {
+    static List<String> splitTextIntoLines(String text, int maxLength) {
         try {
             List<String> lines = new ArrayList<>();
             // Use ColorUtil for all color processing to ensure consistency
@@ -447,87 +425,16 @@ public class DisplayEntityUtil {
     }
     
     /**
-     * Simple object pool implementation for TextDisplay entities
-     */
-    private static class ObjectPool<T> {
-        private final List<T> pool = new ArrayList<>();
-        private final int maxSize;
-        
-        public ObjectPool(int maxSize) {
-            this.maxSize = maxSize;
-        }
-        
-        public T acquire(Supplier<T> creator) {
-            try {
-                synchronized (pool) {
-                    if (!pool.isEmpty()) {
-                        T obj = pool.remove(pool.size() - 1);
-                        if (obj instanceof TextDisplay display) {
-                            if (display.isDead()) {
-                                return creator.get();
-                            }
-                        }
-                        return obj;
-                    }
-                }
-                return creator.get();
-            } catch (Exception e) {
-                Bukkit.getLogger().log(Level.FINE, "[nonchat] Error acquiring from pool: {0}", e.getMessage());
-                return creator.get();
-            }
-        }
-        
-        public void release(T obj) {
-            try {
-                if (obj instanceof TextDisplay display) {
-                    if (display.isDead()) {
-                        return;
-                    }
-                    
-                    display.text(Component.empty());
-                    display.setCustomNameVisible(false);
-                    
-                    synchronized (pool) {
-                        if (pool.size() < maxSize) {
-                            pool.add(obj);
-                        } else {
-                            display.remove();
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                Bukkit.getLogger().log(Level.FINE, "[nonchat] Error releasing to pool: {0}", e.getMessage());
-            }
-        }
-        
-        public void clear() {
-            try {
-                synchronized (pool) {
-                    pool.forEach(obj -> {
-                        try {
-                            if (obj instanceof TextDisplay display) {
-                                display.remove();
-                            }
-                        } catch (Exception e) {
-                            Bukkit.getLogger().log(Level.FINE, "[nonchat] Error removing text display from pool: {0}", e.getMessage());
-                        }
-                    });
-                    pool.clear();
-                }
-            } catch (Exception e) {
-                Bukkit.getLogger().log(Level.FINE, "[nonchat] Error clearing pool: {0}", e.getMessage());
-            }
-        }
-    }
-    
-    /**
-     * Clears the object pool and removes all entities
+     * Removes every bubble entity that is still alive
      */
-    public static void clearPool() {
+    public static void removeAll() {
         try {
-            displayPool.clear();
+            for (TextDisplay display : new ArrayList<>(liveDisplays)) {
+                removeBubble(display);
+            }
+            liveDisplays.clear();
         } catch (Exception e) {
-            Bukkit.getLogger().log(Level.FINE, "[nonchat] Error clearing text display pool: {0}", e.getMessage());
+            Bukkit.getLogger().log(Level.FINE, "[nonchat] Error removing text displays: {0}", e.getMessage());
         }
     }
 }
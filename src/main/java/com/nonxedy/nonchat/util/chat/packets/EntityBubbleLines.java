@@ -0,0 +1,47 @@
+package com.nonxedy.nonchat.util.chat.packets;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Bubble lines backed by hidden, non-persistent TextDisplay entities.
+ * These are real server entities, used when no packet library is installed.
+ */
+class EntityBubbleLines implements BubbleLines {
+    private final List<TextDisplay> lines;
+
+    EntityBubbleLines(List<TextDisplay> lines) {
+        this.lines = lines;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    @Override
+    public void show(Plugin plugin, Player viewer) {
+        lines.forEach(line -> viewer.showEntity(plugin, line));
+    }
+
+    @Override
+    public void hide(Plugin plugin, Player viewer) {
+        lines.forEach(line -> viewer.hideEntity(plugin, line));
+    }
+
+    @Override
+    public void moveTo(Location base, Collection<Player> viewers) {
+        // The server sends move packets to whoever the entities are shown to
+        DisplayEntityUtil.updateBubblesLocation(lines, base);
+    }
+
+    @Override
+    public void remove(Collection<Player> viewers) {
+        DisplayEntityUtil.removeBubbles(lines);
+    }
+}
@@ -0,0 +1,155 @@
+package com.nonxedy.nonchat.util.chat.packets;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.bukkit.Color;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.util.Vector3f;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerDestroyEntities;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnEntity;
+import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+
+import io.github.retrooper.packetevents.util.SpigotReflectionUtil;
+import net.kyori.adventure.text.Component;
+
+/**
+ * Bubble lines that only exist on the clients of their viewers.
+ * Spawn, metadata, teleport and destroy packets are sent through PacketEvents, so the server
+ * never creates, ticks or tracks an entity for them.
+ * Only loaded when PacketEvents is installed, see {@link ChatBubble#spawn}.
+ */
+class PacketBubbleLines implements BubbleLines {
+    // TextDisplay metadata indexes, valid since 1.20.2
+    private static final int SCALE_INDEX = 12;
+    private static final int BILLBOARD_INDEX = 15;
+    private static final int VIEW_RANGE_INDEX = 17;
+    private static final int TEXT_INDEX = 23;
+    private static final int LINE_WIDTH_INDEX = 24;
+    private static final int BACKGROUND_INDEX = 25;
+    private static final int STYLE_INDEX = 27;
+
+    private static final byte BILLBOARD_CENTER = 3;
+    private static final byte STYLE_SHADOW = 0x01;
+    private static final byte STYLE_SEE_THROUGH = 0x02;
+
+    private final int[] entityIds;
+    private final UUID[] entityUuids;
+    private final List<List<EntityData<?>>> metadata;
+    private final Vector3d[] positions;
+
+    private PacketBubbleLines(int lineCount) {
+        this.entityIds = new int[lineCount];
+        this.entityUuids = new UUID[lineCount];
+        this.metadata = new ArrayList<>(lineCount);
+        this.positions = new Vector3d[lineCount];
+    }
+
+    /**
+     * Checks if the server version uses the metadata layout this class writes
+     * @return true if packet bubbles can be used
+     */
+    static boolean supportsServer() {
+        return PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_20_2);
+    }
+
+    /**
+     * Prepares client-side lines for a bubble, nothing is sent until they are shown
+     * @param text The text to display
+     * @param location Location of the lowest line
+     * @param overallScale The overall scale multiplier
+     * @param scaleX The X axis scale multiplier
+     * @param scaleY The Y axis scale multiplier
+     * @param scaleZ The Z axis scale multiplier
+     * @return Lines of the bubble
+     */
+    static PacketBubbleLines create(String text, Location location, double overallScale, double scaleX, double scaleY, double scaleZ) {
+        List<String> lines = DisplayEntityUtil.splitTextIntoLines(text, DisplayEntityUtil.MAX_LINE_LENGTH);
+        PacketBubbleLines bubble = new PacketBubbleLines(lines.size());
+        Vector3f scale = new Vector3f(
+            (float) (overallScale * scaleX),
+            (float) (overallScale * scaleY),
+            (float) (overallScale * scaleZ)
+        );
+
+        for (int i = 0; i < lines.size(); i++) {
+            Component component = ColorUtil.parseComponent(lines.get(i));
+            bubble.entityIds[i] = SpigotReflectionUtil.generateEntityId();
+            bubble.entityUuids[i] = UUID.randomUUID();
+            bubble.metadata.add(List.of(
+                new EntityData<>(SCALE_INDEX, EntityDataTypes.VECTOR3F, scale),
+                new EntityData<>(BILLBOARD_INDEX, EntityDataTypes.BYTE, BILLBOARD_CENTER),
+                new EntityData<>(VIEW_RANGE_INDEX, EntityDataTypes.FLOAT, (float) DisplayEntityUtil.VIEW_RANGE),
+                new EntityData<>(TEXT_INDEX, EntityDataTypes.ADV_COMPONENT, component),
+                new EntityData<>(LINE_WIDTH_INDEX, EntityDataTypes.INT, 200),
+                new EntityData<>(BACKGROUND_INDEX, EntityDataTypes.INT, Color.BLACK.asARGB()),
+                new EntityData<>(STYLE_INDEX, EntityDataTypes.BYTE, (byte) (STYLE_SHADOW | STYLE_SEE_THROUGH))
+            ));
+        }
+        bubble.setPositions(location);
+        return bubble;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return entityIds.length == 0;
+    }
+
+    @Override
+    public void show(Plugin plugin, Player viewer) {
+        for (int i = 0; i < entityIds.length; i++) {
+            send(viewer, new WrapperPlayServerSpawnEntity(entityIds[i], Optional.of(entityUuids[i]),
+                    EntityTypes.TEXT_DISPLAY, positions[i], 0f, 0f, 0f, 0, Optional.empty()));
+            send(viewer, new WrapperPlayServerEntityMetadata(entityIds[i], metadata.get(i)));
+        }
+    }
+
+    @Override
+    public void hide(Plugin plugin, Player viewer) {
+        send(viewer, new WrapperPlayServerDestroyEntities(entityIds));
+    }
+
+    @Override
+    public void moveTo(Location base, Collection<Player> viewers) {
+        setPositions(base);
+        for (Player viewer : viewers) {
+            for (int i = 0; i < entityIds.length; i++) {
+                send(viewer, new WrapperPlayServerEntityTeleport(entityIds[i], positions[i], 0f, 0f, false));
+            }
+        }
+    }
+
+    @Override
+    public void remove(Collection<Player> viewers) {
+        for (Player viewer : viewers) {
+            hide(null, viewer);
+        }
+    }
+
+    private void setPositions(Location base) {
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = new Vector3d(base.getX(), base.getY() + (positions.length - 1 - i) * DisplayEntityUtil.LINE_SPACING, base.getZ());
+        }
+    }
+
+    private static void send(Player viewer, PacketWrapper<?> packet) {
+        if (viewer.isOnline()) {
+            PacketEvents.getAPI().getPlayerManager().sendPacket(viewer, packet);
+        }
+    }
+}
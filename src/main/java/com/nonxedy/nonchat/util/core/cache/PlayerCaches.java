@@ -0,0 +1,75 @@
+package com.nonxedy.nonchat.util.core.cache;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredServiceProvider;
+
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.event.EventSubscription;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+
+/**
+ * Registry of the per-player caches that must forget a player when LuckPerms recalculates
+ * their data or when they leave. Holds the one LuckPerms subscription shared by all of them;
+ * without LuckPerms the caches rely on expiry and quit invalidation only.
+ */
+public class PlayerCaches {
+    private static final Map<String, Consumer<UUID>> invalidators = new ConcurrentHashMap<>();
+    private static EventSubscription<UserDataRecalculateEvent> subscription;
+
+    /**
+     * Registers a cache to be invalidated per player
+     * @param name Cache name, registering the same name again replaces the previous entry
+     * @param invalidator Drops everything the cache holds for a player
+     */
+    public static void register(String name, Consumer<UUID> invalidator) {
+        invalidators.put(name, invalidator);
+    }
+
+    /**
+     * Subscribes to LuckPerms data recalculation, does nothing if already subscribed
+     * @param plugin Owning plugin
+     */
+    public static void initialize(Plugin plugin) {
+        if (subscription != null) {
+            return;
+        }
+        try {
+            RegisteredServiceProvider<LuckPerms> provider = Bukkit.getServicesManager().getRegistration(LuckPerms.class);
+            if (provider != null) {
+                subscription = provider.getProvider().getEventBus().subscribe(plugin, UserDataRecalculateEvent.class,
+                        event -> invalidate(event.getUser().getUniqueId()));
+            }
+        } catch (NoClassDefFoundError e) {
+            Bukkit.getLogger().info("[nonchat] LuckPerms not installed - player caches rely on expiry only");
+        } catch (Exception e) {
+            Bukkit.getLogger().log(Level.WARNING, "[nonchat] Error subscribing to LuckPerms events: {0}", e.getMessage());
+        }
+    }
+
+    /**
+     * Unsubscribes from LuckPerms
+     */
+    public static void shutdown() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+    }
+
+    /**
+     * Drops a player from every registered cache
+     * @param playerId Player UUID
+     */
+    public static void invalidate(UUID playerId) {
+        for (Consumer<UUID> invalidator : invalidators.values()) {
+            invalidator.accept(playerId);
+        }
+    }
+}
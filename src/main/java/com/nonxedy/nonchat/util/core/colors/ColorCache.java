@@ -0,0 +1,126 @@
+package com.nonxedy.nonchat.util.core.colors;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.nonxedy.nonchat.config.PluginConfig;
+import com.nonxedy.nonchat.util.core.stats.ChatStats;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Bounded concurrent caches for {@link ColorUtil} results, one tier per kind of output:
+ * legacy strings from parseColor, components from parseComponentCached and
+ * MiniMessage parse results. Lookups never take a global lock and rarely used
+ * one-off strings such as player messages are evicted first.
+ */
+public class ColorCache {
+    public static final int DEFAULT_LEGACY_SIZE = 2000;
+    public static final int DEFAULT_COMPONENT_SIZE = 2000;
+    public static final int DEFAULT_MINIMESSAGE_SIZE = 1000;
+
+    private static volatile Tier<String> legacyTier = new Tier<>(DEFAULT_LEGACY_SIZE);
+    private static volatile Tier<Component> componentTier = new Tier<>(DEFAULT_COMPONENT_SIZE);
+    private static volatile Tier<Component> miniMessageTier = new Tier<>(DEFAULT_MINIMESSAGE_SIZE);
+
+    static {
+        registerGauges("legacy", () -> legacyTier);
+        registerGauges("component", () -> componentTier);
+        registerGauges("minimessage", () -> miniMessageTier);
+    }
+
+    /**
+     * Applies configured cache sizes
+     * @param config Plugin configuration
+     */
+    public static void initialize(PluginConfig config) {
+        reload(config);
+    }
+
+    /**
+     * Re-reads cache sizes, rebuilding only the tiers whose size changed.
+     * Cached results stay valid across reloads since they depend only on the input string.
+     * @param config Plugin configuration
+     */
+    public static synchronized void reload(PluginConfig config) {
+        if (legacyTier.maxSize != config.getColorCacheLegacySize()) {
+            legacyTier = new Tier<>(config.getColorCacheLegacySize());
+        }
+        if (componentTier.maxSize != config.getColorCacheComponentSize()) {
+            componentTier = new Tier<>(config.getColorCacheComponentSize());
+        }
+        if (miniMessageTier.maxSize != config.getColorCacheMiniMessageSize()) {
+            miniMessageTier = new Tier<>(config.getColorCacheMiniMessageSize());
+        }
+    }
+
+    /**
+     * Drops every cached result
+     */
+    public static void invalidateAll() {
+        legacyTier.cache.invalidateAll();
+        componentTier.cache.invalidateAll();
+        miniMessageTier.cache.invalidateAll();
+    }
+
+    /**
+     * Gets hit and miss statistics of the legacy string tier
+     * @return Cache statistics
+     */
+    public static CacheStats getLegacyStats() {
+        return legacyTier.cache.stats();
+    }
+
+    /**
+     * Gets hit and miss statistics of the component tier
+     * @return Cache statistics
+     */
+    public static CacheStats getComponentStats() {
+        return componentTier.cache.stats();
+    }
+
+    /**
+     * Gets hit and miss statistics of the MiniMessage tier
+     * @return Cache statistics
+     */
+    public static CacheStats getMiniMessageStats() {
+        return miniMessageTier.cache.stats();
+    }
+
+    static String legacy(String message, Function<String, String> parser) {
+        return legacyTier.cache.get(message, parser);
+    }
+
+    static Component component(String message, Function<String, Component> parser) {
+        return componentTier.cache.get(message, parser);
+    }
+
+    static Component miniMessage(String message, Function<String, Component> parser) {
+        return miniMessageTier.cache.get(message, parser);
+    }
+
+    private static void registerGauges(String tier, Supplier<Tier<?>> current) {
+        ChatStats.gauge("color_cache_" + tier + "_hits", () -> current.get().cache.stats().hitCount());
+        ChatStats.gauge("color_cache_" + tier + "_misses", () -> current.get().cache.stats().missCount());
+        ChatStats.gauge("color_cache_" + tier + "_size", () -> current.get().cache.estimatedSize());
+    }
+
+    /**
+     * One size-bounded cache with statistics enabled
+     */
+    private static final class Tier<V> {
+        private final int maxSize;
+        private final Cache<String, V> cache;
+
+        private Tier(int maxSize) {
+            this.maxSize = maxSize;
+            this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        }
+    }
+}
@@ -0,0 +1,468 @@
+package com.nonxedy.nonchat.util.core.colors;
+
+import java.util.Arrays;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.md_5.bungee.api.ChatColor;
+
+/**
+ * Single pass tokenizer for chat colour markup.
+ * One scan splits a string into plain text, legacy &amp;/§ codes, hex colours
+ * (&amp;#RRGGBB and §x§R§R§G§G§B§B) and &lt;...&gt; tags, and records whether the tags
+ * include MiniMessage tags or compact gradients. The token stream is then rendered
+ * to legacy text, MiniMessage input, plain text or a Component without
+ * running any regular expressions.
+ */
+public final class ColorLexer {
+    private static final byte TEXT = 0;
+    private static final byte LEGACY = 1;
+    private static final byte HEX = 2;
+    private static final byte TAG = 3;
+
+    private static final int TAG_PLAIN = 0;
+    private static final int TAG_CLOSE_ALL = 1;
+    private static final int TAG_COMPACT_GRADIENT = 2;
+    private static final int TAG_HEX = 3;
+
+    // Legacy codes that parsing, conversion and stripping have always recognized
+    private static final String STRICT_CODES = "0123456789abcdefklmnor";
+
+    private static final String[] MINI_NAMES = {
+        "black", "dark_blue", "dark_green", "dark_aqua", "dark_red", "dark_purple", "gold", "gray",
+        "dark_gray", "blue", "green", "aqua", "red", "light_purple", "yellow", "white",
+        "obfuscated", "bold", "strikethrough", "underlined", "italic", "reset"
+    };
+
+    private static final NamedTextColor[] COLORS = {
+        NamedTextColor.BLACK, NamedTextColor.DARK_BLUE, NamedTextColor.DARK_GREEN, NamedTextColor.DARK_AQUA,
+        NamedTextColor.DARK_RED, NamedTextColor.DARK_PURPLE, NamedTextColor.GOLD, NamedTextColor.GRAY,
+        NamedTextColor.DARK_GRAY, NamedTextColor.BLUE, NamedTextColor.GREEN, NamedTextColor.AQUA,
+        NamedTextColor.RED, NamedTextColor.LIGHT_PURPLE, NamedTextColor.YELLOW, NamedTextColor.WHITE
+    };
+
+    private static final TextDecoration[] DECORATIONS = {
+        TextDecoration.OBFUSCATED, TextDecoration.BOLD, TextDecoration.STRIKETHROUGH,
+        TextDecoration.UNDERLINED, TextDecoration.ITALIC
+    };
+
+    private final String source;
+    private byte[] types = new byte[8];
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int[] values = new int[8];
+    private int size;
+
+    private boolean miniMessageTags;
+    private boolean compactGradients;
+    private boolean miniMessageHex;
+    private boolean colorCodes;
+
+    private ColorLexer(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Tokenizes a string in a single scan
+     * @param message The text to tokenize, not null
+     * @return Token stream for the text
+     */
+    public static ColorLexer lex(String message) {
+        ColorLexer lexer = new ColorLexer(message);
+        lexer.scan();
+        return lexer;
+    }
+
+    /**
+     * Checks if the text contains MiniMessage tags such as &lt;red&gt;, &lt;#RRGGBB&gt; or &lt;/&gt;
+     * @return true if at least one MiniMessage tag was found
+     */
+    public boolean hasMiniMessageTags() {
+        return miniMessageTags;
+    }
+
+    /**
+     * Checks if the text contains compact gradients such as &lt;#RRGGBB#RRGGBB&gt;
+     * @return true if at least one compact gradient was found
+     */
+    public boolean hasCompactGradients() {
+        return compactGradients;
+    }
+
+    /**
+     * Checks if the text contains any colour codes, hex colours or tags
+     * @return true if the text is not plain
+     */
+    public boolean hasColorCodes() {
+        return colorCodes;
+    }
+
+    /**
+     * Renders the tokens as legacy section-sign text, translating &amp; codes and &amp;#RRGGBB
+     * @return Legacy formatted text
+     */
+    public String toLegacyString() {
+        StringBuilder out = new StringBuilder(source.length() + 16);
+        for (int i = 0; i < size; i++) {
+            switch (types[i]) {
+                case LEGACY -> {
+                    if (source.charAt(starts[i]) == '&') {
+                        out.append(ChatColor.COLOR_CHAR).append(Character.toLowerCase((char) values[i]));
+                    } else {
+                        out.append(source, starts[i], ends[i]);
+                    }
+                }
+                case HEX -> {
+                    if (source.charAt(starts[i] + 1) == '#') {
+                        out.append(ChatColor.of(source.substring(starts[i] + 1, ends[i])));
+                    } else if (source.charAt(starts[i]) == ChatColor.COLOR_CHAR) {
+                        out.append(source, starts[i], ends[i]);
+                    } else {
+                        for (int j = starts[i]; j < ends[i]; j += 2) {
+                            out.append(ChatColor.COLOR_CHAR).append(Character.toLowerCase(source.charAt(j + 1)));
+                        }
+                    }
+                }
+                case TAG -> appendLegacyTag(out, starts[i], ends[i]);
+                default -> out.append(source, starts[i], ends[i]);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Renders the tokens as MiniMessage input.
+     * Legacy codes outside tags become MiniMessage tags, &amp;#RRGGBB becomes &lt;#RRGGBB&gt; unless the
+     * text already uses &lt;#RRGGBB&gt;, compact gradients become &lt;gradient&gt; and &lt;/&gt; becomes &lt;reset&gt;
+     * @return MiniMessage formatted text
+     */
+    public String toMiniMessage() {
+        boolean convertHex = !miniMessageHex;
+        StringBuilder out = new StringBuilder(source.length() + 16);
+        for (int i = 0; i < size; i++) {
+            int start = starts[i];
+            int end = ends[i];
+            switch (types[i]) {
+                case LEGACY -> {
+                    int code = STRICT_CODES.indexOf(values[i]);
+                    if (code >= 0) {
+                        out.append('<').append(MINI_NAMES[code]).append('>');
+                    } else {
+                        out.append(source, start, end);
+                    }
+                }
+                case HEX -> {
+                    if (convertHex && source.charAt(start + 1) == '#') {
+                        out.append('<').append(source, start + 1, end).append('>');
+                    } else {
+                        out.append(source, start, end);
+                    }
+                }
+                case TAG -> {
+                    switch (values[i]) {
+                        case TAG_CLOSE_ALL -> out.append("<reset>");
+                        case TAG_COMPACT_GRADIENT -> {
+                            out.append("<gradient:");
+                            for (int j = start + 1; j < end - 1; j += 7) {
+                                if (j > start + 1) {
+                                    out.append(':');
+                                }
+                                out.append(source, j, j + 7);
+                            }
+                            out.append('>');
+                        }
+                        default -> appendTag(out, start, end, convertHex);
+                    }
+                }
+                default -> out.append(source, start, end);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Renders the tokens as plain text, dropping colour codes, hex colours and tags
+     * @return Text without any formatting
+     */
+    public String toPlainText() {
+        if (!colorCodes) {
+            return source;
+        }
+        StringBuilder out = new StringBuilder(source.length());
+        for (int i = 0; i < size; i++) {
+            if (types[i] == TEXT || (types[i] == LEGACY && STRICT_CODES.indexOf(values[i]) < 0)) {
+                out.append(source, starts[i], ends[i]);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Builds a Component from legacy codes and hex colours.
+     * Tags are kept as literal text, use MiniMessage for text with {@link #hasMiniMessageTags()}
+     * @return Component with the same styling the legacy serializer would produce
+     */
+    public Component toComponent() {
+        if (!colorCodes) {
+            return Component.text(source);
+        }
+
+        TextComponent.Builder root = Component.text();
+        Style style = Style.empty();
+        int runStart = -1;
+        int runEnd = -1;
+        for (int i = 0; i < size; i++) {
+            byte type = types[i];
+            if (type == TEXT || type == TAG) {
+                if (runStart < 0) {
+                    runStart = starts[i];
+                }
+                runEnd = ends[i];
+                continue;
+            }
+
+            if (runStart >= 0) {
+                root.append(Component.text(source.substring(runStart, runEnd), style));
+                runStart = -1;
+            }
+            if (type == HEX) {
+                style = Style.style(TextColor.color(values[i]));
+                continue;
+            }
+
+            int code = STRICT_CODES.indexOf(Character.toLowerCase((char) values[i]));
+            if (code < 0) {
+                continue;
+            } else if (code < COLORS.length) {
+                style = Style.style(COLORS[code]);
+            } else if (code < COLORS.length + DECORATIONS.length) {
+                style = style.decoration(DECORATIONS[code - COLORS.length], true);
+            } else {
+                style = Style.empty();
+            }
+        }
+        if (runStart >= 0) {
+            root.append(Component.text(source.substring(runStart, runEnd), style));
+        }
+        return root.build();
+    }
+
+    private void appendLegacyTag(StringBuilder out, int start, int end) {
+        // Legacy text has no tags, so codes inside brackets are translated like any other text
+        ColorLexer inner = lex(source.substring(start + 1, end - 1));
+        out.append('<').append(inner.toLegacyString()).append('>');
+    }
+
+    private void appendTag(StringBuilder out, int start, int end, boolean convertHex) {
+        if (!convertHex) {
+            out.append(source, start, end);
+            return;
+        }
+        // Hex colours inside tag arguments, e.g. hover text, are converted as well
+        int copied = start;
+        for (int j = start + 1; j + 8 <= end - 1; j++) {
+            if (source.charAt(j) == '&' && source.charAt(j + 1) == '#' && isHex(source, j + 2, 6)) {
+                out.append(source, copied, j).append('<').append(source, j + 1, j + 8).append('>');
+                copied = j + 8;
+                j += 7;
+            }
+        }
+        out.append(source, copied, end);
+    }
+
+    private void scan() {
+        String s = source;
+        int length = s.length();
+        int lastClose = s.lastIndexOf('>');
+        int textStart = 0;
+        int i = 0;
+
+        while (i < length) {
+            char c = s.charAt(i);
+            int end = -1;
+            byte type = TEXT;
+            int value = 0;
+
+            if ((c == '&' || c == ChatColor.COLOR_CHAR) && i + 1 < length) {
+                char next = s.charAt(i + 1);
+                if (c == '&' && next == '#' && isHex(s, i + 2, 6)) {
+                    type = HEX;
+                    end = i + 8;
+                    value = Integer.parseInt(s, i + 2, end, 16);
+                } else if ((next == 'x' || next == 'X') && isRepeatedHex(s, i, c)) {
+                    type = HEX;
+                    end = i + 14;
+                    value = repeatedHexValue(s, i);
+                } else if (isCodeChar(next)) {
+                    type = LEGACY;
+                    end = i + 2;
+                    value = next;
+                }
+            } else if (c == '<') {
+                if (!miniMessageTags && isMiniMessageTag(s, i, lastClose)) {
+                    miniMessageTags = true;
+                }
+                int close = findTagClose(s, i);
+                if (close > i + 1) {
+                    type = TAG;
+                    end = close + 1;
+                    value = classifyTag(s, i, end);
+                }
+            }
+
+            if (end < 0) {
+                i++;
+                continue;
+            }
+            if (textStart < i) {
+                add(TEXT, textStart, i, 0);
+            }
+            add(type, i, end, value);
+            if (type != LEGACY || STRICT_CODES.indexOf(value) >= 0) {
+                colorCodes = true;
+            }
+            i = end;
+            textStart = end;
+        }
+        if (textStart < length) {
+            add(TEXT, textStart, length, 0);
+        }
+    }
+
+    private int classifyTag(String s, int start, int end) {
+        int inner = end - start - 2;
+        if (inner == 1 && s.charAt(start + 1) == '/') {
+            return TAG_CLOSE_ALL;
+        }
+        if (s.charAt(start + 1) != '#' || inner % 7 != 0) {
+            return TAG_PLAIN;
+        }
+        for (int j = start + 1; j < end - 1; j += 7) {
+            if (s.charAt(j) != '#' || !isHex(s, j + 1, 6)) {
+                return TAG_PLAIN;
+            }
+        }
+        if (inner == 7) {
+            miniMessageHex = true;
+            return TAG_HEX;
+        }
+        compactGradients = true;
+        return TAG_COMPACT_GRADIENT;
+    }
+
+    private void add(byte type, int start, int end, int value) {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        types[size] = type;
+        starts[size] = start;
+        ends[size] = end;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Finds the '&gt;' closing a tag that opens at the given index
+     * @return Index of the closing bracket, or -1 if another '&lt;' or the end comes first
+     */
+    private static int findTagClose(String s, int open) {
+        for (int j = open + 1; j < s.length(); j++) {
+            char c = s.charAt(j);
+            if (c == '>') {
+                return j;
+            }
+            if (c == '<') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks for a MiniMessage tag at the given index: &lt;/&gt;, or &lt;name&gt;, &lt;/name&gt;, &lt;#RRGGBB&gt;
+     * with an optional :argument, where name is lowercase letters and underscores
+     */
+    private static boolean isMiniMessageTag(String s, int open, int lastClose) {
+        int length = s.length();
+        int i = open + 1;
+        if (i + 1 < length && s.charAt(i) == '/' && s.charAt(i + 1) == '>') {
+            return true;
+        }
+        if (matchesTagBody(s, i, lastClose)) {
+            return true;
+        }
+        return i < length && (s.charAt(i) == '/' || s.charAt(i) == '#') && matchesTagBody(s, i + 1, lastClose);
+    }
+
+    private static boolean matchesTagBody(String s, int i, int lastClose) {
+        int length = s.length();
+        int end;
+        if (i < length && s.charAt(i) == '#' && isHex(s, i + 1, 6)) {
+            end = i + 7;
+        } else {
+            end = i;
+            while (end < length && isNameChar(s.charAt(end))) {
+                end++;
+            }
+            if (end == i) {
+                return false;
+            }
+        }
+        if (end >= length) {
+            return false;
+        }
+        char c = s.charAt(end);
+        return c == '>' || (c == ':' && lastClose > end);
+    }
+
+    private static boolean isRepeatedHex(String s, int i, char marker) {
+        if (i + 14 > s.length()) {
+            return false;
+        }
+        for (int j = i + 2; j < i + 14; j += 2) {
+            if (s.charAt(j) != marker || !isHex(s, j + 1, 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int repeatedHexValue(String s, int i) {
+        int value = 0;
+        for (int j = i + 3; j < i + 14; j += 2) {
+            value = (value << 4) | Character.digit(s.charAt(j), 16);
+        }
+        return value;
+    }
+
+    private static boolean isHex(String s, int start, int count) {
+        if (start + count > s.length()) {
+            return false;
+        }
+        for (int j = start; j < start + count; j++) {
+            char c = s.charAt(j);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCodeChar(char c) {
+        char lower = Character.toLowerCase(c);
+        return (lower >= '0' && lower <= '9') || (lower >= 'a' && lower <= 'f')
+            || (lower >= 'k' && lower <= 'o') || lower == 'r' || lower == 'x';
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || c == '_';
+    }
+}
@@ -1,67 +1,20 @@
 package com.nonxedy.nonchat.util.core.colors;
 
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.WeakHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.bukkit.entity.Player;
 
+import com.nonxedy.nonchat.util.core.permissions.PermissionCache;
+
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
-import net.md_5.bungee.api.ChatColor;
-
-/**
- * Simple LRU cache implementation
- */
-class LRUCache<K,V> {
-    private final Map<K,V> cache;
-    private final int maxSize;
-    
-    public LRUCache(int maxSize) {
-        this.maxSize = maxSize;
-        this.cache = Collections.synchronizedMap(
-            new LinkedHashMap<K,V>(maxSize, 0.75f, true) {
-                @Override
-                protected boolean removeEldestEntry(Entry<K,V> eldest) {
-                    return cache.size() > maxSize;
-                }
-            });
-    }
-    
-    public V get(K key) {
-        return cache.get(key);
-    }
-    
-    public void put(K key, V value) {
-        cache.put(key, value);
-    }
-}
 
 /**
  * Provides color code processing and text formatting for chat messages
  * Supports legacy color codes, hex colors, and MiniMessage format
  */
 public class ColorUtil {
-    // Pattern for matching hex color codes in &#RRGGBB format
-    private static final Pattern HEX_PATTERN = Pattern.compile("&#([A-Fa-f0-9]{6})");
-    
-    // Pattern for matching legacy color codes (&0-&f, &k-&r)
-    private static final Pattern LEGACY_COLOR_PATTERN = Pattern.compile("&[0-9a-fklmnor]");
-    
-    // Pattern for matching section symbol color codes (§0-§f, §k-§r)
-    private static final Pattern SECTION_COLOR_PATTERN = Pattern.compile("§[0-9a-fklmnor]");
-    
-    // Pattern for matching MiniMessage format tags (more comprehensive)
-    private static final Pattern MINIMESSAGE_PATTERN = Pattern.compile("<[^>]+>");
-    
-    // Pattern for detecting MiniMessage tags more accurately
-    private static final Pattern MINIMESSAGE_TAG_PATTERN = Pattern.compile("<(?:[/#]?(?:color|c|gradient|rainbow|bold|b|italic|i|underlined|u|strikethrough|st|obfuscated|obf|reset|r|shadow|hover|click|insertion|font|transition|selector|keybind|translatable|score|nbt|newline|br|lang|key|translate|#[0-9a-fA-F]{6}|[a-z_]+)(?::[^>]*)?|/)>");
-    
     // Pattern for detecting gradient tags specifically
     private static final Pattern GRADIENT_PATTERN = Pattern.compile("<gradient:[^>]+>");
 
@@ -77,44 +30,24 @@ public class ColorUtil {
      * @param message The text containing color codes
      * @return Processed string with color codes converted
      */
-    private static final LRUCache<String, String> COLOR_CACHE = new LRUCache<>(1000);
-    private static final Map<String, Component> COMPONENT_CACHE = 
-        Collections.synchronizedMap(new WeakHashMap<>());
-
     public static String parseColor(String message) {
         if (message == null) return "";
+        if (message.isEmpty()) return message;
         
         // Check cache first
-        String cached = COLOR_CACHE.get(message);
-        if (cached != null) return cached;
-        
-        Matcher matcher = HEX_PATTERN.matcher(message);
-        StringBuilder buffer = new StringBuilder(message.length() + 32);
-
-        while (matcher.find()) {
-            String group = matcher.group(1);
-            matcher.appendReplacement(buffer, ChatColor.of("#" + group).toString());
-        }
-        matcher.appendTail(buffer);
-        
-        String result = ChatColor.translateAlternateColorCodes('&', buffer.toString());
-        COLOR_CACHE.put(message, result);
-        return result;
+        return ColorCache.legacy(message, text -> ColorLexer.lex(text).toLegacyString());
     }
 
+    /**
+     * Converts color-coded text into a Component, reusing earlier results for the same text
+     * Meant for messages from language files and configs that are sent over and over
+     * @param message The text to convert to Component
+     * @return Adventure Component with processed colors
+     */
     public static Component parseComponentCached(String message) {
         if (message == null || message.isEmpty()) return Component.empty();
         
-        return COMPONENT_CACHE.computeIfAbsent(message, m -> {
-            if (containsMiniMessageTags(m) || COMPACT_GRADIENT_PATTERN.matcher(m).find()) {
-                // Parse with MiniMessage if it contains MiniMessage format tags
-                return parseMiniMessageComponent(m);
-            } else {
-                // Otherwise use legacy format parsing
-                String legacyMessage = parseColor(m);
-                return LegacyComponentSerializer.legacySection().deserialize(legacyMessage);
-            }
-        });
+        return ColorCache.component(message, ColorUtil::parseComponent);
     }
 
     /**
@@ -126,16 +59,14 @@ public class ColorUtil {
     public static Component parseComponent(String message) {
         if (message == null || message.isEmpty()) return Component.empty();
         
-        // Check if the message contains any MiniMessage format tags or compact gradients
-        if (containsMiniMessageTags(message) || COMPACT_GRADIENT_PATTERN.matcher(message).find()) {
+        // One scan tells whether the message contains any MiniMessage format tags or compact gradients
+        ColorLexer tokens = ColorLexer.lex(message);
+        if (tokens.hasMiniMessageTags() || tokens.hasCompactGradients()) {
             // Parse with MiniMessage if it contains MiniMessage format tags
             return parseMiniMessageComponent(message);
-        } else {
-            // Otherwise use legacy format parsing
-            String legacyMessage = parseColor(message);
-            // Convert the legacy formatted string to a Component object
-            return LegacyComponentSerializer.legacySection().deserialize(legacyMessage);
         }
+        // Otherwise build the component straight from the legacy codes
+        return tokens.toComponent();
     }
     
     /**
@@ -145,7 +76,7 @@ public class ColorUtil {
      * @return Adventure Component with processed colors (or plain text if no permission)
      */
     public static Component parseComponent(String message, Player player) {
-        if (player != null && !player.hasPermission("nonchat.color")) {
+        if (player != null && !PermissionCache.has(player, PermissionCache.COLOR)) {
             // Strip all color codes if player doesn't have permission
             return Component.text(stripAllColors(message));
         }
@@ -161,26 +92,19 @@ public class ColorUtil {
     public static Component parseMiniMessageComponent(String message) {
         if (message == null || message.isEmpty()) return Component.empty();
 
-        // Support for non-standard </> closing tag, mapping it to <reset>
-        message = message.replace("</>", "<reset>");
+        return ColorCache.miniMessage(message, ColorUtil::deserializeMiniMessage);
+    }
 
-        // Always convert compact gradients (<#HEX#HEX...>) if present
-        if (COMPACT_GRADIENT_PATTERN.matcher(message).find()) {
-            message = convertCompactGradients(message);
-        }
+    private static Component deserializeMiniMessage(String message) {
+        // Maps </> to <reset>, compact gradients to <gradient> and legacy codes to tags in one pass
+        message = ColorLexer.lex(message).toMiniMessage();
 
         try {
-            // Check if message contains legacy codes that need conversion
-            if (containsLegacyCodes(message)) {
-                // Convert legacy codes to MiniMessage format before parsing
-                message = convertToMiniMessageFormat(message);
-            }
             // Parse with MiniMessage
             return MINI_MESSAGE.deserialize(message);
         } catch (Exception e) {
             // Fallback to legacy parsing if MiniMessage parsing fails
-            String legacyMessage = parseColor(message);
-            return LegacyComponentSerializer.legacySection().deserialize(legacyMessage);
+            return ColorLexer.lex(message).toComponent();
         }
     }
     
@@ -191,7 +115,7 @@ public class ColorUtil {
      * @return Parsed Adventure Component (or plain text if no permission)
      */
     public static Component parseMiniMessageComponent(String message, Player player) {
-        if (player != null && !player.hasPermission("nonchat.color")) {
+        if (player != null && !PermissionCache.has(player, PermissionCache.COLOR)) {
             // Strip all color codes if player doesn't have permission
             return Component.text(stripAllColors(message));
         }
@@ -206,35 +130,8 @@ public class ColorUtil {
      */
     public static String convertToMiniMessageFormat(String message) {
         if (message == null || message.isEmpty()) return "";
-        
-        String result = message;
 
-        // Convert compact gradients first (<#HEX#HEX...>)
-        result = convertCompactGradients(result);
-        
-        // Check if the message already has valid MiniMessage hex colors
-        boolean hasMiniMessageHex = result.matches(".*<#[0-9a-fA-F]{6}>.*");
-        
-        // Only convert legacy hex codes if there are no MiniMessage hex colors present
-        // This prevents conflicts between &#RRGGBB and <#RRGGBB> formats
-        if (!hasMiniMessageHex) {
-            Matcher matcher = HEX_PATTERN.matcher(result);
-            StringBuffer buffer = new StringBuffer(result.length() + 4 * 8);
-            
-            while (matcher.find()) {
-                String hexColor = matcher.group(1);
-                // Replace &#RRGGBB with <#RRGGBB>
-                matcher.appendReplacement(buffer, "<#" + hexColor + ">");
-            }
-            matcher.appendTail(buffer);
-            result = buffer.toString();
-        }
-        
-        // For legacy color codes, only convert them if they're not part of existing MiniMessage tags
-        // We need to be more careful to avoid conflicts
-        result = safelyConvertLegacyColors(result);
-        
-        return result;
+        return ColorLexer.lex(message).toMiniMessage();
     }
 
     /**
@@ -264,96 +161,6 @@ public class ColorUtil {
         return buffer.toString();
     }
     
-    /**
-     * Safely converts legacy color codes to MiniMessage format, avoiding conflicts
-     * @param message The message to process
-     * @return Message with legacy colors converted to MiniMessage format
-     */
-    private static String safelyConvertLegacyColors(String message) {
-        if (message == null || message.isEmpty()) return message;
-        
-        // Split the message by MiniMessage tags to process text between tags
-        String[] parts = message.split("(?=<)|(?<=>)");
-        StringBuilder result = new StringBuilder();
-        
-        for (String part : parts) {
-            if (part.startsWith("<") && part.endsWith(">")) {
-                // This is a MiniMessage tag, keep it as is
-                result.append(part);
-            } else {
-                // This is text between tags, convert legacy codes
-                String converted = convertLegacyCodesInText(part);
-                result.append(converted);
-            }
-        }
-        
-        return result.toString();
-    }
-    
-    /**
-     * Converts legacy color codes in plain text (not inside MiniMessage tags)
-     * @param text The text to convert
-     * @return Text with legacy codes converted to MiniMessage format
-     */
-    private static String convertLegacyCodesInText(String text) {
-        String result = text;
-        
-        // Convert legacy color codes to MiniMessage format
-        result = result.replace("&0", "<black>");
-        result = result.replace("&1", "<dark_blue>");
-        result = result.replace("&2", "<dark_green>");
-        result = result.replace("&3", "<dark_aqua>");
-        result = result.replace("&4", "<dark_red>");
-        result = result.replace("&5", "<dark_purple>");
-        result = result.replace("&6", "<gold>");
-        result = result.replace("&7", "<gray>");
-        result = result.replace("&8", "<dark_gray>");
-        result = result.replace("&9", "<blue>");
-        result = result.replace("&a", "<green>");
-        result = result.replace("&b", "<aqua>");
-        result = result.replace("&c", "<red>");
-        result = result.replace("&d", "<light_purple>");
-        result = result.replace("&e", "<yellow>");
-        result = result.replace("&f", "<white>");
-        
-        // Convert § codes (section symbol)
-        result = result.replace("§0", "<black>");
-        result = result.replace("§1", "<dark_blue>");
-        result = result.replace("§2", "<dark_green>");
-        result = result.replace("§3", "<dark_aqua>");
-        result = result.replace("§4", "<dark_red>");
-        result = result.replace("§5", "<dark_purple>");
-        result = result.replace("§6", "<gold>");
-        result = result.replace("§7", "<gray>");
-        result = result.replace("§8", "<dark_gray>");
-        result = result.replace("§9", "<blue>");
-        result = result.replace("§a", "<green>");
-        result = result.replace("§b", "<aqua>");
-        result = result.replace("§c", "<red>");
-        result = result.replace("§d", "<light_purple>");
-        result = result.replace("§e", "<yellow>");
-        result = result.replace("§f", "<white>");
-        
-        // Format codes with & prefix
-        result = result.replace("&l", "<bold>");
-        result = result.replace("&m", "<strikethrough>");
-        result = result.replace("&n", "<underlined>");
-        result = result.replace("&o", "<italic>");
-        result = result.replace("&k", "<obfuscated>");
-        result = result.replace("&r", "<reset>");
-        
-        // Format codes with § prefix
-        result = result.replace("§l", "<bold>");
-        result = result.replace("§m", "<strikethrough>");
-        result = result.replace("§n", "<underlined>");
-        result = result.replace("§o", "<italic>");
-        result = result.replace("§k", "<obfuscated>");
-        result = result.replace("§r", "<reset>");
-        
-        return result;
-    }
-    
-    
     /**
      * Checks if a message contains MiniMessage tags using pattern matching
      * @param message The message to check
@@ -361,19 +168,7 @@ public class ColorUtil {
      */
     public static boolean containsMiniMessageTags(String message) {
         if (message == null || message.isEmpty()) return false;
-        return MINIMESSAGE_TAG_PATTERN.matcher(message).find();
-    }
-    
-    /**
-     * Checks if a message contains legacy color codes
-     * @param message The message to check
-     * @return true if the message contains legacy codes
-     */
-    private static boolean containsLegacyCodes(String message) {
-        if (message == null || message.isEmpty()) return false;
-        return HEX_PATTERN.matcher(message).find() ||
-               LEGACY_COLOR_PATTERN.matcher(message).find() ||
-               SECTION_COLOR_PATTERN.matcher(message).find();
+        return ColorLexer.lex(message).hasMiniMessageTags();
     }
     
     /**
@@ -383,22 +178,8 @@ public class ColorUtil {
      */
     public static String stripAllColors(String message) {
         if (message == null) return "";
-        
-        String result = message;
-        
-        // Remove hex color codes (&#RRGGBB)
-        result = HEX_PATTERN.matcher(result).replaceAll("");
-        
-        // Remove legacy color codes (&0-&f, &k-&r)
-        result = LEGACY_COLOR_PATTERN.matcher(result).replaceAll("");
-        
-        // Remove section symbol color codes (§0-§f, §k-§r)
-        result = SECTION_COLOR_PATTERN.matcher(result).replaceAll("");
-        
-        // Remove MiniMessage format tags
-        result = MINIMESSAGE_PATTERN.matcher(result).replaceAll("");
-        
-        return result;
+
+        return ColorLexer.lex(message).toPlainText();
     }
     
     /**
@@ -408,11 +189,8 @@ public class ColorUtil {
      */
     public static boolean hasColorCodes(String message) {
         if (message == null) return false;
-        
-        return HEX_PATTERN.matcher(message).find() ||
-               LEGACY_COLOR_PATTERN.matcher(message).find() ||
-               SECTION_COLOR_PATTERN.matcher(message).find() ||
-               MINIMESSAGE_PATTERN.matcher(message).find();
+
+        return ColorLexer.lex(message).hasColorCodes();
     }
     
     /**
@@ -422,7 +200,7 @@ public class ColorUtil {
      * @return Processed message (colored if has permission, plain if not)
      */
     public static String processMessageWithPermission(String message, Player player) {
-        if (player != null && !player.hasPermission("nonchat.color")) {
+        if (player != null && !PermissionCache.has(player, PermissionCache.COLOR)) {
             return stripAllColors(message);
         }
         return parseColor(message);
@@ -449,19 +227,18 @@ public class ColorUtil {
         
         // For config strings, always try MiniMessage first if it contains any MiniMessage-like tags
         // This ensures gradients and other MiniMessage features work properly in config
-        if (containsMiniMessageTags(message) || containsGradient(message) || COMPACT_GRADIENT_PATTERN.matcher(message).find()) {
+        ColorLexer tokens = ColorLexer.lex(message);
+        if (tokens.hasMiniMessageTags() || tokens.hasCompactGradients() || containsGradient(message)) {
             try {
                 // Try to parse as MiniMessage first
                 return parseMiniMessageComponent(message);
             } catch (Exception e) {
                 // Fallback to legacy parsing if MiniMessage parsing fails
-                String legacyMessage = parseColor(message);
-                return LegacyComponentSerializer.legacySection().deserialize(legacyMessage);
+                return tokens.toComponent();
             }
         } else {
             // Use legacy format parsing for traditional color codes
-            String legacyMessage = parseColor(message);
-            return LegacyComponentSerializer.legacySection().deserialize(legacyMessage);
+            return tokens.toComponent();
         }
     }
 }
@@ -0,0 +1,162 @@
+package com.nonxedy.nonchat.util.core.permissions;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.entity.Player;
+
+import com.nonxedy.nonchat.config.PluginConfig;
+import com.nonxedy.nonchat.util.core.cache.PlayerCaches;
+
+/**
+ * Per-player snapshot of every permission node nonchat checks on the chat path.
+ * Each player's grants are stored as a bitset, computed once on join and dropped when
+ * LuckPerms recalculates the player's data, so chat checks become plain bit tests.
+ */
+public class PermissionCache {
+    public static final String ANTI_BLOCKED_WORDS = "nonchat.antiblockedwords";
+    public static final String CAPS_BYPASS = "nonchat.caps.bypass";
+    public static final String SPAM_BYPASS = "nonchat.spam.bypass";
+    public static final String AD_BYPASS = "nonchat.ad.bypass";
+    public static final String COLOR = "nonchat.color";
+    public static final String CHAT_BUBBLES = "nonchat.chatbubbles";
+    public static final String COOLDOWN_BYPASS = "nonchat.bypass.cooldown";
+
+    private static final Map<String, Integer> nodeIndex = new ConcurrentHashMap<>();
+    private static final Map<UUID, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private static volatile String[] nodes = new String[0];
+    private static volatile boolean enabled = true;
+    private static volatile long ttlMillis = 60_000L;
+
+    static {
+        registerNode(ANTI_BLOCKED_WORDS);
+        registerNode(CAPS_BYPASS);
+        registerNode(SPAM_BYPASS);
+        registerNode(AD_BYPASS);
+        registerNode(COLOR);
+        registerNode(CHAT_BUBBLES);
+        registerNode(COOLDOWN_BYPASS);
+        PlayerCaches.register("permissions", PermissionCache::invalidate);
+    }
+
+    /**
+     * Applies configuration
+     * @param config Plugin configuration
+     */
+    public static void initialize(PluginConfig config) {
+        reload(config);
+    }
+
+    /**
+     * Re-reads cache settings and drops all snapshots
+     * @param config Plugin configuration
+     */
+    public static void reload(PluginConfig config) {
+        enabled = config.isPermissionCacheEnabled();
+        ttlMillis = config.getPermissionCacheTtl() * 1000L;
+        snapshots.clear();
+    }
+
+    /**
+     * Clears all snapshots
+     */
+    public static void shutdown() {
+        snapshots.clear();
+    }
+
+    /**
+     * Registers a node to be included in snapshots.
+     * Adding a new node drops existing snapshots so they are rebuilt with it.
+     * @param node Permission node, ignored if null or empty
+     */
+    public static void registerNode(String node) {
+        if (node == null || node.isEmpty() || nodeIndex.containsKey(node)) {
+            return;
+        }
+        synchronized (nodeIndex) {
+            if (nodeIndex.containsKey(node)) {
+                return;
+            }
+            String[] updated = Arrays.copyOf(nodes, nodes.length + 1);
+            updated[nodes.length] = node;
+            nodes = updated;
+            nodeIndex.put(node, updated.length - 1);
+        }
+        snapshots.clear();
+    }
+
+    /**
+     * Checks a permission, using the player's snapshot when the node is tracked
+     * @param player Player to check
+     * @param node Permission node
+     * @return true if the player has the permission
+     */
+    public static boolean has(Player player, String node) {
+        Integer index = enabled ? nodeIndex.get(node) : null;
+        if (index == null) {
+            return player.hasPermission(node);
+        }
+
+        Snapshot snapshot = snapshots.get(player.getUniqueId());
+        if (snapshot == null || index >= snapshot.size || snapshot.isExpired()) {
+            snapshot = refresh(player);
+        }
+        return (snapshot.bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Computes a fresh snapshot for a player
+     * @param player Player to snapshot
+     * @return The new snapshot
+     */
+    public static Snapshot refresh(Player player) {
+        String[] current = nodes;
+        long[] bits = new long[(current.length + 63) >>> 6];
+        for (int i = 0; i < current.length; i++) {
+            if (player.hasPermission(current[i])) {
+                bits[i >>> 6] |= 1L << i;
+            }
+        }
+        Snapshot snapshot = new Snapshot(bits, current.length, System.currentTimeMillis() + ttlMillis);
+        if (player.isOnline()) {
+            snapshots.put(player.getUniqueId(), snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops a player's snapshot, the next check recomputes it
+     * @param playerId Player UUID
+     */
+    public static void invalidate(UUID playerId) {
+        snapshots.remove(playerId);
+    }
+
+    /**
+     * Drops all snapshots
+     */
+    public static void invalidateAll() {
+        snapshots.clear();
+    }
+
+    /**
+     * Immutable permission bitset for one player
+     */
+    public static final class Snapshot {
+        private final long[] bits;
+        private final int size;
+        private final long expiresAt;
+
+        private Snapshot(long[] bits, int size, long expiresAt) {
+            this.bits = bits;
+            this.size = size;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.nonxedy.nonchat.util.core.stats;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.nonxedy.nonchat.config.PluginConfig;
+
+/**
+ * Named latency timers, counters and gauges for the chat path and database calls.
+ * Timers and counters are registered once by the code they measure and kept for the
+ * lifetime of the plugin. While stats are disabled {@link #start()} returns 0 and every
+ * record call returns after a single volatile read.
+ */
+public class ChatStats {
+    private static final String[] TIMER_FIELDS = { "count", "mean", "p50", "p90", "p99", "max" };
+
+    private static final NavigableMap<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private static final NavigableMap<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private static final NavigableMap<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+    private static volatile boolean enabled = true;
+
+    /**
+     * Applies configuration
+     * @param config Plugin configuration
+     */
+    public static void initialize(PluginConfig config) {
+        reload(config);
+    }
+
+    /**
+     * Re-reads whether stats are collected, keeping what was recorded so far
+     * @param config Plugin configuration
+     */
+    public static void reload(PluginConfig config) {
+        enabled = config.isStatsEnabled();
+    }
+
+    /**
+     * Stops collecting and clears all recorded values
+     */
+    public static void shutdown() {
+        enabled = false;
+        reset();
+    }
+
+    /**
+     * Checks if stats are being collected
+     * @return true if enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets or registers a timer
+     * @param name Timer name, lowercase with underscores
+     * @return The timer
+     */
+    public static Timer timer(String name) {
+        return timers.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * Gets or registers a counter
+     * @param name Counter name, lowercase with underscores
+     * @return The counter
+     */
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Registers a gauge, a value owned and computed by other code such as cache statistics
+     * @param name Gauge name, lowercase with underscores
+     * @param supplier Supplies the current value
+     */
+    public static void gauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    /**
+     * Reads the current time for a measurement
+     * @return Start time in nanoseconds, or 0 when stats are disabled
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Gets all registered timers, sorted by name
+     * @return Unmodifiable view of the timers
+     */
+    public static Map<String, Timer> getTimers() {
+        return Collections.unmodifiableMap(timers);
+    }
+
+    /**
+     * Gets all registered counters, sorted by name
+     * @return Unmodifiable view of the counters
+     */
+    public static Map<String, Counter> getCounters() {
+        return Collections.unmodifiableMap(counters);
+    }
+
+    /**
+     * Gets all registered gauges, sorted by name
+     * @return Unmodifiable view of the gauges
+     */
+    public static Map<String, LongSupplier> getGauges() {
+        return Collections.unmodifiableMap(gauges);
+    }
+
+    /**
+     * Clears every timer and counter, gauges are left to their owners
+     */
+    public static void reset() {
+        timers.values().forEach(timer -> timer.histogram.reset());
+        counters.values().forEach(counter -> counter.value.reset());
+    }
+
+    /**
+     * Resolves a stat by placeholder name.
+     * Counters and gauges are looked up by name, timers as name_count, name_mean, name_p50, name_p90,
+     * name_p99 or name_max, with latencies in milliseconds.
+     * @param name Stat name, e.g. stage_filter_p99
+     * @return Formatted value, or null if no such stat exists
+     */
+    public static String lookup(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            return String.valueOf(counter.get());
+        }
+        LongSupplier gauge = gauges.get(key);
+        if (gauge != null) {
+            return String.valueOf(gauge.getAsLong());
+        }
+
+        for (String field : TIMER_FIELDS) {
+            if (!key.endsWith("_" + field)) {
+                continue;
+            }
+            Timer timer = timers.get(key.substring(0, key.length() - field.length() - 1));
+            if (timer == null) {
+                return null;
+            }
+            return switch (field) {
+                case "count" -> String.valueOf(timer.getCount());
+                case "mean" -> formatMillis(timer.getMean());
+                case "p50" -> formatMillis(timer.getPercentile(0.50));
+                case "p90" -> formatMillis(timer.getPercentile(0.90));
+                case "p99" -> formatMillis(timer.getPercentile(0.99));
+                default -> formatMillis(timer.getMax());
+            };
+        }
+        return null;
+    }
+
+    /**
+     * Formats a nanosecond duration as milliseconds
+     * @param nanos Duration in nanoseconds
+     * @return Milliseconds with two decimals
+     */
+    public static String formatMillis(double nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Latency histogram for one measured operation
+     */
+    public static class Timer {
+        private final String name;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Records the time elapsed since a measurement started
+         * @param start Value returned by {@link ChatStats#start()}, nothing is recorded if it is 0
+         */
+        public void stop(long start) {
+            if (start != 0L && enabled) {
+                histogram.record(System.nanoTime() - start);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        public double getMean() {
+            return histogram.getMean();
+        }
+
+        public long getPercentile(double fraction) {
+            return histogram.getPercentile(fraction);
+        }
+
+        public long getMax() {
+            return histogram.getMax();
+        }
+    }
+
+    /**
+     * Monotonic event counter
+     */
+    public static class Counter {
+        private final String name;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Adds one to the counter if stats are enabled
+         */
+        public void increment() {
+            if (enabled) {
+                value.increment();
+            }
+        }
+
+        /**
+         * Adds to the counter if stats are enabled
+         * @param amount Amount to add
+         */
+        public void add(long amount) {
+            if (enabled) {
+                value.add(amount);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+}
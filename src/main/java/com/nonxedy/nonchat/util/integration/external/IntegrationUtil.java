@@ -6,7 +6,6 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.RegisteredServiceProvider;
 
-import me.clip.placeholderapi.PlaceholderAPI;
 import net.luckperms.api.LuckPerms;
 import net.luckperms.api.model.user.User;
 import net.milkbowl.vault.economy.Economy;
@@ -137,7 +136,7 @@ public class IntegrationUtil {
     public static String getPlayTime(Player player) {
         try {
             if (placeholderAPIEnabled) {
-                return PlaceholderAPI.setPlaceholders(player, "%statistic_time_played%");
+                return PlaceholderResolver.setPlaceholders(player, "%statistic_time_played%");
             }
         } catch (Exception e) {
             Bukkit.getLogger().log(Level.FINE, "[nonchat] Error getting player play time: {0}", e.getMessage());
@@ -155,7 +154,7 @@ public class IntegrationUtil {
         try {
             if (placeholderAPIEnabled && player != null && text != null) {
                 try {
-                    return PlaceholderAPI.setPlaceholders(player, text);
+                    return PlaceholderResolver.setPlaceholders(player, text);
                 } catch (Exception e) {
                     Bukkit.getLogger().log(Level.WARNING, "[nonchat] Error processing placeholder: {0}", e.getMessage());
                     return text;
@@ -0,0 +1,224 @@
+package com.nonxedy.nonchat.util.integration.external;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bukkit.entity.Player;
+
+import com.nonxedy.nonchat.config.PluginConfig;
+import com.nonxedy.nonchat.util.core.cache.PlayerCaches;
+import com.nonxedy.nonchat.util.core.stats.ChatStats;
+
+import me.clip.placeholderapi.PlaceholderAPI;
+
+/**
+ * Resolves PlaceholderAPI placeholders one at a time and caches each value per player.
+ * Every placeholder lives for the default TTL unless it has its own, and placeholders listed
+ * as volatile are never cached. While a chat message is being processed, each distinct
+ * placeholder is resolved at most once, volatile ones included.
+ * Must only be used when PlaceholderAPI is installed.
+ */
+public class PlaceholderResolver {
+    private static final Map<UUID, Map<String, Value>> values = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Scope> scope = new ThreadLocal<>();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static volatile boolean enabled = true;
+    private static volatile long defaultTtlMillis = 1_000L;
+    private static volatile Map<String, Long> ttlOverrides = Collections.emptyMap();
+    private static volatile Set<String> volatilePlaceholders = Collections.emptySet();
+
+    static {
+        ChatStats.gauge("placeholder_cache_hits", hits::sum);
+        ChatStats.gauge("placeholder_cache_misses", misses::sum);
+        ChatStats.gauge("placeholder_cache_hit_rate", PlaceholderResolver::getHitRate);
+        ChatStats.gauge("placeholder_cache_players", () -> values.size());
+        PlayerCaches.register("placeholders", PlaceholderResolver::invalidate);
+    }
+
+    /**
+     * Applies configuration
+     * @param config Plugin configuration
+     */
+    public static void initialize(PluginConfig config) {
+        reload(config);
+    }
+
+    /**
+     * Re-reads cache settings and drops all cached values
+     * @param config Plugin configuration
+     */
+    public static void reload(PluginConfig config) {
+        enabled = config.isPlaceholderCacheEnabled();
+        defaultTtlMillis = config.getPlaceholderCacheTtl();
+        ttlOverrides = config.getPlaceholderCacheTtlOverrides();
+        volatilePlaceholders = config.getVolatilePlaceholders();
+        values.clear();
+    }
+
+    /**
+     * Clears all cached values
+     */
+    public static void shutdown() {
+        values.clear();
+    }
+
+    /**
+     * Starts a message scope on the calling thread, values resolved until
+     * {@link #endMessage()} are reused for the rest of the message
+     */
+    public static void beginMessage() {
+        scope.set(new Scope());
+    }
+
+    /**
+     * Ends the message scope of the calling thread
+     */
+    public static void endMessage() {
+        scope.remove();
+    }
+
+    /**
+     * Replaces every %placeholder% in a text, using cached values where possible
+     * @param player Player the placeholders are resolved for
+     * @param text Text to process
+     * @return Text with placeholders replaced
+     */
+    public static String setPlaceholders(Player player, String text) {
+        if (text == null || text.indexOf('%') < 0) {
+            return text;
+        }
+        if (!enabled && scope.get() == null) {
+            return PlaceholderAPI.setPlaceholders(player, text);
+        }
+
+        StringBuilder result = null;
+        int lastEnd = 0;
+        int start = text.indexOf('%');
+        while (start >= 0) {
+            int end = text.indexOf('%', start + 1);
+            if (end < 0) {
+                break;
+            }
+            // A placeholder is identifier_params, anything else is literal text and
+            // its closing % may open the next placeholder
+            int separator = text.indexOf('_', start + 1);
+            if (separator <= start + 1 || separator >= end) {
+                start = end;
+                continue;
+            }
+
+            String value = resolve(player, text.substring(start + 1, end));
+            if (result == null) {
+                result = new StringBuilder(text.length() + 16);
+            }
+            result.append(text, lastEnd, start).append(value);
+            lastEnd = end + 1;
+            start = text.indexOf('%', lastEnd);
+        }
+
+        if (result == null) {
+            return text;
+        }
+        return result.append(text, lastEnd, text.length()).toString();
+    }
+
+    /**
+     * Drops all cached values of a player
+     * @param playerId Player UUID
+     */
+    public static void invalidate(UUID playerId) {
+        values.remove(playerId);
+    }
+
+    /**
+     * Drops all cached values
+     */
+    public static void invalidateAll() {
+        values.clear();
+    }
+
+    /**
+     * Gets the share of lookups served from the cache
+     * @return Hit rate in percent
+     */
+    public static long getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : hitCount * 100 / total;
+    }
+
+    private static String resolve(Player player, String identifier) {
+        UUID playerId = player.getUniqueId();
+        Scope current = scope.get();
+        if (current != null) {
+            String value = current.get(playerId, identifier);
+            if (value != null) {
+                hits.increment();
+                return value;
+            }
+        }
+
+        long ttl = !enabled || volatilePlaceholders.contains(identifier)
+                ? 0L
+                : ttlOverrides.getOrDefault(identifier, defaultTtlMillis);
+        String value = null;
+        if (ttl > 0) {
+            Map<String, Value> cached = values.get(playerId);
+            Value entry = cached != null ? cached.get(identifier) : null;
+            if (entry != null && System.currentTimeMillis() <= entry.expiresAt) {
+                value = entry.value;
+            }
+        }
+
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            value = PlaceholderAPI.setPlaceholders(player, "%" + identifier + "%");
+            if (ttl > 0 && player.isOnline()) {
+                values.computeIfAbsent(playerId, id -> new ConcurrentHashMap<>())
+                        .put(identifier, new Value(value, System.currentTimeMillis() + ttl));
+            }
+        }
+
+        if (current != null) {
+            current.put(playerId, identifier, value);
+        }
+        return value;
+    }
+
+    /**
+     * Values resolved while processing one message
+     */
+    private static final class Scope {
+        private final Map<UUID, Map<String, String>> values = new HashMap<>();
+
+        private String get(UUID playerId, String identifier) {
+            Map<String, String> byIdentifier = values.get(playerId);
+            return byIdentifier != null ? byIdentifier.get(identifier) : null;
+        }
+
+        private void put(UUID playerId, String identifier, String value) {
+            values.computeIfAbsent(playerId, id -> new HashMap<>()).put(identifier, value);
+        }
+    }
+
+    /**
+     * A cached placeholder value
+     */
+    private static final class Value {
+        private final String value;
+        private final long expiresAt;
+
+        private Value(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,24 +1,104 @@
 package com.nonxedy.nonchat.util.special.ignore;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
-import com.nonxedy.nonchat.command.impl.IgnoreCommand;
+import com.nonxedy.nonchat.database.DatabaseManager;
 
 /**
  * Manages player ignore lists for chat functionality
  * Tracks which players have ignored other players
+ * Keeps a forward index (who a player ignores) and a reverse index (who ignores a player),
+ * both safe to read from async chat threads. Lists are loaded when a player joins,
+ * dropped when they leave, and changes go through the database write-behind queue.
  */
 public class IgnoreManager {
-    private final IgnoreCommand ignoreCommand;
+    private final DatabaseManager databaseManager;
+    private final Map<UUID, Set<UUID>> ignoring = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<UUID>> ignoredBy = new ConcurrentHashMap<>();
 
-    // Constructor to initialize with ignore command
-    public IgnoreManager(IgnoreCommand ignoreCommand) {
-        this.ignoreCommand = ignoreCommand;
+    public IgnoreManager(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
     }
-    
+
+    /**
+     * Loads lists of players already online
+     */
+    public void start() {
+        Bukkit.getOnlinePlayers().forEach(this::load);
+    }
+
+    /**
+     * Loads a player's ignore list from their stored data, preloaded before join
+     * or read asynchronously for players already online
+     * @param player The player who joined
+     */
+    public void load(Player player) {
+        UUID owner = player.getUniqueId();
+        databaseManager.getPlayerData(owner).thenAccept(data -> {
+            if (!player.isOnline()) {
+                return;
+            }
+            // The profile may predate changes still queued, e.g. after a reload
+            Map<String, Boolean> queued = databaseManager.getQueuedIgnoreChanges(owner.toString());
+            for (String value : data.getIgnored()) {
+                if (!Boolean.FALSE.equals(queued.get(value))) {
+                    link(owner, value);
+                }
+            }
+            queued.forEach((value, added) -> {
+                if (added) {
+                    link(owner, value);
+                }
+            });
+        });
+    }
+
+    /**
+     * Drops a player's ignore list from memory, unsaved changes stay queued in the database manager
+     * @param owner UUID of the player who left
+     */
+    public void unload(UUID owner) {
+        Set<UUID> targets = ignoring.remove(owner);
+        if (targets != null) {
+            targets.forEach(target -> removeReverse(owner, target));
+        }
+    }
+
+    /**
+     * Toggles whether a player ignores another one
+     * @param owner UUID of the ignoring player
+     * @param target UUID of the player to ignore or unignore
+     * @return true if the target is now ignored, false if it was unignored
+     */
+    public boolean toggle(UUID owner, UUID target) {
+        if (isIgnoring(owner, target)) {
+            unlink(owner, target);
+            databaseManager.setIgnored(owner.toString(), target.toString(), false);
+            return false;
+        }
+        link(owner, target);
+        databaseManager.setIgnored(owner.toString(), target.toString(), true);
+        return true;
+    }
+
+    /**
+     * Removes every entry from a player's ignore list
+     * @param owner UUID of the player whose list to clear
+     */
+    public void clear(UUID owner) {
+        for (UUID target : getIgnored(owner)) {
+            unlink(owner, target);
+            databaseManager.setIgnored(owner.toString(), target.toString(), false);
+        }
+    }
+
     /**
      * Checks if a player is ignoring another player
      * @param sender The player who might be ignoring
@@ -26,24 +106,92 @@ public class IgnoreManager {
      * @return true if sender is ignoring target
      */
     public boolean isIgnoring(Player sender, Player target) {
-        return ignoreCommand.isIgnoring(sender, target);
+        return isIgnoring(sender.getUniqueId(), target.getUniqueId());
     }
-    
+
+    /**
+     * Checks if a player is ignoring another player
+     * @param owner UUID of the player who might be ignoring
+     * @param target UUID of the player who might be ignored
+     * @return true if owner is ignoring target
+     */
+    public boolean isIgnoring(UUID owner, UUID target) {
+        Set<UUID> targets = ignoring.get(owner);
+        return targets != null && targets.contains(target);
+    }
+
     /**
      * Retrieves the set of players ignored by a specific player
      * @param player The player whose ignore list to retrieve
      * @return Set of UUIDs representing ignored players, empty set if none
      */
     public Set<UUID> getIgnoredPlayers(Player player) {
-        return ignoreCommand.getIgnoredPlayers(player);
+        return getIgnored(player.getUniqueId());
+    }
+
+    /**
+     * Retrieves the set of players ignored by a specific player
+     * @param owner UUID of the player whose ignore list to retrieve
+     * @return Unmodifiable live view of ignored UUIDs, empty set if none
+     */
+    public Set<UUID> getIgnored(UUID owner) {
+        Set<UUID> targets = ignoring.get(owner);
+        return targets == null ? Collections.emptySet() : Collections.unmodifiableSet(targets);
+    }
+
+    /**
+     * Retrieves the online players who ignore a specific player, for excluding them from fan-out
+     * @param target UUID of the possibly ignored player
+     * @return Unmodifiable live view of ignoring UUIDs, empty set if none
+     */
+    public Set<UUID> getIgnoredBy(UUID target) {
+        Set<UUID> owners = ignoredBy.get(target);
+        return owners == null ? Collections.emptySet() : Collections.unmodifiableSet(owners);
     }
-    
+
     /**
      * Checks if a player is ignoring anyone
      * @param player The player to check
      * @return true if the player is ignoring at least one other player
      */
     public boolean isIgnoringAnyone(Player player) {
-        return ignoreCommand.isIgnoringAnyone(player);
+        Set<UUID> targets = ignoring.get(player.getUniqueId());
+        return targets != null && !targets.isEmpty();
+    }
+
+    private void link(UUID owner, String target) {
+        try {
+            link(owner, UUID.fromString(target));
+        } catch (IllegalArgumentException e) {
+            // Not a UUID, skip the entry
+        }
+    }
+
+    private void link(UUID owner, UUID target) {
+        ignoring.compute(owner, (key, targets) -> {
+            Set<UUID> result = targets != null ? targets : ConcurrentHashMap.newKeySet();
+            result.add(target);
+            return result;
+        });
+        ignoredBy.compute(target, (key, owners) -> {
+            Set<UUID> result = owners != null ? owners : ConcurrentHashMap.newKeySet();
+            result.add(owner);
+            return result;
+        });
+    }
+
+    private void unlink(UUID owner, UUID target) {
+        ignoring.computeIfPresent(owner, (key, targets) -> {
+            targets.remove(target);
+            return targets.isEmpty() ? null : targets;
+        });
+        removeReverse(owner, target);
+    }
+
+    private void removeReverse(UUID owner, UUID target) {
+        ignoredBy.computeIfPresent(target, (key, owners) -> {
+            owners.remove(owner);
+            return owners.isEmpty() ? null : owners;
+        });
     }
 }
@@ -0,0 +1,114 @@
+package com.nonxedy.nonchat.chat.channel;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.nonxedy.nonchat.api.Channel;
+
+class ChannelPrefixTrieTest {
+
+    @Test
+    void longestPrefixWins() {
+        Channel staff = channel("staff", "!");
+        Channel admin = channel("admin", "!!");
+        Channel trade = channel("trade", "$t");
+        ChannelPrefixTrie trie = ChannelPrefixTrie.build(Arrays.asList(staff, admin, trade));
+
+        assertSame(staff, trie.findLongestPrefix("!hello"));
+        assertSame(admin, trie.findLongestPrefix("!!hello"));
+        assertSame(admin, trie.findLongestPrefix("!!!hello"));
+        assertSame(trade, trie.findLongestPrefix("$tselling"));
+        assertNull(trie.findLongestPrefix("$selling"));
+        assertNull(trie.findLongestPrefix("hello"));
+        assertNull(trie.findLongestPrefix(""));
+    }
+
+    @Test
+    void disabledChannelsFallBackToShorterPrefix() {
+        Channel staff = channel("staff", "!");
+        Channel admin = channel("admin", "!!");
+        ChannelPrefixTrie trie = ChannelPrefixTrie.build(Arrays.asList(staff, admin));
+
+        // Enabled state is read at lookup time, no rebuild needed
+        admin.setEnabled(false);
+        assertSame(staff, trie.findLongestPrefix("!!hello"));
+        assertNull(trie.findExact("!!"));
+
+        admin.setEnabled(true);
+        assertSame(admin, trie.findLongestPrefix("!!hello"));
+    }
+
+    @Test
+    void exactLookups() {
+        Channel staff = channel("staff", "!");
+        Channel admin = channel("admin", "!!");
+        ChannelPrefixTrie trie = ChannelPrefixTrie.build(Arrays.asList(staff, admin));
+
+        assertSame(staff, trie.findExact('!'));
+        assertSame(staff, trie.findExact("!"));
+        assertSame(admin, trie.findExact("!!"));
+        assertNull(trie.findExact("!!!"));
+        assertNull(trie.findExact('?'));
+    }
+
+    @Test
+    void channelsWithoutPrefixAreSkipped() {
+        ChannelPrefixTrie trie = ChannelPrefixTrie.build(Arrays.asList(channel("global", ""), channel("local", null)));
+
+        assertNull(trie.findLongestPrefix("hello"));
+        assertNull(ChannelPrefixTrie.EMPTY.findLongestPrefix("!hello"));
+    }
+
+    @Test
+    void rebuildReflectsChannelChanges() {
+        Channel staff = channel("staff", "!");
+        Channel admin = channel("admin", "!!");
+        List<Channel> channels = new ArrayList<>(Arrays.asList(staff, admin));
+        ChannelPrefixTrie before = ChannelPrefixTrie.build(channels);
+
+        // Admin moves to a new prefix and a trade channel is added
+        Channel movedAdmin = channel("admin", "#");
+        Channel trade = channel("trade", "!t");
+        channels.set(1, movedAdmin);
+        channels.add(trade);
+        ChannelPrefixTrie after = ChannelPrefixTrie.build(channels);
+
+        assertSame(staff, after.findLongestPrefix("!!hello"));
+        assertSame(movedAdmin, after.findLongestPrefix("#hello"));
+        assertSame(trade, after.findLongestPrefix("!thello"));
+
+        // The previous trie is immutable and keeps answering for the old channel set
+        assertSame(admin, before.findLongestPrefix("!!hello"));
+        assertNull(before.findLongestPrefix("#hello"));
+        assertSame(staff, before.findLongestPrefix("!thello"));
+
+        channels.remove(staff);
+        assertNull(ChannelPrefixTrie.build(channels).findLongestPrefix("!hello"));
+    }
+
+    private static Channel channel(String id, String prefix) {
+        boolean[] enabled = {true};
+        return (Channel) Proxy.newProxyInstance(Channel.class.getClassLoader(), new Class<?>[]{Channel.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getId" -> id;
+                    case "getPrefix" -> prefix;
+                    case "hasPrefix" -> prefix != null && !prefix.isEmpty();
+                    case "isEnabled" -> enabled[0];
+                    case "setEnabled" -> {
+                        enabled[0] = (Boolean) args[0];
+                        yield null;
+                    }
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Channel[" + id + "]";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,66 @@
+package com.nonxedy.nonchat.chat.channel;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.reflect.Proxy;
+
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+class PlayerNameIndexTest {
+
+    @Test
+    void lookupIgnoresCase() {
+        PlayerNameIndex index = new PlayerNameIndex();
+        Player steve = player("Steve");
+        index.add(steve);
+
+        assertSame(steve, index.get("steve"));
+        assertSame(steve, index.get("STEVE"));
+    }
+
+    @Test
+    void lookupDoesNotMatchPrefixes() {
+        PlayerNameIndex index = new PlayerNameIndex();
+        index.add(player("Steve"));
+
+        assertNull(index.get("Ste"));
+        assertNull(index.get("Steve2"));
+    }
+
+    @Test
+    void removeKeepsPlayerWhoTookOverTheName() {
+        PlayerNameIndex index = new PlayerNameIndex();
+        Player old = player("Steve");
+        Player current = player("steve");
+        index.add(old);
+        index.add(current);
+        index.remove(old);
+
+        assertSame(current, index.get("Steve"));
+
+        index.remove(current);
+        assertNull(index.get("Steve"));
+    }
+
+    @Test
+    void stopClearsIndex() {
+        PlayerNameIndex index = new PlayerNameIndex();
+        index.add(player("Alex"));
+        index.stop();
+
+        assertNull(index.get("Alex"));
+    }
+
+    private static Player player(String name) {
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[]{Player.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getName" -> name;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Player[" + name + "]";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,59 @@
+package com.nonxedy.nonchat.database;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class StorageTableTest {
+
+    @Test
+    void columnsListKeysFirst() {
+        assertArrayEquals(new String[]{"uuid", "category", "tag_id"}, StorageTable.PLAYER_TAGS.getColumns());
+        assertArrayEquals(new String[]{"category_id", "version", "content_hash"}, StorageTable.TAG_VERSIONS.getColumns());
+        assertArrayEquals(new String[]{"uuid", "ignored_uuid"}, StorageTable.PLAYER_IGNORES.getColumns());
+    }
+
+    @Test
+    void gettersReturnCopies() {
+        StorageTable.PLAYER_SETTINGS.getKeyColumns()[0] = "changed";
+        StorageTable.PLAYER_SETTINGS.getValueColumns()[0] = "changed";
+
+        assertArrayEquals(new String[]{"uuid", "setting_key"}, StorageTable.PLAYER_SETTINGS.getKeyColumns());
+        assertArrayEquals(new String[]{"setting_value"}, StorageTable.PLAYER_SETTINGS.getValueColumns());
+    }
+
+    @Test
+    void mariaDbUpsertUpdatesValueColumns() {
+        MariaDbStorage storage = new MariaDbStorage(null, null);
+
+        assertEquals("INSERT INTO nonchat_tag_versions (category_id, version, content_hash) VALUES (?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE version = VALUES(version), content_hash = VALUES(content_hash)",
+                storage.buildUpsert(StorageTable.TAG_VERSIONS));
+        assertEquals("INSERT IGNORE INTO nonchat_player_ignores (uuid, ignored_uuid) VALUES (?, ?)",
+                storage.buildUpsert(StorageTable.PLAYER_IGNORES));
+    }
+
+    @Test
+    void sqliteUpsertUpdatesValueColumns() {
+        SqliteStorage storage = new SqliteStorage(null, null);
+
+        assertEquals("INSERT INTO nonchat_player_settings (uuid, setting_key, setting_value) VALUES (?, ?, ?) "
+                + "ON CONFLICT (uuid, setting_key) DO UPDATE SET setting_value = excluded.setting_value",
+                storage.buildUpsert(StorageTable.PLAYER_SETTINGS));
+        assertEquals("INSERT OR IGNORE INTO nonchat_player_ignores (uuid, ignored_uuid) VALUES (?, ?)",
+                storage.buildUpsert(StorageTable.PLAYER_IGNORES));
+    }
+
+    @Test
+    void everyTableHasAnUpsert() {
+        MariaDbStorage mariaDb = new MariaDbStorage(null, null);
+        SqliteStorage sqlite = new SqliteStorage(null, null);
+        for (StorageTable table : StorageTable.values()) {
+            String columns = String.join(", ", table.getColumns());
+            assertTrue(mariaDb.buildUpsert(table).contains("(" + columns + ")"), table.name());
+            assertTrue(sqlite.buildUpsert(table).contains("(" + columns + ")"), table.name());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.nonxedy.nonchat.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TagVersionTest {
+
+    @Test
+    void hashIsLowercaseSha256Hex() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", TagVersion.hash(""));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", TagVersion.hash("abc"));
+    }
+
+    @Test
+    void hashDependsOnContent() {
+        assertEquals(TagVersion.hash("tags: {}"), TagVersion.hash("tags: {}"));
+        assertNotEquals(TagVersion.hash("tags: {}"), TagVersion.hash("tags: {} "));
+    }
+
+    @Test
+    void emptyHashMarksDeletedCategory() {
+        assertTrue(new TagVersion(3, "").isDeleted());
+        assertFalse(new TagVersion(3, TagVersion.hash("")).isDeleted());
+    }
+}
@@ -0,0 +1,137 @@
+package com.nonxedy.nonchat.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.nonxedy.nonchat.database.WriteBehindQueue.Key;
+import com.nonxedy.nonchat.database.WriteBehindQueue.Kind;
+import com.nonxedy.nonchat.database.WriteBehindQueue.Write;
+
+// The queue is never started and stays below its batch size, so no scheduler is needed
+class WriteBehindQueueTest {
+    private static final String ALICE = "00000000-0000-0000-0000-00000000000a";
+    private static final String BOB = "00000000-0000-0000-0000-00000000000b";
+
+    private final List<Map<Key, Write>> written = new ArrayList<>();
+
+    private WriteBehindQueue queue(WriteBehindQueue.BatchWriter writer) {
+        return new WriteBehindQueue(null, writer);
+    }
+
+    private boolean record(Map<Key, Write> batch) {
+        written.add(new HashMap<>(batch));
+        return true;
+    }
+
+    @Test
+    void laterWriteReplacesQueuedOne() {
+        WriteBehindQueue queue = queue(this::record);
+        queue.put(Kind.SETTING, ALICE, "volume", "1");
+        queue.put(Kind.SETTING, ALICE, "volume", "2");
+
+        assertEquals(1, queue.size());
+        assertEquals("2", queue.get(Kind.SETTING, ALICE, "volume").getValue());
+
+        queue.flush();
+        assertEquals(1, written.size());
+        assertEquals("2", written.get(0).values().iterator().next().getValue());
+        assertEquals(0, queue.size());
+        assertNull(queue.get(Kind.SETTING, ALICE, "volume"));
+    }
+
+    @Test
+    void kindsDoNotShareRows() {
+        WriteBehindQueue queue = queue(this::record);
+        queue.put(Kind.SETTING, ALICE, "x", "setting");
+        queue.put(Kind.TAG, ALICE, "x", "tag");
+        queue.put(Kind.IGNORE, ALICE, "x", "x");
+
+        assertEquals(3, queue.size());
+        assertEquals(3, queue.getPending(ALICE).size());
+    }
+
+    @Test
+    void nullValueQueuesDelete() {
+        WriteBehindQueue queue = queue(this::record);
+        queue.put(Kind.IGNORE, ALICE, BOB, null);
+
+        assertTrue(queue.get(Kind.IGNORE, ALICE, BOB).isDelete());
+    }
+
+    @Test
+    void playerFlushOnlyWritesThatPlayer() {
+        WriteBehindQueue queue = queue(this::record);
+        queue.put(Kind.TAG, ALICE, "rank", "vip");
+        queue.put(Kind.TAG, BOB, "rank", "admin");
+
+        queue.flush(ALICE);
+        assertEquals(1, written.get(0).size());
+        assertNull(queue.get(Kind.TAG, ALICE, "rank"));
+        assertNotNull(queue.get(Kind.TAG, BOB, "rank"));
+        assertTrue(queue.getPending(ALICE).isEmpty());
+    }
+
+    @Test
+    void batchStaysReadableWhileBeingWritten() {
+        List<String> seen = new ArrayList<>();
+        WriteBehindQueue[] holder = new WriteBehindQueue[1];
+        holder[0] = queue(batch -> {
+            Write inFlight = holder[0].get(Kind.SETTING, ALICE, "volume");
+            seen.add(inFlight == null ? null : inFlight.getValue());
+            seen.add(holder[0].getPending(ALICE).get(batch.keySet().iterator().next()).getValue());
+            return true;
+        });
+        holder[0].put(Kind.SETTING, ALICE, "volume", "5");
+
+        holder[0].flush();
+        assertEquals(List.of("5", "5"), seen);
+        assertNull(holder[0].get(Kind.SETTING, ALICE, "volume"));
+    }
+
+    @Test
+    void newerWriteWinsOverInFlightOne() {
+        WriteBehindQueue[] holder = new WriteBehindQueue[1];
+        holder[0] = queue(batch -> {
+            holder[0].put(Kind.SETTING, ALICE, "volume", "2");
+            assertEquals("2", holder[0].get(Kind.SETTING, ALICE, "volume").getValue());
+            return true;
+        });
+        holder[0].put(Kind.SETTING, ALICE, "volume", "1");
+
+        holder[0].flush();
+        assertEquals("2", holder[0].get(Kind.SETTING, ALICE, "volume").getValue());
+        assertEquals(1, holder[0].size());
+    }
+
+    @Test
+    void failedBatchIsQueuedAgain() {
+        WriteBehindQueue queue = queue(batch -> false);
+        queue.put(Kind.TAG, ALICE, "rank", "vip");
+
+        queue.flush();
+        assertEquals(1, queue.size());
+        assertEquals("vip", queue.get(Kind.TAG, ALICE, "rank").getValue());
+    }
+
+    @Test
+    void failedBatchDoesNotReplaceNewerWrite() {
+        WriteBehindQueue[] holder = new WriteBehindQueue[1];
+        holder[0] = queue(batch -> {
+            holder[0].put(Kind.TAG, ALICE, "rank", "admin");
+            return false;
+        });
+        holder[0].put(Kind.TAG, ALICE, "rank", "vip");
+
+        holder[0].flush();
+        assertEquals("admin", holder[0].get(Kind.TAG, ALICE, "rank").getValue());
+    }
+}
@@ -0,0 +1,106 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BannedWordMatcherTest {
+
+    @Test
+    void overlappingWordsReportTheEarliestEndingMatch() {
+        BannedWordMatcher matcher = new BannedWordMatcher(Arrays.asList("he", "she", "his", "hers"));
+
+        assertEquals("she", matcher.findFirst("ushers"));
+        assertEquals("his", matcher.findFirst("ahishers"));
+        assertEquals("he", matcher.findFirst("the end"));
+        assertNull(matcher.findFirst("hi shy"));
+    }
+
+    @Test
+    void failureLinksRecoverPartialMatches() {
+        BannedWordMatcher matcher = new BannedWordMatcher(Arrays.asList("abcd", "bc"));
+
+        // "abc" is a dead end for abcd, the failure link must still find bc
+        assertEquals("bc", matcher.findFirst("abce"));
+        assertEquals("bc", matcher.findFirst("xxbcxx"));
+        assertEquals("abcd", new BannedWordMatcher(Arrays.asList("abcd", "cde")).findFirst("abcde"));
+    }
+
+    @Test
+    void matchesAtMessageAndWordBoundaries() {
+        BannedWordMatcher matcher = new BannedWordMatcher(Arrays.asList("bad"));
+
+        assertEquals("bad", matcher.findFirst("bad"));
+        assertEquals("bad", matcher.findFirst("bad start"));
+        assertEquals("bad", matcher.findFirst("at the end bad"));
+        assertEquals("bad", matcher.findFirst("a bad, word"));
+        // Substring semantics, the same as the lowercase contains it replaced
+        assertEquals("bad", matcher.findFirst("notbadatall"));
+        assertNull(matcher.findFirst("ba d"));
+        assertNull(matcher.findFirst(""));
+    }
+
+    @Test
+    void matchingIsCaseInsensitiveAndReturnsConfiguredWord() {
+        BannedWordMatcher matcher = new BannedWordMatcher(Arrays.asList("BadWord"));
+
+        assertEquals("BadWord", matcher.findFirst(BannedWordMatcher.toLowerCase("a BADWORD here")));
+    }
+
+    @Test
+    void emptyEntriesAreIgnored() {
+        BannedWordMatcher matcher = new BannedWordMatcher(Arrays.asList("", null, "x"));
+
+        assertEquals(1, matcher.size());
+        assertNull(new BannedWordMatcher(new ArrayList<>()).findFirst("anything"));
+    }
+
+    @Test
+    void agreesWithContainsOnRandomInput() {
+        Random random = new Random(3);
+        for (int round = 0; round < 300; round++) {
+            List<String> words = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(6); i++) {
+                words.add(randomString(random, 1 + random.nextInt(4)));
+            }
+            BannedWordMatcher matcher = new BannedWordMatcher(words);
+            String text = randomString(random, random.nextInt(30));
+
+            String found = matcher.findFirst(text);
+            int expectedEnd = earliestEnd(words, text);
+            if (expectedEnd < 0) {
+                assertNull(found, words + " in " + text);
+            } else {
+                String context = words + " in " + text;
+                assertTrue(found != null && text.contains(found), context);
+                assertEquals(expectedEnd, text.indexOf(found) + found.length(), context);
+            }
+        }
+    }
+
+    private static int earliestEnd(List<String> words, String text) {
+        int best = -1;
+        for (String word : words) {
+            int index = text.indexOf(word);
+            if (index >= 0 && (best < 0 || index + word.length() < best)) {
+                best = index + word.length();
+            }
+        }
+        return best;
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(3)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,128 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class MessageHistoryTest {
+
+    @Test
+    void ringWrapsAroundKeepingNewestMessages() {
+        MessageHistory history = new MessageHistory(UUID.randomUUID(), 3, 60, 60, 60);
+        for (int i = 0; i < 5; i++) {
+            add(history, "message " + i, 1_000L + i);
+        }
+
+        assertEquals(3, history.size());
+        assertEquals("message 4", history.getNormalizedMessage(0));
+        assertEquals("message 3", history.getNormalizedMessage(1));
+        assertEquals("message 2", history.getNormalizedMessage(2));
+        assertEquals(MessageHistory.hash("message 4"), history.getHash(0));
+        assertEquals(TextSimilarityUtil.sketch("message 2"), history.getSketch(2));
+        assertEquals(3, history.getFloodCount(1_010L));
+    }
+
+    @Test
+    void evictedMessagesLeaveRepeatCounts() {
+        MessageHistory history = new MessageHistory(UUID.randomUUID(), 3, 60, 60, 60);
+        long hash = MessageHistory.hash("spam");
+        add(history, "spam", 1_000L);
+        add(history, "spam", 1_001L);
+        assertEquals(2, history.getRepeatCount(hash, 1_002L));
+
+        add(history, "hello", 1_002L);
+        add(history, "there", 1_003L);
+        assertEquals(1, history.getRepeatCount(hash, 1_004L));
+
+        add(history, "friend", 1_004L);
+        assertEquals(0, history.getRepeatCount(hash, 1_005L));
+    }
+
+    @Test
+    void windowsExpireOldMessages() {
+        MessageHistory history = new MessageHistory(UUID.randomUUID(), 10, 5, 10, 2);
+        long hash = MessageHistory.hash("spam");
+        add(history, "spam", 0L);
+        add(history, "spam", 3_000L);
+        add(history, "other", 4_000L);
+
+        assertEquals(2, history.getRepeatCount(hash, 5_000L));
+        assertEquals(2, history.getFloodCount(5_000L));
+        assertEquals(3, history.getSimilarCount(5_000L));
+
+        // A message exactly at the cutoff is still inside the window
+        assertEquals(1, history.getRepeatCount(hash, 8_000L));
+        assertEquals(0, history.getRepeatCount(hash, 8_001L));
+        assertEquals(0, history.getFloodCount(8_001L));
+        assertEquals(1, history.getSimilarCount(14_000L));
+        assertEquals(0, history.getSimilarCount(14_001L));
+        assertEquals(3, history.size());
+    }
+
+    @Test
+    void shrinkingCapacityKeepsNewestMessages() {
+        MessageHistory history = new MessageHistory(UUID.randomUUID(), 5, 60, 60, 60);
+        for (int i = 0; i < 5; i++) {
+            add(history, i % 2 == 0 ? "even" : "odd", 1_000L + i);
+        }
+
+        history.configure(2, 60, 60, 60);
+
+        assertEquals(2, history.size());
+        assertEquals("even", history.getNormalizedMessage(0));
+        assertEquals("odd", history.getNormalizedMessage(1));
+        assertEquals(1, history.getRepeatCount(MessageHistory.hash("even"), 1_010L));
+        assertEquals(2, history.getFloodCount(1_010L));
+    }
+
+    @Test
+    void agreesWithNaiveHistoryOnRandomTraffic() {
+        Random random = new Random(11);
+        int capacity = 7;
+        long repetitiveMillis = 4_000L;
+        long floodMillis = 2_000L;
+        MessageHistory history = new MessageHistory(UUID.randomUUID(), capacity, 4, 3, 2);
+        List<String> messages = new ArrayList<>();
+        List<Long> times = new ArrayList<>();
+
+        long now = 0L;
+        for (int i = 0; i < 2000; i++) {
+            now += random.nextInt(1_500);
+            String message = "m" + random.nextInt(4);
+            add(history, message, now);
+            messages.add(message);
+            times.add(now);
+            if (messages.size() > capacity) {
+                messages.remove(0);
+                times.remove(0);
+            }
+
+            long queryTime = now + random.nextInt(1_000);
+            String probe = "m" + random.nextInt(4);
+            int expectedRepeats = 0;
+            int expectedFlood = 0;
+            for (int j = 0; j < messages.size(); j++) {
+                if (times.get(j) >= queryTime - repetitiveMillis && messages.get(j).equals(probe)) {
+                    expectedRepeats++;
+                }
+                if (times.get(j) >= queryTime - floodMillis) {
+                    expectedFlood++;
+                }
+            }
+            assertEquals(expectedRepeats, history.getRepeatCount(MessageHistory.hash(probe), queryTime), "step " + i);
+            assertEquals(expectedFlood, history.getFloodCount(queryTime), "step " + i);
+            assertEquals(messages.size(), history.size());
+            // Queries never go back in time, the next message is sent at or after this one
+            now = queryTime;
+        }
+    }
+
+    private static void add(MessageHistory history, String message, long timestamp) {
+        history.addMessage(message, message, timestamp);
+    }
+}
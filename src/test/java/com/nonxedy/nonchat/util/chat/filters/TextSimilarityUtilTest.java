@@ -0,0 +1,144 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TextSimilarityUtilTest {
+
+    private static final double[] THRESHOLDS = {0.0, 0.25, 0.5, 0.7, 0.8, 0.85, 0.9, 0.99, 1.0};
+
+    @Test
+    void randomPairsMatchReference() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            String first = randomString(random, random.nextInt(24), 4);
+            String second = random.nextBoolean()
+                    ? mutate(random, first, random.nextInt(4))
+                    : randomString(random, random.nextInt(24), 4);
+            assertMatchesReference(first, second);
+        }
+    }
+
+    @Test
+    void emptyStringsMatchReference() {
+        assertMatchesReference("", "");
+        assertMatchesReference("", "a");
+        assertMatchesReference("hello", "");
+        assertMatchesReference("   ", "");
+        assertEquals(1.0, TextSimilarityUtil.calculateSimilarity("", ""));
+        assertEquals(0.0, TextSimilarityUtil.calculateSimilarity("", "abc"));
+    }
+
+    @Test
+    void veryDifferentLengthsMatchReference() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            String shortText = randomString(random, 1 + random.nextInt(3), 6);
+            String longText = randomString(random, 40 + random.nextInt(60), 6);
+            assertMatchesReference(shortText, longText);
+            assertMatchesReference(longText, shortText);
+        }
+    }
+
+    @Test
+    void stringsLongerThanSixtyFourCharactersMatchReference() {
+        Random random = new Random(99);
+        for (int i = 0; i < 200; i++) {
+            String first = randomString(random, 65 + random.nextInt(300), 26);
+            String second = random.nextBoolean()
+                    ? mutate(random, first, random.nextInt(20))
+                    : randomString(random, 65 + random.nextInt(300), 26);
+            assertMatchesReference(first, second);
+        }
+    }
+
+    @Test
+    void boundaryThresholds() {
+        assertTrue(TextSimilarityUtil.isSimilar("abc", "xyz", 0.0));
+        assertTrue(TextSimilarityUtil.isSimilar("", "xyz", 0.0));
+        assertTrue(TextSimilarityUtil.isSimilar("abc", "abc", 1.0));
+        assertFalse(TextSimilarityUtil.isSimilar("abc", "abd", 1.0));
+        assertFalse(TextSimilarityUtil.isSimilar(null, "abc", 0.5));
+    }
+
+    @Test
+    void normalizesCaseAndWhitespace() {
+        assertEquals(1.0, TextSimilarityUtil.calculateSimilarity("  Hello World ", "hello world"));
+        assertEquals(0.0, TextSimilarityUtil.calculateSimilarity(null, "hello"));
+    }
+
+    private static void assertMatchesReference(String first, String second) {
+        String normalized1 = first.toLowerCase().trim();
+        String normalized2 = second.toLowerCase().trim();
+        double expected = referenceSimilarity(normalized1, normalized2);
+        String pair = "'" + first + "' vs '" + second + "'";
+
+        assertEquals(expected, TextSimilarityUtil.calculateSimilarity(first, second), pair);
+        assertEquals(expected, TextSimilarityUtil.calculateNormalizedSimilarity(normalized1, normalized2), pair);
+
+        long sketch1 = TextSimilarityUtil.sketch(normalized1);
+        long sketch2 = TextSimilarityUtil.sketch(normalized2);
+        for (double threshold : THRESHOLDS) {
+            boolean similar = expected >= threshold;
+            String message = pair + " at " + threshold;
+            assertEquals(similar, TextSimilarityUtil.isSimilar(normalized1, normalized2, threshold), message);
+            assertEquals(similar, TextSimilarityUtil.isSimilar(normalized1, sketch1, normalized2, sketch2, threshold), message);
+        }
+        // Thresholds right at the achieved score are the easiest to get wrong
+        assertTrue(TextSimilarityUtil.isSimilar(normalized1, sketch1, normalized2, sketch2, expected), pair);
+        assertFalse(TextSimilarityUtil.isSimilar(normalized1, sketch1, normalized2, sketch2, Math.nextUp(expected)), pair);
+    }
+
+    private static double referenceSimilarity(String first, String second) {
+        int maxLength = Math.max(first.length(), second.length());
+        if (maxLength == 0) {
+            return 1.0;
+        }
+        return 1.0 - ((double) levenshtein(first, second) / maxLength);
+    }
+
+    /** Full matrix Levenshtein distance, kept deliberately naive */
+    private static int levenshtein(String first, String second) {
+        int[][] matrix = new int[first.length() + 1][second.length() + 1];
+        for (int i = 0; i <= first.length(); i++) {
+            matrix[i][0] = i;
+        }
+        for (int j = 0; j <= second.length(); j++) {
+            matrix[0][j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            for (int j = 1; j <= second.length(); j++) {
+                int cost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+                matrix[i][j] = Math.min(Math.min(matrix[i - 1][j] + 1, matrix[i][j - 1] + 1),
+                        matrix[i - 1][j - 1] + cost);
+            }
+        }
+        return matrix[first.length()][second.length()];
+    }
+
+    private static String randomString(Random random, int length, int alphabet) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(alphabet)));
+        }
+        return builder.toString();
+    }
+
+    private static String mutate(Random random, String text, int edits) {
+        StringBuilder builder = new StringBuilder(text);
+        for (int i = 0; i < edits; i++) {
+            int position = builder.length() == 0 ? 0 : random.nextInt(builder.length());
+            switch (builder.length() == 0 ? 0 : random.nextInt(3)) {
+                case 0 -> builder.insert(position, (char) ('a' + random.nextInt(26)));
+                case 1 -> builder.deleteCharAt(position);
+                default -> builder.setCharAt(position, (char) ('a' + random.nextInt(26)));
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package com.nonxedy.nonchat.util.core.colors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ColorLexerTest {
+
+    @Test
+    void plainTextPassesThrough() {
+        ColorLexer lexer = ColorLexer.lex("hello world");
+
+        assertFalse(lexer.hasColorCodes());
+        assertFalse(lexer.hasMiniMessageTags());
+        assertEquals("hello world", lexer.toPlainText());
+        assertEquals("hello world", lexer.toLegacyString());
+        assertEquals("hello world", lexer.toMiniMessage());
+    }
+
+    @Test
+    void legacyCodesAreTranslated() {
+        ColorLexer lexer = ColorLexer.lex("&aHello &lWorld");
+
+        assertTrue(lexer.hasColorCodes());
+        assertFalse(lexer.hasMiniMessageTags());
+        assertEquals("§aHello §lWorld", lexer.toLegacyString());
+        assertEquals("<green>Hello <bold>World", lexer.toMiniMessage());
+        assertEquals("Hello World", lexer.toPlainText());
+    }
+
+    @Test
+    void unknownCodesStayText() {
+        ColorLexer lexer = ColorLexer.lex("a&xb &zc");
+
+        assertFalse(lexer.hasColorCodes());
+        assertEquals("a&xb &zc", lexer.toPlainText());
+    }
+
+    @Test
+    void ampersandHexBecomesMiniMessageHex() {
+        ColorLexer lexer = ColorLexer.lex("&#ff0000Red");
+
+        assertTrue(lexer.hasColorCodes());
+        assertEquals("<#ff0000>Red", lexer.toMiniMessage());
+        assertEquals("Red", lexer.toPlainText());
+    }
+
+    @Test
+    void ampersandHexIsKeptWhenTextUsesMiniMessageHex() {
+        ColorLexer lexer = ColorLexer.lex("<#00ff00>a &#ff0000b");
+
+        assertTrue(lexer.hasMiniMessageTags());
+        assertEquals("<#00ff00>a &#ff0000b", lexer.toMiniMessage());
+    }
+
+    @Test
+    void miniMessageTagsAreDetectedAndStripped() {
+        ColorLexer lexer = ColorLexer.lex("<red>Hi</red>");
+
+        assertTrue(lexer.hasMiniMessageTags());
+        assertFalse(lexer.hasCompactGradients());
+        assertEquals("<red>Hi</red>", lexer.toMiniMessage());
+        assertEquals("Hi", lexer.toPlainText());
+    }
+
+    @Test
+    void compactGradientBecomesGradientTag() {
+        ColorLexer lexer = ColorLexer.lex("<#ff0000#0000ff>Hi");
+
+        assertTrue(lexer.hasCompactGradients());
+        assertEquals("<gradient:#ff0000:#0000ff>Hi", lexer.toMiniMessage());
+    }
+
+    @Test
+    void closeAllTagBecomesReset() {
+        assertEquals("<red>a<reset>b", ColorLexer.lex("<red>a</>b").toMiniMessage());
+    }
+}
@@ -0,0 +1,68 @@
+package com.nonxedy.nonchat.util.core.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0.0, histogram.getMean());
+        assertEquals(0L, histogram.getMax());
+        assertEquals(0L, histogram.getPercentile(0.99));
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 0; value < 16; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(16L, histogram.getCount());
+        assertEquals(7.5, histogram.getMean());
+        assertEquals(15L, histogram.getMax());
+        assertEquals(7L, histogram.getPercentile(0.5));
+        assertEquals(15L, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1_000L);
+        }
+
+        long p50 = histogram.getPercentile(0.5);
+        long p99 = histogram.getPercentile(0.99);
+        assertTrue(p50 >= 500_000L && p50 <= 500_000L * 107 / 100, "p50 was " + p50);
+        assertTrue(p99 >= 990_000L && p99 <= 1_000_000L, "p99 was " + p99);
+        assertEquals(1_000_000L, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    void negativeValuesCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5L);
+
+        assertEquals(1L, histogram.getCount());
+        assertEquals(0L, histogram.getMax());
+        assertEquals(0L, histogram.getPercentile(0.5));
+    }
+
+    @Test
+    void resetClearsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(42_000L);
+        histogram.reset();
+
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getMax());
+        assertEquals(0L, histogram.getPercentile(0.5));
+    }
+}